@@ -0,0 +1,130 @@
+package com.jena.bookapi.simulator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point: replays a trace against every combination of the given settings
+ *
+ * <p>Interview Points: 1. All configurations consume the same pass over the trace, so a large
+ * trace is read once however many are compared 2. Results are relative: the trace is sampled by
+ * key, so hit ratios and queries per request carry over to production while absolute QPS must be
+ * divided by the sample rate 3. The capacity is the combined budget of one node's book and listing
+ * caches, so compare it with twice {@code app.cache.local.maximum-weight} 4. Defaults match the
+ * API today: Caffeine, 64MB, 60 minutes for books and 2 hours for pages, normalized pages
+ *
+ * <p>Usage: {@code java -jar cache-simulator.jar <trace.csv> [--policies=lru,lfu,tinylfu]
+ * [--capacities=8MB,32MB] [--ttls=60m,60m/2h] [--modes=normalized,page]}, where a TTL of
+ * {@code book/page} sets the two separately
+ */
+public final class CacheSimulator {
+
+  private CacheSimulator() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0 || args[0].startsWith("--")) {
+      System.err.println(
+          "Usage: cache-simulator <trace.csv> [--policies=lru,lfu,tinylfu]"
+              + " [--capacities=8MB,32MB] [--ttls=60m,60m/2h] [--modes=normalized,page]");
+      System.exit(2);
+    }
+    Path trace = Path.of(args[0]);
+    if (!Files.isReadable(trace)) {
+      System.err.println("Cannot read trace " + trace);
+      System.exit(2);
+    }
+    List<SimulationConfig> configs = configs(Arrays.copyOfRange(args, 1, args.length));
+
+    TraceReader reader = new TraceReader();
+    List<SimulationResult> results = replay(reader, trace, configs);
+
+    System.out.println(SimulationResult.HEADER);
+    results.forEach(result -> System.out.println(result.row()));
+    SimulationResult first = results.get(0);
+    System.out.printf(
+        Locale.ROOT,
+        "%n%d reads and %d writes over %ds of trace time%s%n",
+        first.requests(),
+        first.writes(),
+        first.elapsedMillis() / 1000,
+        reader.skippedLines() > 0 ? ", " + reader.skippedLines() + " malformed lines skipped" : "");
+  }
+
+  /** Replay {@code trace} once, feeding every event to a simulation of each configuration. */
+  static List<SimulationResult> replay(
+      TraceReader reader, Path trace, List<SimulationConfig> configs) throws IOException {
+    List<Simulation> simulations = configs.stream().map(Simulation::new).toList();
+    try (Stream<TraceEvent> events = reader.read(trace)) {
+      events.forEach(event -> simulations.forEach(simulation -> simulation.accept(event)));
+    }
+    return simulations.stream().map(Simulation::result).toList();
+  }
+
+  /** The cross product of the options, defaulting each to the API's current setting. */
+  static List<SimulationConfig> configs(String[] options) {
+    List<EvictionPolicy> policies = List.of(EvictionPolicy.TINY_LFU);
+    List<Long> capacities = List.of(Sizes.parseBytes("64MB"));
+    List<Duration[]> ttls = List.<Duration[]>of(ttl("60m/2h"));
+    List<SimulationConfig.Mode> modes = List.of(SimulationConfig.Mode.NORMALIZED);
+    for (String option : options) {
+      int equals = option.indexOf('=');
+      if (!option.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Expected --name=value, got " + option);
+      }
+      List<String> values = Arrays.asList(option.substring(equals + 1).split(","));
+      switch (option.substring(2, equals)) {
+        case "policies" -> policies = values.stream().map(CacheSimulator::policy).toList();
+        case "capacities" -> capacities = values.stream().map(Sizes::parseBytes).toList();
+        case "ttls" -> ttls = values.stream().map(CacheSimulator::ttl).toList();
+        case "modes" -> modes = values.stream().map(CacheSimulator::mode).toList();
+        default -> throw new IllegalArgumentException("Unknown option " + option);
+      }
+    }
+    List<SimulationConfig> configs = new ArrayList<>();
+    for (EvictionPolicy policy : policies) {
+      for (long capacity : capacities) {
+        for (Duration[] ttl : ttls) {
+          for (SimulationConfig.Mode mode : modes) {
+            configs.add(new SimulationConfig(policy, capacity, ttl[0], ttl[1], mode));
+          }
+        }
+      }
+    }
+    return configs;
+  }
+
+  private static EvictionPolicy policy(String name) {
+    return switch (name.trim().toLowerCase(Locale.ROOT)) {
+      case "lru" -> EvictionPolicy.LRU;
+      case "lfu" -> EvictionPolicy.LFU;
+      case "tinylfu", "tiny_lfu", "caffeine" -> EvictionPolicy.TINY_LFU;
+      default -> throw new IllegalArgumentException("Unknown policy " + name);
+    };
+  }
+
+  private static SimulationConfig.Mode mode(String name) {
+    return switch (name.trim().toLowerCase(Locale.ROOT)) {
+      case "normalized" -> SimulationConfig.Mode.NORMALIZED;
+      case "page", "whole-page" -> SimulationConfig.Mode.WHOLE_PAGE;
+      default -> throw new IllegalArgumentException("Unknown page mode " + name);
+    };
+  }
+
+  /** {@code 60m} for books and pages alike, or {@code 60m/15m} for books then pages. */
+  private static Duration[] ttl(String value) {
+    int slash = value.indexOf('/');
+    if (slash < 0) {
+      Duration both = Sizes.parseDuration(value);
+      return new Duration[] {both, both};
+    }
+    Duration book = Sizes.parseDuration(value.substring(0, slash));
+    return new Duration[] {book, Sizes.parseDuration(value.substring(slash + 1))};
+  }
+}
@@ -0,0 +1,11 @@
+package com.jena.bookapi.simulator;
+
+/** Eviction policies the simulator can compare. */
+public enum EvictionPolicy {
+  /** Least recently used. */
+  LRU,
+  /** Least frequently used, ties broken by recency. */
+  LFU,
+  /** Caffeine's W-TinyLFU, the policy of the API's L1 cache. */
+  TINY_LFU
+}
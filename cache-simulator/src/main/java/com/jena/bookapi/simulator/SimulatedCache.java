@@ -0,0 +1,244 @@
+package com.jena.bookapi.simulator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A size-bounded cache that only tracks keys and weights, driven by the trace's clock
+ *
+ * <p>Interview Points: 1. Values are never stored, only their weights, so a trace of a large
+ * catalogue replays in little memory 2. Time comes from the trace, not the wall clock, so a day of
+ * traffic replays in seconds with the same expiries 3. LRU and LFU expire entries lazily, when they
+ * are next read or reach the eviction end; Caffeine removes them during its own maintenance 4. An
+ * entry larger than the whole capacity is never admitted
+ */
+abstract class SimulatedCache {
+
+  protected final long capacity;
+  protected final LongSupplier clock;
+
+  SimulatedCache(long capacity, LongSupplier clock) {
+    this.capacity = capacity;
+    this.clock = clock;
+  }
+
+  static SimulatedCache create(EvictionPolicy policy, long capacity, LongSupplier clock) {
+    return switch (policy) {
+      case LRU -> new Lru(capacity, clock);
+      case LFU -> new Lfu(capacity, clock);
+      case TINY_LFU -> new TinyLfu(capacity, clock);
+    };
+  }
+
+  /** Whether {@code key} is cached and unexpired, recording the access. */
+  abstract boolean get(String key);
+
+  /** Cache {@code key}, replacing any previous entry. */
+  abstract void put(String key, long bytes, Duration ttl);
+
+  abstract void invalidate(String key);
+
+  /** Bytes currently held. */
+  abstract long weightedSize();
+
+  private record Entry(long bytes, long expiresAt) {}
+
+  private static final class Lru extends SimulatedCache {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private long weight;
+
+    Lru(long capacity, LongSupplier clock) {
+      super(capacity, clock);
+    }
+
+    @Override
+    boolean get(String key) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.expiresAt() <= clock.getAsLong()) {
+        invalidate(key);
+        return false;
+      }
+      return entry != null;
+    }
+
+    @Override
+    void put(String key, long bytes, Duration ttl) {
+      invalidate(key);
+      if (bytes > capacity) {
+        return;
+      }
+      entries.put(key, new Entry(bytes, clock.getAsLong() + ttl.toMillis()));
+      weight += bytes;
+      Iterator<Entry> eldest = entries.values().iterator();
+      while (weight > capacity) {
+        weight -= eldest.next().bytes();
+        eldest.remove();
+      }
+    }
+
+    @Override
+    void invalidate(String key) {
+      Entry removed = entries.remove(key);
+      if (removed != null) {
+        weight -= removed.bytes();
+      }
+    }
+
+    @Override
+    long weightedSize() {
+      return weight;
+    }
+  }
+
+  private static final class Lfu extends SimulatedCache {
+
+    private final Map<String, Counted> entries = new HashMap<>();
+    /** Keys by access count, each bucket in insertion order so ties go to the oldest. */
+    private final TreeMap<Long, LinkedHashSet<String>> byFrequency = new TreeMap<>();
+    private long weight;
+
+    Lfu(long capacity, LongSupplier clock) {
+      super(capacity, clock);
+    }
+
+    @Override
+    boolean get(String key) {
+      Counted entry = entries.get(key);
+      if (entry == null) {
+        return false;
+      }
+      if (entry.expiresAt <= clock.getAsLong()) {
+        invalidate(key);
+        return false;
+      }
+      unlink(key, entry.frequency);
+      entry.frequency++;
+      byFrequency.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(key);
+      return true;
+    }
+
+    @Override
+    void put(String key, long bytes, Duration ttl) {
+      invalidate(key);
+      if (bytes > capacity) {
+        return;
+      }
+      while (weight + bytes > capacity) {
+        Map.Entry<Long, LinkedHashSet<String>> coldest = byFrequency.firstEntry();
+        invalidate(coldest.getValue().iterator().next());
+      }
+      entries.put(key, new Counted(bytes, clock.getAsLong() + ttl.toMillis()));
+      byFrequency.computeIfAbsent(1L, f -> new LinkedHashSet<>()).add(key);
+      weight += bytes;
+    }
+
+    @Override
+    void invalidate(String key) {
+      Counted removed = entries.remove(key);
+      if (removed != null) {
+        unlink(key, removed.frequency);
+        weight -= removed.bytes;
+      }
+    }
+
+    @Override
+    long weightedSize() {
+      return weight;
+    }
+
+    private void unlink(String key, long frequency) {
+      LinkedHashSet<String> bucket = byFrequency.get(frequency);
+      bucket.remove(key);
+      if (bucket.isEmpty()) {
+        byFrequency.remove(frequency);
+      }
+    }
+
+    private static final class Counted {
+      private final long bytes;
+      private final long expiresAt;
+      private long frequency = 1;
+
+      Counted(long bytes, long expiresAt) {
+        this.bytes = bytes;
+        this.expiresAt = expiresAt;
+      }
+    }
+  }
+
+  private static final class TinyLfu extends SimulatedCache {
+
+    private final Cache<String, Weighed> cache;
+
+    TinyLfu(long capacity, LongSupplier clock) {
+      super(capacity, clock);
+      this.cache =
+          Caffeine.newBuilder()
+              .executor(Runnable::run) // maintenance inline, so every replay is deterministic
+              .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+              .maximumWeight(capacity)
+              .weigher((String key, Weighed value) -> (int) value.bytes())
+              .expireAfter(new PerEntryTtl())
+              .build();
+    }
+
+    @Override
+    boolean get(String key) {
+      return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    void put(String key, long bytes, Duration ttl) {
+      if (bytes > Math.min(capacity, Integer.MAX_VALUE)) {
+        cache.invalidate(key);
+        return;
+      }
+      cache.put(key, new Weighed(bytes, ttl.toNanos()));
+      cache.cleanUp();
+    }
+
+    @Override
+    void invalidate(String key) {
+      cache.invalidate(key);
+    }
+
+    @Override
+    long weightedSize() {
+      return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    /** Caffeine's Expiry reads the TTL from the value, so the value carries it. */
+    private record Weighed(long bytes, long ttlNanos) {}
+
+    private static final class PerEntryTtl implements Expiry<String, Weighed> {
+
+      @Override
+      public long expireAfterCreate(String key, Weighed value, long currentTime) {
+        return value.ttlNanos();
+      }
+
+      @Override
+      public long expireAfterUpdate(
+          String key, Weighed value, long currentTime, long currentDuration) {
+        return value.ttlNanos();
+      }
+
+      @Override
+      public long expireAfterRead(
+          String key, Weighed value, long currentTime, long currentDuration) {
+        return currentDuration;
+      }
+    }
+  }
+}
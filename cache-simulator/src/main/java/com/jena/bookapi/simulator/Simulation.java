@@ -0,0 +1,176 @@
+package com.jena.bookapi.simulator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays trace events against one cache configuration and counts the database work left over
+ *
+ * <p>Interview Points: 1. Book bodies and listing pages share one byte budget, so a configuration
+ * that spends memory on duplicated page copies has less left for books 2. A page miss costs one
+ * query that loads every row on it; in normalized mode a page hit whose bodies were evicted costs
+ * one batched query for the missing rows, as BookPageCache does 3. Writes evict what the API's
+ * BookCacheInvalidator would: creates and deletes evict the unfiltered, search and category
+ * listings, and a category change evicts both categories 4. In whole-page mode every page holding
+ * a changed book must also be evicted, which is the cost normalization avoids 5. The trace does not
+ * say which properties an update changed, so re-sorted and re-matched search pages are not evicted
+ * and both modes slightly overstate their hit ratio after updates
+ */
+public final class Simulation {
+
+  /** Estimated bytes of a cached id list: list header plus one boxed Long per entry. */
+  private static final long PAGE_HEADER_BYTES = 64;
+
+  private static final long ID_BYTES = 24;
+
+  private final SimulationConfig config;
+  private final SimulatedCache cache;
+  private final Map<String, Set<String>> pagesByFilter = new HashMap<>();
+  private final Map<String, Set<String>> pagesByBook = new HashMap<>();
+  private long now;
+  private long firstEvent = -1;
+  private long requests;
+  private long hits;
+  private long queries;
+  private long rowsLoaded;
+  private long writes;
+  private long weightSamples;
+  private double weightTotal;
+  private long peakWeight;
+
+  public Simulation(SimulationConfig config) {
+    this.config = config;
+    this.cache = SimulatedCache.create(config.policy(), config.capacityBytes(), () -> now);
+  }
+
+  public void accept(TraceEvent event) {
+    // Merged traces from several nodes can be slightly out of order; never run the clock backwards
+    now = Math.max(now, event.time());
+    if (firstEvent < 0) {
+      firstEvent = event.time();
+    }
+    if (event instanceof TraceEvent.BookRead read) {
+      bookRead(read);
+    } else if (event instanceof TraceEvent.PageRead read) {
+      pageRead(read);
+    } else if (event instanceof TraceEvent.Write write) {
+      written(write);
+    }
+    long weight = cache.weightedSize();
+    weightTotal += weight;
+    weightSamples++;
+    peakWeight = Math.max(peakWeight, weight);
+  }
+
+  public SimulationResult result() {
+    long elapsed = firstEvent < 0 ? 0 : now - firstEvent;
+    long averageWeight = weightSamples == 0 ? 0 : Math.round(weightTotal / weightSamples);
+    return new SimulationResult(
+        config, requests, hits, queries, rowsLoaded, writes, averageWeight, peakWeight, elapsed);
+  }
+
+  private void bookRead(TraceEvent.BookRead read) {
+    requests++;
+    String key = bookKey(read.book());
+    if (cache.get(key)) {
+      hits++;
+      return;
+    }
+    queries++;
+    rowsLoaded++;
+    cache.put(key, read.bytes(), config.bookTtl());
+  }
+
+  private void pageRead(TraceEvent.PageRead read) {
+    requests++;
+    String key = pageKey(read.page());
+    List<TraceEvent.Listed> books = read.books();
+    if (cache.get(key)) {
+      int missing = config.mode() == SimulationConfig.Mode.NORMALIZED ? loadMissing(books) : 0;
+      if (missing == 0) {
+        hits++;
+      } else {
+        queries++;
+        rowsLoaded += missing;
+      }
+      return;
+    }
+    queries++;
+    rowsLoaded += books.size();
+    long bytes = PAGE_HEADER_BYTES;
+    for (TraceEvent.Listed book : books) {
+      if (config.mode() == SimulationConfig.Mode.NORMALIZED) {
+        cache.put(bookKey(book.book()), book.bytes(), config.bookTtl());
+        bytes += ID_BYTES;
+      } else {
+        bytes += book.bytes();
+      }
+      pagesByBook.computeIfAbsent(book.book(), b -> new HashSet<>()).add(key);
+    }
+    cache.put(key, bytes, config.pageTtl());
+    pagesByFilter.computeIfAbsent(read.filter(), f -> new HashSet<>()).add(key);
+  }
+
+  /** Look up each listed body, caching the ones that had to be loaded. */
+  private int loadMissing(List<TraceEvent.Listed> books) {
+    int missing = 0;
+    for (TraceEvent.Listed book : books) {
+      String key = bookKey(book.book());
+      if (!cache.get(key)) {
+        missing++;
+        cache.put(key, book.bytes(), config.bookTtl());
+      }
+    }
+    return missing;
+  }
+
+  private void written(TraceEvent.Write write) {
+    writes++;
+    cache.invalidate(bookKey(write.book()));
+    switch (write.op()) {
+      case 'C', 'D' -> {
+        evictFilter("all");
+        evictFilter("search");
+        evictFilter(write.filter());
+        if (write.op() == 'D') {
+          evictPagesListing(write.book());
+        }
+      }
+      case 'U' -> {
+        if (write.previousFilter() != null) {
+          evictFilter(write.filter());
+          evictFilter(write.previousFilter());
+        }
+        if (config.mode() == SimulationConfig.Mode.WHOLE_PAGE) {
+          evictPagesListing(write.book());
+        }
+      }
+      default -> throw new IllegalArgumentException("Unknown write: " + write.op());
+    }
+  }
+
+  private void evictFilter(String filter) {
+    Set<String> pages = pagesByFilter.remove(filter);
+    if (pages != null) {
+      pages.forEach(cache::invalidate);
+    }
+  }
+
+  private void evictPagesListing(String book) {
+    Set<String> pages = pagesByBook.remove(book);
+    if (pages != null) {
+      pages.forEach(cache::invalidate);
+    }
+  }
+
+  private static String bookKey(String book) {
+    return "b:" + book;
+  }
+
+  private static String pageKey(String page) {
+    return "p:" + page;
+  }
+}
@@ -0,0 +1,34 @@
+package com.jena.bookapi.simulator;
+
+import java.time.Duration;
+
+/**
+ * One cache configuration to replay a trace against
+ *
+ * @param policy eviction policy
+ * @param capacityBytes combined budget of book bodies and listing pages
+ * @param bookTtl time to live of a cached book
+ * @param pageTtl time to live of a cached listing page
+ * @param mode how listing pages are stored
+ */
+public record SimulationConfig(
+    EvictionPolicy policy, long capacityBytes, Duration bookTtl, Duration pageTtl, Mode mode) {
+
+  /** How listing pages are stored. */
+  public enum Mode {
+    /** Pages hold book ids and the bodies live once in the book cache, as the API does today. */
+    NORMALIZED,
+    /** Pages hold full copies of their books, as the API did before page normalization. */
+    WHOLE_PAGE
+  }
+
+  /** Short label for report rows. */
+  public String label() {
+    return String.format(
+        "%-8s %9s %11s %-10s",
+        policy.name().toLowerCase(),
+        Sizes.format(capacityBytes),
+        Sizes.format(bookTtl) + "/" + Sizes.format(pageTtl),
+        mode == Mode.NORMALIZED ? "normalized" : "page");
+  }
+}
@@ -0,0 +1,61 @@
+package com.jena.bookapi.simulator;
+
+import java.util.Locale;
+
+/**
+ * What one configuration cost over a whole trace
+ *
+ * @param config the configuration replayed
+ * @param requests book and page reads
+ * @param hits reads answered without touching the database
+ * @param queries database round trips the misses needed
+ * @param rowsLoaded rows those queries returned
+ * @param writes creates, updates and deletes replayed
+ * @param averageBytes cache size averaged over every event
+ * @param peakBytes largest cache size reached
+ * @param elapsedMillis trace time between the first and last event
+ */
+public record SimulationResult(
+    SimulationConfig config,
+    long requests,
+    long hits,
+    long queries,
+    long rowsLoaded,
+    long writes,
+    long averageBytes,
+    long peakBytes,
+    long elapsedMillis) {
+
+  public static final String HEADER =
+      String.format(
+          "%-8s %9s %11s %-10s %8s %10s %9s %10s %10s",
+          "policy", "capacity", "ttl", "pages", "hit %", "q/1k req", "avg qps", "avg mem",
+          "peak mem");
+
+  public double hitRatio() {
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  /** Database queries per thousand reads, comparable across traces of different lengths. */
+  public double queriesPerThousand() {
+    return requests == 0 ? 0 : queries * 1000.0 / requests;
+  }
+
+  /** Database queries per second of trace time; divide by the sample rate for the full load. */
+  public double averageQps() {
+    return elapsedMillis == 0 ? 0 : queries * 1000.0 / elapsedMillis;
+  }
+
+  /** One report row, aligned with {@link #HEADER}. */
+  public String row() {
+    return String.format(
+        Locale.ROOT,
+        "%s %8.2f %10.1f %9.2f %10s %10s",
+        config.label(),
+        hitRatio() * 100,
+        queriesPerThousand(),
+        averageQps(),
+        Sizes.format(averageBytes),
+        Sizes.format(peakBytes));
+  }
+}
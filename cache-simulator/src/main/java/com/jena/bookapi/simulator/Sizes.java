@@ -0,0 +1,81 @@
+package com.jena.bookapi.simulator;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/** Parsing and formatting of the byte sizes and durations used on the command line. */
+final class Sizes {
+
+  private Sizes() {}
+
+  /** Parse {@code 512KB}, {@code 32MB}, {@code 1GB} or a plain byte count. */
+  static long parseBytes(String text) {
+    String value = text.trim().toUpperCase(Locale.ROOT);
+    long multiplier = 1;
+    if (value.endsWith("KB")) {
+      multiplier = 1L << 10;
+    } else if (value.endsWith("MB")) {
+      multiplier = 1L << 20;
+    } else if (value.endsWith("GB")) {
+      multiplier = 1L << 30;
+    }
+    if (multiplier > 1) {
+      value = value.substring(0, value.length() - 2);
+    } else if (value.endsWith("B")) {
+      value = value.substring(0, value.length() - 1);
+    }
+    long bytes = Long.parseLong(value.trim()) * multiplier;
+    if (bytes <= 0) {
+      throw new IllegalArgumentException("Size must be positive: " + text);
+    }
+    return bytes;
+  }
+
+  /** Parse {@code 30s}, {@code 15m}, {@code 2h} or {@code 1d}. */
+  static Duration parseDuration(String text) {
+    String value = text.trim().toLowerCase(Locale.ROOT);
+    if (value.length() < 2) {
+      throw new IllegalArgumentException("Duration needs a unit (s, m, h or d): " + text);
+    }
+    long amount = Long.parseLong(value.substring(0, value.length() - 1));
+    Duration duration =
+        switch (value.charAt(value.length() - 1)) {
+          case 's' -> Duration.ofSeconds(amount);
+          case 'm' -> Duration.ofMinutes(amount);
+          case 'h' -> Duration.ofHours(amount);
+          case 'd' -> Duration.ofDays(amount);
+          default -> throw new IllegalArgumentException("Unknown duration unit: " + text);
+        };
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("Duration must be positive: " + text);
+    }
+    return duration;
+  }
+
+  static String format(long bytes) {
+    if (bytes >= 1L << 30 && bytes % (1L << 30) == 0) {
+      return (bytes >> 30) + "GB";
+    }
+    if (bytes >= 1L << 20) {
+      return String.format(Locale.ROOT, "%.1fMB", bytes / (double) (1L << 20));
+    }
+    if (bytes >= 1L << 10) {
+      return String.format(Locale.ROOT, "%.1fKB", bytes / (double) (1L << 10));
+    }
+    return bytes + "B";
+  }
+
+  static String format(Duration duration) {
+    long seconds = duration.toSeconds();
+    if (seconds % 86_400 == 0) {
+      return seconds / 86_400 + "d";
+    }
+    if (seconds % 3_600 == 0) {
+      return seconds / 3_600 + "h";
+    }
+    if (seconds % 60 == 0) {
+      return seconds / 60 + "m";
+    }
+    return seconds + "s";
+  }
+}
@@ -0,0 +1,30 @@
+package com.jena.bookapi.simulator;
+
+import java.util.List;
+
+/**
+ * One line of a trace written by the API's CacheTraceRecorder
+ *
+ * <p>Interview Points: 1. Keys are the recorder's anonymized HMACs; the simulator only needs them
+ * to be stable, never to be meaningful 2. Filters are "all", "search" or a category hash, the same
+ * granularity the API invalidates listing pages at
+ */
+public sealed interface TraceEvent {
+
+  /** Epoch millis at which the API saw the access. */
+  long time();
+
+  /** A read of one book by id. */
+  record BookRead(long time, String book, long bytes) implements TraceEvent {}
+
+  /** A read of one listing or search page, with the books it returned. */
+  record PageRead(long time, String page, String filter, List<Listed> books)
+      implements TraceEvent {}
+
+  /** A create ('C'), update ('U') or delete ('D'); {@code previousFilter} if an update moved it. */
+  record Write(long time, char op, String book, String filter, String previousFilter)
+      implements TraceEvent {}
+
+  /** A book on a page, with the estimated size of its cached body. */
+  record Listed(String book, long bytes) {}
+}
@@ -0,0 +1,98 @@
+package com.jena.bookapi.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Parses trace files line by line
+ *
+ * <p>Interview Points: 1. Traces can be hundreds of megabytes, so events are streamed, never
+ * loaded as a whole 2. A malformed line, such as the last one of a trace cut short by a crash, is
+ * skipped and counted rather than aborting the replay
+ */
+public final class TraceReader {
+
+  private long skippedLines;
+
+  /** Stream the events of {@code file}; close the stream to release the file. */
+  public Stream<TraceEvent> read(Path file) throws IOException {
+    BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    return reader
+        .lines()
+        .map(this::parseOrSkip)
+        .filter(Objects::nonNull)
+        .onClose(
+            () -> {
+              try {
+                reader.close();
+              } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+              }
+            });
+  }
+
+  /** Lines that could not be parsed so far. */
+  public long skippedLines() {
+    return skippedLines;
+  }
+
+  private TraceEvent parseOrSkip(String line) {
+    try {
+      return parse(line);
+    } catch (RuntimeException ex) {
+      skippedLines++;
+      return null;
+    }
+  }
+
+  /** Parse one trace line; throws IllegalArgumentException if it is malformed. */
+  static TraceEvent parse(String line) {
+    String[] fields = line.split(",", -1);
+    if (fields.length < 4) {
+      throw new IllegalArgumentException("Too few fields: " + line);
+    }
+    long time = Long.parseLong(fields[1]);
+    switch (fields[0]) {
+      case "B":
+        return new TraceEvent.BookRead(time, fields[2], Long.parseLong(fields[3]));
+      case "P":
+        if (fields.length != 5) {
+          throw new IllegalArgumentException("Page read needs 5 fields: " + line);
+        }
+        return new TraceEvent.PageRead(time, fields[2], fields[3], listed(fields[4]));
+      case "W":
+        if (fields.length < 5 || fields[2].length() != 1 || "CUD".indexOf(fields[2]) < 0) {
+          throw new IllegalArgumentException("Malformed write: " + line);
+        }
+        String previous = fields.length > 5 ? fields[5] : null;
+        return new TraceEvent.Write(time, fields[2].charAt(0), fields[3], fields[4], previous);
+      default:
+        throw new IllegalArgumentException("Unknown event type: " + line);
+    }
+  }
+
+  private static List<TraceEvent.Listed> listed(String field) {
+    if (field.isEmpty()) {
+      return List.of();
+    }
+    List<TraceEvent.Listed> books = new ArrayList<>();
+    for (String entry : field.split("\\|")) {
+      int colon = entry.indexOf(':');
+      if (colon < 0) {
+        throw new IllegalArgumentException("Malformed page entry: " + entry);
+      }
+      books.add(
+          new TraceEvent.Listed(
+              entry.substring(0, colon), Long.parseLong(entry.substring(colon + 1))));
+    }
+    return books;
+  }
+}
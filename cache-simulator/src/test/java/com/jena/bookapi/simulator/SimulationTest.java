@@ -0,0 +1,194 @@
+package com.jena.bookapi.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit Tests for trace parsing and replay */
+@DisplayName("Cache Simulator Unit Tests")
+class SimulationTest {
+
+  private static final Duration HOUR = Duration.ofHours(1);
+
+  @Test
+  @DisplayName("Should parse every event type and skip malformed lines")
+  void read_MixedTrace_ShouldParseEventsAndSkipMalformed(@TempDir Path dir) throws IOException {
+    // Given
+    Path trace = dir.resolve("trace.csv");
+    Files.write(
+        trace,
+        List.of(
+            "B,1000,b1,500",
+            "P,1001,p1,call,b1:500|b2:700",
+            "W,1002,U,b1,call,cfiction",
+            "P,1003,p2,search,",
+            "B,1004,truncated"));
+    TraceReader reader = new TraceReader();
+
+    // When
+    List<TraceEvent> events;
+    try (var stream = reader.read(trace)) {
+      events = stream.toList();
+    }
+
+    // Then
+    assertThat(events)
+        .containsExactly(
+            new TraceEvent.BookRead(1000, "b1", 500),
+            new TraceEvent.PageRead(
+                1001,
+                "p1",
+                "call",
+                List.of(new TraceEvent.Listed("b1", 500), new TraceEvent.Listed("b2", 700))),
+            new TraceEvent.Write(1002, 'U', "b1", "call", "cfiction"),
+            new TraceEvent.PageRead(1003, "p2", "search", List.of()));
+    assertThat(reader.skippedLines()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should evict the least recently used book when LRU is full")
+  void bookRead_LruOverCapacity_ShouldEvictLeastRecent() {
+    // Given
+    Simulation simulation = simulation(EvictionPolicy.LRU, 1000, SimulationConfig.Mode.NORMALIZED);
+
+    // When
+    simulation.accept(new TraceEvent.BookRead(1, "a", 400));
+    simulation.accept(new TraceEvent.BookRead(2, "b", 400));
+    simulation.accept(new TraceEvent.BookRead(3, "a", 400)); // hit, b is now eldest
+    simulation.accept(new TraceEvent.BookRead(4, "c", 400)); // evicts b
+    simulation.accept(new TraceEvent.BookRead(5, "a", 400)); // hit
+    simulation.accept(new TraceEvent.BookRead(6, "b", 400)); // miss
+
+    // Then
+    SimulationResult result = simulation.result();
+    assertThat(result.requests()).isEqualTo(6);
+    assertThat(result.hits()).isEqualTo(2);
+    assertThat(result.queries()).isEqualTo(4);
+    assertThat(result.peakBytes()).isLessThanOrEqualTo(1000);
+  }
+
+  @Test
+  @DisplayName("Should keep a frequently read book over a recent one when LFU is full")
+  void bookRead_LfuOverCapacity_ShouldEvictLeastFrequent() {
+    // Given
+    Simulation simulation = simulation(EvictionPolicy.LFU, 1000, SimulationConfig.Mode.NORMALIZED);
+    simulation.accept(new TraceEvent.BookRead(1, "hot", 400));
+    simulation.accept(new TraceEvent.BookRead(2, "hot", 400));
+    simulation.accept(new TraceEvent.BookRead(3, "cold", 400));
+
+    // When
+    simulation.accept(new TraceEvent.BookRead(4, "new", 400)); // evicts cold
+    simulation.accept(new TraceEvent.BookRead(5, "hot", 400));
+
+    // Then
+    assertThat(simulation.result().hits()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should miss once an entry outlives its TTL in trace time")
+  void bookRead_AfterTtl_ShouldMiss() {
+    // Given
+    Simulation simulation = simulation(EvictionPolicy.LRU, 1000, SimulationConfig.Mode.NORMALIZED);
+    simulation.accept(new TraceEvent.BookRead(0, "a", 100));
+
+    // When
+    simulation.accept(new TraceEvent.BookRead(HOUR.toMillis() - 1, "a", 100));
+    simulation.accept(new TraceEvent.BookRead(2 * HOUR.toMillis(), "a", 100));
+
+    // Then
+    assertThat(simulation.result().hits()).isEqualTo(1);
+    assertThat(simulation.result().elapsedMillis()).isEqualTo(2 * HOUR.toMillis());
+  }
+
+  @Test
+  @DisplayName("Should reload only the edited body of a normalized page, but the whole copied page")
+  void pageRead_AfterUpdate_ShouldCostLessWhenNormalized() {
+    // Given
+    List<TraceEvent> trace =
+        List.of(
+            page(1),
+            new TraceEvent.Write(2, 'U', "b1", "cx", null),
+            page(3),
+            new TraceEvent.Write(4, 'U', "b2", "cx", null),
+            page(5));
+    Simulation normalized =
+        simulation(EvictionPolicy.LRU, 1 << 20, SimulationConfig.Mode.NORMALIZED);
+    Simulation wholePage =
+        simulation(EvictionPolicy.LRU, 1 << 20, SimulationConfig.Mode.WHOLE_PAGE);
+
+    // When
+    trace.forEach(normalized::accept);
+    trace.forEach(wholePage::accept);
+
+    // Then
+    assertThat(normalized.result().queries()).isEqualTo(3);
+    assertThat(normalized.result().rowsLoaded()).isEqualTo(5);
+    assertThat(wholePage.result().queries()).isEqualTo(3);
+    assertThat(wholePage.result().rowsLoaded()).isEqualTo(9);
+  }
+
+  @Test
+  @DisplayName("Should evict unfiltered and category listings when a book is created")
+  void write_Create_ShouldEvictAffectedListings() {
+    // Given
+    Simulation simulation =
+        simulation(EvictionPolicy.LRU, 1 << 20, SimulationConfig.Mode.NORMALIZED);
+    simulation.accept(page(1));
+    simulation.accept(new TraceEvent.PageRead(2, "p2", "cother", List.of()));
+
+    // When
+    simulation.accept(new TraceEvent.Write(3, 'C', "b9", "cx", null));
+    simulation.accept(page(4));
+    simulation.accept(new TraceEvent.PageRead(5, "p2", "cother", List.of()));
+
+    // Then
+    assertThat(simulation.result().hits()).isEqualTo(1); // only the other category survived
+  }
+
+  @Test
+  @DisplayName("Should build the cross product of the options")
+  void configs_WithOptions_ShouldCrossAllValues() {
+    // When
+    List<SimulationConfig> configs =
+        CacheSimulator.configs(
+            new String[] {"--policies=lru,tinylfu", "--capacities=8MB,1GB", "--ttls=60m/15m"});
+
+    // Then
+    assertThat(configs).hasSize(4);
+    assertThat(configs.get(0))
+        .isEqualTo(
+            new SimulationConfig(
+                EvictionPolicy.LRU,
+                8L << 20,
+                Duration.ofMinutes(60),
+                Duration.ofMinutes(15),
+                SimulationConfig.Mode.NORMALIZED));
+    assertThatThrownBy(() -> CacheSimulator.configs(new String[] {"--policies=fifo"}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Simulation simulation(
+      EvictionPolicy policy, long capacity, SimulationConfig.Mode mode) {
+    return new Simulation(new SimulationConfig(policy, capacity, HOUR, HOUR, mode));
+  }
+
+  /** The same three-book page of the unfiltered listing. */
+  private static TraceEvent.PageRead page(long time) {
+    return new TraceEvent.PageRead(
+        time,
+        "p1",
+        "all",
+        List.of(
+            new TraceEvent.Listed("b1", 500),
+            new TraceEvent.Listed("b2", 500),
+            new TraceEvent.Listed("b3", 500)));
+  }
+}
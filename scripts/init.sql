@@ -6,6 +6,66 @@ CREATE INDEX IF NOT EXISTS idx_books_title_author ON books(title, author);
 CREATE INDEX IF NOT EXISTS idx_books_price_range ON books(price) WHERE price > 0;
 CREATE INDEX IF NOT EXISTS idx_books_created_at ON books(created_at);
 
+-- Cache invalidation for rows changed outside the API (this script, manual fixes, batch jobs).
+-- Each changed row sends a notification on commit; the API listens and evicts the book and the
+-- listing pages it affects. The API's own pool connects as 'book-api' and evicts after its own
+-- commits, so those writes are skipped. The channel is the trigger argument and must match
+-- app.cache.db-invalidation.channel.
+CREATE OR REPLACE FUNCTION notify_book_change() RETURNS trigger AS
+$$
+DECLARE
+    changed TEXT[] := ARRAY[]::TEXT[];
+BEGIN
+    IF current_setting('application_name', true) = 'book-api' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'TRUNCATE' THEN
+        PERFORM pg_notify(TG_ARGV[0], json_build_object('op', TG_OP)::text);
+    ELSIF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify(TG_ARGV[0], json_build_object(
+                'op', TG_OP, 'id', NEW.id, 'version', NEW.version,
+                'category', NEW.category, 'isbn', NEW.isbn)::text);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify(TG_ARGV[0], json_build_object(
+                'op', TG_OP, 'id', OLD.id, 'oldCategory', OLD.category)::text);
+    ELSE
+        -- Entity property names, as used by listing sort orders and cache tags
+        IF NEW.title IS DISTINCT FROM OLD.title THEN changed := changed || 'title'::text; END IF;
+        IF NEW.author IS DISTINCT FROM OLD.author THEN changed := changed || 'author'::text; END IF;
+        IF NEW.isbn IS DISTINCT FROM OLD.isbn THEN changed := changed || 'isbn'::text; END IF;
+        IF NEW.price IS DISTINCT FROM OLD.price THEN changed := changed || 'price'::text; END IF;
+        IF NEW.category IS DISTINCT FROM OLD.category THEN changed := changed || 'category'::text; END IF;
+        IF NEW.description IS DISTINCT FROM OLD.description THEN
+            changed := changed || 'description'::text;
+        END IF;
+        IF NEW.stock_quantity IS DISTINCT FROM OLD.stock_quantity THEN
+            changed := changed || 'stockQuantity'::text;
+        END IF;
+        IF NEW.version IS DISTINCT FROM OLD.version THEN changed := changed || 'version'::text; END IF;
+        IF NEW.created_at IS DISTINCT FROM OLD.created_at THEN changed := changed || 'createdAt'::text; END IF;
+        IF NEW.updated_at IS DISTINCT FROM OLD.updated_at THEN changed := changed || 'updatedAt'::text; END IF;
+        IF cardinality(changed) > 0 THEN
+            PERFORM pg_notify(TG_ARGV[0], json_build_object(
+                    'op', TG_OP, 'id', NEW.id, 'version', NEW.version,
+                    'category', NEW.category, 'oldCategory', OLD.category,
+                    'isbn', NEW.isbn, 'changed', changed)::text);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS books_notify_change ON books;
+CREATE TRIGGER books_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON books
+    FOR EACH ROW EXECUTE FUNCTION notify_book_change('book_changes');
+
+DROP TRIGGER IF EXISTS books_notify_truncate ON books;
+CREATE TRIGGER books_notify_truncate
+    AFTER TRUNCATE ON books
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_book_change('book_changes');
+
 -- Insert sample data for testing
 INSERT INTO books (title, author, isbn, price, category, description, stock_quantity, version, created_at, updated_at)
 VALUES ('Spring Boot in Action', 'Craig Walls', '9781617292545', 39.99, 'Technology',
@@ -27,4 +87,4 @@ VALUES ('Spring Boot in Action', 'Craig Walls', '9781617292545', 39.99, 'Technol
        ('Building Microservices', 'Sam Newman', '9781491950357', 41.99, 'Technology', 'Designing fine-grained systems',
         16, 0, NOW(), NOW()),
        ('Docker Deep Dive', 'Nigel Poulton', '9781521822807', 35.99, 'Technology', 'Zero to Docker in a single book',
-        24, 0, NOW(), NOW()) ON CONFLICT (isbn) DO NOTHING;
\ No newline at end of file
+        24, 0, NOW(), NOW()) ON CONFLICT (isbn) DO NOTHING;
@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Local Redis Cluster for the "cluster" profile: three masters and three replicas as separate
+# redis-server processes on ports 7000-7005 of this machine.
+#
+#   scripts/redis-cluster.sh start   # start the nodes and form the cluster
+#   scripts/redis-cluster.sh stop    # stop the nodes and delete their data
+#
+# Then run the API with: ./mvnw spring-boot:run -Dspring-boot.run.profiles=dev,cluster
+set -euo pipefail
+
+PORTS=(7000 7001 7002 7003 7004 7005)
+BASE_DIR="${REDIS_CLUSTER_DIR:-/tmp/book-api-redis-cluster}"
+
+start() {
+  for port in "${PORTS[@]}"; do
+    mkdir -p "$BASE_DIR/$port"
+    redis-server --port "$port" \
+      --cluster-enabled yes \
+      --cluster-config-file "nodes-$port.conf" \
+      --cluster-node-timeout 5000 \
+      --appendonly no \
+      --dir "$BASE_DIR/$port" \
+      --daemonize yes \
+      --logfile "$BASE_DIR/$port/redis.log"
+  done
+  local nodes=()
+  for port in "${PORTS[@]}"; do
+    nodes+=("127.0.0.1:$port")
+  done
+  redis-cli --cluster create "${nodes[@]}" --cluster-replicas 1 --cluster-yes
+}
+
+stop() {
+  for port in "${PORTS[@]}"; do
+    redis-cli -p "$port" shutdown nosave >/dev/null 2>&1 || true
+  done
+  rm -rf "$BASE_DIR"
+}
+
+case "${1:-}" in
+  start) start ;;
+  stop) stop ;;
+  *) echo "usage: $0 start|stop" >&2; exit 1 ;;
+esac
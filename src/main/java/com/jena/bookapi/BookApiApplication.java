@@ -2,10 +2,8 @@ package com.jena.bookapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
  * Main Spring Boot Application Class
@@ -14,12 +12,11 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * combines @Configuration, @EnableAutoConfiguration, @ComponentScan 2. SpringApplication.run()
  * creates ApplicationContext, registers beans, starts embedded server 3. Auto-configuration works
  * via spring.factories and @Conditional annotations 4. Fat JAR contains all dependencies and
- * embedded Tomcat for standalone deployment
+ * embedded Tomcat for standalone deployment 5. Caching and transactions are enabled in
+ * InterceptorOrderConfig, which fixes the order of their interceptors
  */
 @SpringBootApplication
-@EnableCaching // Enables Spring's annotation-driven cache management
 @EnableAsync // Enables @Async annotation for asynchronous method execution
-@EnableTransactionManagement // Enables @Transactional annotation support
 @EnableMethodSecurity(prePostEnabled = true) // Enables @PreAuthorize/@PostAuthorize
 public class BookApiApplication {
 
@@ -35,7 +32,8 @@ public class BookApiApplication {
     // JVM optimizations for production
     System.setProperty("spring.jmx.enabled", "true");
     System.setProperty(
-        "management.endpoints.web.exposure.include", "health,info,metrics,prometheus");
+        "management.endpoints.web.exposure.include",
+        "health,info,metrics,prometheus,cachewarmup,cacheadmin,cachettl");
 
     SpringApplication.run(BookApiApplication.class, args);
   }
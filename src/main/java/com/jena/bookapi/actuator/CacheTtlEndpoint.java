@@ -0,0 +1,53 @@
+package com.jena.bookapi.actuator;
+
+import com.jena.bookapi.cache.AdaptiveTtlPolicy;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Admin actuator endpoint for viewing and overriding the effective cache TTLs
+ *
+ * <p>Interview Points: 1. GET /actuator/cachettl lists every tracked cache and category with its
+ * configured, adapted and effective TTL and its observed read and update rates 2. POST
+ * /actuator/cachettl/{cache} with {"ttl": "PT10M", "category": "Fiction"} pins a TTL on every node;
+ * leave out the category to pin the whole cache 3. DELETE on the same path, with an optional
+ * category parameter, hands the TTL back to the adaptive policy 4. Overrides apply to entries
+ * written from then on; existing entries keep their expiry
+ */
+@Endpoint(id = "cachettl")
+public class CacheTtlEndpoint {
+
+  private final AdaptiveTtlPolicy adaptiveTtlPolicy;
+
+  public CacheTtlEndpoint(AdaptiveTtlPolicy adaptiveTtlPolicy) {
+    this.adaptiveTtlPolicy = adaptiveTtlPolicy;
+  }
+
+  @ReadOperation
+  public List<AdaptiveTtlPolicy.ScopeReport> ttls() {
+    return adaptiveTtlPolicy.report();
+  }
+
+  /** Pin the TTL of a cache, or of one category of it. */
+  @WriteOperation
+  public void override(@Selector String cache, Duration ttl, @Nullable String category) {
+    try {
+      adaptiveTtlPolicy.override(cache, category, ttl);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidEndpointRequestException(ex.getMessage(), "Invalid TTL");
+    }
+  }
+
+  /** Return a cache, or one category of it, to its adapted TTL. */
+  @DeleteOperation
+  public void clearOverride(@Selector String cache, @Nullable String category) {
+    adaptiveTtlPolicy.clearOverride(cache, category);
+  }
+}
@@ -0,0 +1,28 @@
+package com.jena.bookapi.actuator;
+
+import com.jena.bookapi.service.CacheWarmUpService;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint reporting what the startup cache warm-up loaded
+ *
+ * <p>Interview Points: 1. @Endpoint is technology-agnostic: the same operation is exposed over HTTP
+ * at /actuator/cachewarmup and over JMX 2. @ReadOperation maps to GET and must be side-effect free
+ */
+@Endpoint(id = "cachewarmup")
+public class CacheWarmUpEndpoint {
+
+  private final CacheWarmUpService warmUpService;
+
+  public CacheWarmUpEndpoint(CacheWarmUpService warmUpService) {
+    this.warmUpService = warmUpService;
+  }
+
+  @ReadOperation
+  public Object report() {
+    CacheWarmUpService.Report report = warmUpService.getLastReport();
+    return report != null ? report : Map.of("status", "warm-up has not run");
+  }
+}
@@ -0,0 +1,375 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Adapts cache TTLs to how often entries are updated relative to how often they are read
+ *
+ * <p>Interview Points: 1. Reads and explicit updates (puts and evictions, not loads) are counted
+ * per cache and per category with LongAdders, so the request path never locks 2. Once per interval
+ * the counts are folded into exponentially smoothed rates and each scope's TTL is recomputed 3. A
+ * scope that is never updated gets the upper bound, one whose updates reach the volatile share of
+ * its traffic gets the lower bound, with geometric interpolation in between 4. Scopes with too
+ * little traffic keep the configured TTL, and a category with too little falls back to its cache 5.
+ * Overrides are stored in a Redis hash, so one admin call reaches every node within an interval
+ * 6. A new TTL applies to entries as they are written; entries already cached keep their expiry
+ */
+public class AdaptiveTtlPolicy {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdaptiveTtlPolicy.class);
+
+  private static final String OVERRIDES_KEY = "book-api:cache-ttl-overrides";
+
+  private final StringRedisTemplate redisTemplate;
+  private final BookCacheProperties.AdaptiveTtl settings;
+  private final Function<String, Duration> configuredTtls;
+  private final Map<String, CacheCategoryResolver> categoryResolvers;
+  private final ConcurrentMap<String, Scope> scopes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, AtomicInteger> categoryCounts = new ConcurrentHashMap<>();
+  private volatile Map<String, Duration> overrides = Map.of();
+
+  public AdaptiveTtlPolicy(
+      StringRedisTemplate redisTemplate,
+      BookCacheProperties.AdaptiveTtl settings,
+      Function<String, Duration> configuredTtls,
+      Map<String, CacheCategoryResolver> categoryResolvers) {
+    this.redisTemplate = redisTemplate;
+    this.settings = settings;
+    this.configuredTtls = configuredTtls;
+    this.categoryResolvers = Map.copyOf(categoryResolvers);
+  }
+
+  /** Count a read of {@code key}; {@code value} is null on a miss. */
+  public void recordRead(String cacheName, Object key, Object value) {
+    if (isAdaptive(cacheName)) {
+      scope(cacheName, null).reads.increment();
+      Scope category = categoryScope(cacheName, key, value);
+      if (category != null) {
+        category.reads.increment();
+      }
+    }
+  }
+
+  /** Count an explicit put or eviction of {@code key}; {@code value} is null if unknown. */
+  public void recordUpdate(String cacheName, Object key, Object value) {
+    if (isAdaptive(cacheName)) {
+      scope(cacheName, null).updates.increment();
+      Scope category = categoryScope(cacheName, key, value);
+      if (category != null) {
+        category.updates.increment();
+      }
+    }
+  }
+
+  /**
+   * TTL for an entry about to be written Interview Point: an override wins, then the category's
+   * adapted TTL, then the cache's, then the configured one
+   */
+  public Duration ttl(String cacheName, Object key, Object value) {
+    return ttlOf(cacheName, categoryOf(cacheName, key, value));
+  }
+
+  /** Lower bound of the adapted TTL of {@code configuredTtl}. */
+  private Duration minTtl(Duration configuredTtl) {
+    return scale(configuredTtl, settings.getMinFactor());
+  }
+
+  /** Upper bound of the adapted TTL of {@code configuredTtl}. */
+  private Duration maxTtl(Duration configuredTtl) {
+    double factor = settings.isEnabled() ? Math.max(1.0, settings.getMaxFactor()) : 1.0;
+    return scale(configuredTtl, factor);
+  }
+
+  /**
+   * Fold the counts of the last interval into the smoothed rates and recompute every TTL Interview
+   * Point: also re-reads the overrides, so overrides set on another node take effect here
+   */
+  @Scheduled(fixedDelayString = "${app.cache.adaptive-ttl.interval:1m}")
+  public void adjust() {
+    reloadOverrides();
+    double alpha = settings.getSmoothing();
+    for (Scope scope : scopes.values()) {
+      long reads = scope.reads.sumThenReset();
+      long updates = scope.updates.sumThenReset();
+      scope.readRate = alpha * reads + (1 - alpha) * scope.readRate;
+      scope.updateRate = alpha * updates + (1 - alpha) * scope.updateRate;
+      Duration adapted = adapt(scope);
+      if (adapted != null && !adapted.equals(scope.adapted)) {
+        logger.debug(
+            "TTL of {} adapted to {} ({} reads, {} updates per interval)",
+            scope.key(),
+            adapted,
+            Math.round(scope.readRate),
+            Math.round(scope.updateRate));
+      }
+      scope.adapted = adapted;
+    }
+  }
+
+  /**
+   * Pin the TTL of {@code cacheName}, or of one of its categories, on every node Interview Point:
+   * the TTL must lie within the adaptive bounds, since tag sets and stock entries are sized to
+   * outlive the longest adapted TTL; a longer one would leave entries no write can evict
+   *
+   * @param category category to pin, or null for the whole cache
+   */
+  public void override(String cacheName, String category, Duration ttl) {
+    if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("TTL must be positive: " + ttl);
+    }
+    Duration configured = configuredTtls.apply(cacheName);
+    Duration min = minTtl(configured);
+    Duration max = maxTtl(configured);
+    if (ttl.compareTo(min) < 0 || ttl.compareTo(max) > 0) {
+      throw new IllegalArgumentException(
+          "TTL of " + cacheName + " must be between " + min + " and " + max + ": " + ttl);
+    }
+    String scopeKey = scopeKey(cacheName, category);
+    Map<String, Duration> updated = new HashMap<>(overrides);
+    updated.put(scopeKey, ttl);
+    overrides = Map.copyOf(updated);
+    try {
+      redisTemplate.opsForHash().put(OVERRIDES_KEY, scopeKey, ttl.toString());
+    } catch (RuntimeException ex) {
+      // Applies on this node now; other nodes pick it up once Redis takes it
+      logger.warn("Failed to store TTL override for {}: {}", scopeKey, ex.getMessage());
+    }
+  }
+
+  /** Drop the override of {@code cacheName}, or of one of its categories, on every node. */
+  public void clearOverride(String cacheName, String category) {
+    String scopeKey = scopeKey(cacheName, category);
+    Map<String, Duration> updated = new HashMap<>(overrides);
+    updated.remove(scopeKey);
+    overrides = Map.copyOf(updated);
+    try {
+      redisTemplate.opsForHash().delete(OVERRIDES_KEY, scopeKey);
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to clear TTL override for {}: {}", scopeKey, ex.getMessage());
+    }
+  }
+
+  /** Rates, bounds and TTLs of every tracked scope, cache-wide scopes first. */
+  public List<ScopeReport> report() {
+    List<ScopeReport> reports = new ArrayList<>();
+    for (Scope scope : scopes.values()) {
+      Duration configured = configuredTtls.apply(scope.cacheName);
+      reports.add(
+          new ScopeReport(
+              scope.cacheName,
+              scope.category,
+              configured,
+              minTtl(configured),
+              maxTtl(configured),
+              scope.adapted,
+              overrides.get(scope.key()),
+              ttlOf(scope.cacheName, scope.category),
+              scope.readRate,
+              scope.updateRate));
+    }
+    overrides.forEach(
+        (scopeKey, override) -> {
+          if (!scopes.containsKey(scopeKey)) {
+            int separator = scopeKey.indexOf('/');
+            String cacheName = separator < 0 ? scopeKey : scopeKey.substring(0, separator);
+            String category = separator < 0 ? null : scopeKey.substring(separator + 1);
+            Duration configured = configuredTtls.apply(cacheName);
+            reports.add(
+                new ScopeReport(
+                    cacheName,
+                    category,
+                    configured,
+                    configured,
+                    configured,
+                    null,
+                    override,
+                    override,
+                    0,
+                    0));
+          }
+        });
+    reports.sort(
+        Comparator.comparing(ScopeReport::cache)
+            .thenComparing(
+                ScopeReport::category, Comparator.nullsFirst(Comparator.naturalOrder())));
+    return reports;
+  }
+
+  /**
+   * One cache, or one category of a cache, as reported to admins
+   *
+   * @param adapted TTL derived from the observed rates, or null while traffic is too low
+   * @param effective TTL given to entries written now
+   * @param readsPerInterval smoothed reads per adjustment interval
+   * @param updatesPerInterval smoothed puts and evictions per adjustment interval
+   */
+  public record ScopeReport(
+      String cache,
+      String category,
+      Duration configured,
+      Duration min,
+      Duration max,
+      Duration adapted,
+      Duration override,
+      Duration effective,
+      double readsPerInterval,
+      double updatesPerInterval) {}
+
+  /** TTL of entries in {@code category} of {@code cacheName}, or in the cache if it is null. */
+  private Duration ttlOf(String cacheName, String category) {
+    Map<String, Duration> current = overrides;
+    Duration override = category != null ? current.get(scopeKey(cacheName, category)) : null;
+    if (override == null) {
+      override = current.get(scopeKey(cacheName, null));
+    }
+    if (override != null) {
+      return override;
+    }
+    if (isAdaptive(cacheName)) {
+      Scope scope = category != null ? scopes.get(scopeKey(cacheName, category)) : null;
+      if (scope == null || scope.adapted == null) {
+        scope = scopes.get(scopeKey(cacheName, null));
+      }
+      if (scope != null && scope.adapted != null) {
+        return scope.adapted;
+      }
+    }
+    return configuredTtls.apply(cacheName);
+  }
+
+  /**
+   * Geometric interpolation from the upper bound at no updates to the lower bound at the volatile
+   * share; null while the scope has too little traffic to judge
+   */
+  private Duration adapt(Scope scope) {
+    double operations = scope.readRate + scope.updateRate;
+    if (operations < settings.getMinOperations()) {
+      return null;
+    }
+    Duration configured = configuredTtls.apply(scope.cacheName);
+    double min = minTtl(configured).toMillis();
+    double max = maxTtl(configured).toMillis();
+    double share = scope.updateRate / operations;
+    double volatility = Math.min(1.0, share / settings.getVolatileShare());
+    return Duration.ofSeconds(Math.round(max * Math.pow(min / max, volatility) / 1_000));
+  }
+
+  private void reloadOverrides() {
+    Map<Object, Object> stored;
+    try {
+      stored = redisTemplate.opsForHash().entries(OVERRIDES_KEY);
+    } catch (RuntimeException ex) {
+      logger.debug("Keeping current TTL overrides, Redis unavailable: {}", ex.getMessage());
+      return;
+    }
+    Map<String, Duration> loaded = new HashMap<>();
+    stored.forEach(
+        (scopeKey, ttl) -> {
+          try {
+            loaded.put(String.valueOf(scopeKey), withinBounds(scopeKey, ttl));
+          } catch (DateTimeParseException ex) {
+            logger.warn("Ignoring TTL override {}={}", scopeKey, ttl);
+          }
+        });
+    overrides = Map.copyOf(loaded);
+  }
+
+  /** Parse a stored override, clamped in case it was written by hand or by an older version. */
+  private Duration withinBounds(Object scopeKey, Object stored) {
+    Duration ttl = Duration.parse(String.valueOf(stored));
+    String key = String.valueOf(scopeKey);
+    int separator = key.indexOf('/');
+    Duration configured = configuredTtls.apply(separator < 0 ? key : key.substring(0, separator));
+    Duration clamped = ttl;
+    if (ttl.compareTo(minTtl(configured)) < 0) {
+      clamped = minTtl(configured);
+    } else if (ttl.compareTo(maxTtl(configured)) > 0) {
+      clamped = maxTtl(configured);
+    }
+    if (!clamped.equals(ttl)) {
+      logger.warn("TTL override {}={} is out of bounds, using {}", key, ttl, clamped);
+    }
+    return clamped;
+  }
+
+  private boolean isAdaptive(String cacheName) {
+    return settings.isEnabled() && settings.getCaches().contains(cacheName);
+  }
+
+  private String categoryOf(String cacheName, Object key, Object value) {
+    CacheCategoryResolver resolver = categoryResolvers.get(cacheName);
+    return resolver != null ? resolver.categoryOf(key, value) : null;
+  }
+
+  /** The category scope of an entry, or null if it has none or the cache tracks enough already. */
+  private Scope categoryScope(String cacheName, Object key, Object value) {
+    String category = categoryOf(cacheName, key, value);
+    if (category == null) {
+      return null;
+    }
+    Scope scope = scopes.get(scopeKey(cacheName, category));
+    if (scope != null) {
+      return scope;
+    }
+    AtomicInteger count = categoryCounts.computeIfAbsent(cacheName, name -> new AtomicInteger());
+    if (count.get() >= settings.getMaxCategories()) {
+      return null;
+    }
+    return scopes.computeIfAbsent(
+        scopeKey(cacheName, category),
+        scopeKey -> {
+          count.incrementAndGet();
+          return new Scope(cacheName, category);
+        });
+  }
+
+  private Scope scope(String cacheName, String category) {
+    return scopes.computeIfAbsent(
+        scopeKey(cacheName, category), scopeKey -> new Scope(cacheName, category));
+  }
+
+  /** e.g. "booksByCategory" or "booksByCategory/Fiction"; also the Redis hash field. */
+  private static String scopeKey(String cacheName, String category) {
+    return category == null ? cacheName : cacheName + "/" + category;
+  }
+
+  private static Duration scale(Duration ttl, double factor) {
+    return Duration.ofMillis(Math.round(ttl.toMillis() * factor));
+  }
+
+  private static final class Scope {
+
+    final String cacheName;
+    final String category;
+    final LongAdder reads = new LongAdder();
+    final LongAdder updates = new LongAdder();
+    volatile double readRate;
+    volatile double updateRate;
+    volatile Duration adapted;
+
+    Scope(String cacheName, String category) {
+      this.cacheName = cacheName;
+      this.category = category;
+    }
+
+    String key() {
+      return scopeKey(cacheName, category);
+    }
+  }
+}
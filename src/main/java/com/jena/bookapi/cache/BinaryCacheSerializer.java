@@ -0,0 +1,382 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Compact hand-written binary codec for book cache values
+ *
+ * <p>Interview Points: 1. No class names or field names on the wire: a field's position identifies
+ * it, and a presence bitmask replaces nulls 2. Integers are written as varints, so small ids and
+ * stock counts take one or two bytes 3. Every value starts with a format byte and a type tag;
+ * anything unrecognized deserializes to null and is treated as a cache miss instead of failing the
+ * request 4. Types without a dedicated codec fall back to embedded JSON 5. Refresh metadata of
+ * {@link CacheEntry} envelopes costs a few bytes ahead of the value 6. A {@link StockLevel} takes a
+ * handful of bytes, so stock-only updates write almost nothing
+ */
+public class BinaryCacheSerializer implements VersionedCacheSerializer {
+
+  /** Version 3 wraps every value in a {@link CacheEntry} and length-prefixes embedded JSON. */
+  static final int FORMAT_VERSION = 3;
+
+  private static final int TYPE_JSON = 0;
+  private static final int TYPE_BOOK = 1;
+  private static final int TYPE_PAGE = 2;
+  private static final int TYPE_CACHED_PAGE = 3;
+  private static final int TYPE_ENTRY = 4;
+  private static final int TYPE_STOCK = 5;
+
+  private final JsonCacheSerializer fallback = new JsonCacheSerializer();
+
+  @Override
+  public String formatId() {
+    return "bin" + FORMAT_VERSION;
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    if (value == null) {
+      return new byte[0];
+    }
+    Writer out = new Writer();
+    out.writeByte(FORMAT_VERSION);
+    writeValue(out, value);
+    return out.toByteArray();
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length < 2 || bytes[0] != FORMAT_VERSION) {
+      return null;
+    }
+    try {
+      return readValue(new Reader(bytes, 1));
+    } catch (IndexOutOfBoundsException ex) {
+      throw new SerializationException("Truncated cache value", ex);
+    }
+  }
+
+  /** Type tag followed by the type's encoding. */
+  private void writeValue(Writer out, Object value) {
+    if (value instanceof CacheEntry entry) {
+      out.writeByte(TYPE_ENTRY);
+      out.writeZigZag(entry.expiresAt());
+      out.writeVarLong(entry.loadMillis());
+      writeValue(out, entry.value());
+    } else if (value instanceof BookResponse book) {
+      out.writeByte(TYPE_BOOK);
+      writeBook(out, book);
+    } else if (value instanceof StockLevel stock) {
+      out.writeByte(TYPE_STOCK);
+      writeStock(out, stock);
+    } else if (value instanceof CachedPage page) {
+      out.writeByte(TYPE_CACHED_PAGE);
+      writeCachedPage(out, page);
+    } else if (value instanceof Page<?> page && isBookPage(page)) {
+      out.writeByte(TYPE_PAGE);
+      writePage(out, page);
+    } else {
+      out.writeByte(TYPE_JSON);
+      byte[] json = fallback.serialize(value);
+      out.writeVarLong(json.length);
+      out.writeBytes(json);
+    }
+  }
+
+  /** Returns null for an unknown type tag, so the whole value reads as a miss. */
+  private Object readValue(Reader in) {
+    return switch (in.readByte()) {
+      case TYPE_ENTRY -> {
+        long expiresAt = in.readZigZag();
+        int loadMillis = (int) in.readVarLong();
+        Object value = readValue(in);
+        yield value != null ? new CacheEntry(value, expiresAt, loadMillis) : null;
+      }
+      case TYPE_BOOK -> readBook(in);
+      case TYPE_PAGE -> readPage(in);
+      case TYPE_CACHED_PAGE -> readCachedPage(in);
+      case TYPE_STOCK -> readStock(in);
+      case TYPE_JSON -> fallback.deserialize(in.readBytes((int) in.readVarLong()));
+      default -> null;
+    };
+  }
+
+  private static boolean isBookPage(Page<?> page) {
+    return page.getContent().stream().allMatch(BookResponse.class::isInstance);
+  }
+
+  // --- BookResponse ---------------------------------------------------------------------------
+
+  private static void writeBook(Writer out, BookResponse book) {
+    Object[] fields = {
+      book.id(),
+      book.title(),
+      book.author(),
+      book.isbn(),
+      book.price(),
+      book.category(),
+      book.description(),
+      book.stockQuantity(),
+      book.version(),
+      book.createdAt(),
+      book.updatedAt()
+    };
+    int presence = 0;
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] != null) {
+        presence |= 1 << i;
+      }
+    }
+    out.writeVarLong(presence);
+    if (book.id() != null) out.writeVarLong(book.id());
+    if (book.title() != null) out.writeString(book.title());
+    if (book.author() != null) out.writeString(book.author());
+    if (book.isbn() != null) out.writeString(book.isbn());
+    if (book.price() != null) out.writeDecimal(book.price());
+    if (book.category() != null) out.writeString(book.category());
+    if (book.description() != null) out.writeString(book.description());
+    if (book.stockQuantity() != null) out.writeZigZag(book.stockQuantity());
+    if (book.version() != null) out.writeZigZag(book.version());
+    if (book.createdAt() != null) out.writeDateTime(book.createdAt());
+    if (book.updatedAt() != null) out.writeDateTime(book.updatedAt());
+  }
+
+  private static BookResponse readBook(Reader in) {
+    int presence = (int) in.readVarLong();
+    return new BookResponse(
+        has(presence, 0) ? in.readVarLong() : null,
+        has(presence, 1) ? in.readString() : null,
+        has(presence, 2) ? in.readString() : null,
+        has(presence, 3) ? in.readString() : null,
+        has(presence, 4) ? in.readDecimal() : null,
+        has(presence, 5) ? in.readString() : null,
+        has(presence, 6) ? in.readString() : null,
+        has(presence, 7) ? (int) in.readZigZag() : null,
+        has(presence, 8) ? in.readZigZag() : null,
+        has(presence, 9) ? in.readDateTime() : null,
+        has(presence, 10) ? in.readDateTime() : null);
+  }
+
+  private static boolean has(int presence, int field) {
+    return (presence & (1 << field)) != 0;
+  }
+
+  // --- StockLevel ------------------------------------------------------------------------------
+
+  private static void writeStock(Writer out, StockLevel stock) {
+    int presence =
+        (stock.stockQuantity() != null ? 1 : 0)
+            | (stock.version() != null ? 2 : 0)
+            | (stock.updatedAt() != null ? 4 : 0);
+    out.writeVarLong(presence);
+    if (stock.stockQuantity() != null) out.writeZigZag(stock.stockQuantity());
+    if (stock.version() != null) out.writeZigZag(stock.version());
+    if (stock.updatedAt() != null) out.writeDateTime(stock.updatedAt());
+  }
+
+  private static StockLevel readStock(Reader in) {
+    int presence = (int) in.readVarLong();
+    return new StockLevel(
+        has(presence, 0) ? (int) in.readZigZag() : null,
+        has(presence, 1) ? in.readZigZag() : null,
+        has(presence, 2) ? in.readDateTime() : null);
+  }
+
+  // --- Page<BookResponse> -----------------------------------------------------------------------
+
+  private static void writePage(Writer out, Page<?> page) {
+    Pageable pageable = page.getPageable();
+    out.writeByte(pageable.isPaged() ? 1 : 0);
+    if (pageable.isPaged()) {
+      out.writeVarLong(pageable.getPageNumber());
+      out.writeVarLong(pageable.getPageSize());
+      List<Sort.Order> orders = pageable.getSort().toList();
+      out.writeVarLong(orders.size());
+      for (Sort.Order order : orders) {
+        out.writeString(order.getProperty());
+        out.writeByte(order.isAscending() ? 0 : 1);
+      }
+    }
+    out.writeVarLong(page.getTotalElements());
+    out.writeVarLong(page.getNumberOfElements());
+    for (Object element : page.getContent()) {
+      writeBook(out, (BookResponse) element);
+    }
+  }
+
+  private static Page<BookResponse> readPage(Reader in) {
+    Pageable pageable = Pageable.unpaged();
+    if (in.readByte() == 1) {
+      int pageNumber = (int) in.readVarLong();
+      int pageSize = (int) in.readVarLong();
+      int orderCount = (int) in.readVarLong();
+      List<Sort.Order> orders = new ArrayList<>(orderCount);
+      for (int i = 0; i < orderCount; i++) {
+        String property = in.readString();
+        orders.add(in.readByte() == 0 ? Sort.Order.asc(property) : Sort.Order.desc(property));
+      }
+      pageable = PageRequest.of(pageNumber, pageSize, Sort.by(orders));
+    }
+    long totalElements = in.readVarLong();
+    int count = (int) in.readVarLong();
+    List<BookResponse> content = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      content.add(readBook(in));
+    }
+    return new PageImpl<>(content, pageable, totalElements);
+  }
+
+  // --- CachedPage ------------------------------------------------------------------------------
+
+  /** Ids are delta-encoded: listings sorted by id, or by creation, compress to ~1 byte per book. */
+  private static void writeCachedPage(Writer out, CachedPage page) {
+    out.writeVarLong(page.totalElements());
+    out.writeVarLong(page.ids().size());
+    long previous = 0;
+    for (Long id : page.ids()) {
+      out.writeZigZag(id - previous);
+      previous = id;
+    }
+  }
+
+  private static CachedPage readCachedPage(Reader in) {
+    long totalElements = in.readVarLong();
+    int count = (int) in.readVarLong();
+    List<Long> ids = new ArrayList<>(count);
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += in.readZigZag();
+      ids.add(previous);
+    }
+    return new CachedPage(ids, totalElements);
+  }
+
+  // --- Primitive encoding -----------------------------------------------------------------------
+
+  private static final class Writer {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+    void writeByte(int value) {
+      buffer.write(value);
+    }
+
+    void writeBytes(byte[] bytes) {
+      buffer.writeBytes(bytes);
+    }
+
+    void writeVarLong(long value) {
+      while ((value & ~0x7FL) != 0) {
+        buffer.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.write((int) value);
+    }
+
+    void writeZigZag(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeString(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length);
+      buffer.writeBytes(bytes);
+    }
+
+    void writeDecimal(BigDecimal value) {
+      writeZigZag(value.scale());
+      byte[] unscaled = value.unscaledValue().toByteArray();
+      writeVarLong(unscaled.length);
+      buffer.writeBytes(unscaled);
+    }
+
+    void writeDateTime(LocalDateTime value) {
+      writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+      writeVarLong(value.getNano());
+    }
+
+    byte[] toByteArray() {
+      return buffer.toByteArray();
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] bytes;
+    private int position;
+
+    Reader(byte[] bytes, int position) {
+      this.bytes = bytes;
+      this.position = position;
+    }
+
+    int readByte() {
+      if (position >= bytes.length) {
+        throw new IndexOutOfBoundsException(position);
+      }
+      return bytes[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+      }
+      throw new SerializationException("Malformed varint in cache value");
+    }
+
+    long readZigZag() {
+      long encoded = readVarLong();
+      return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    String readString() {
+      int length = (int) readVarLong();
+      String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    BigDecimal readDecimal() {
+      int scale = (int) readZigZag();
+      int length = (int) readVarLong();
+      byte[] unscaled = new byte[length];
+      System.arraycopy(bytes, position, unscaled, 0, length);
+      position += length;
+      return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    LocalDateTime readDateTime() {
+      long epochSecond = readZigZag();
+      int nano = (int) readVarLong();
+      return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    byte[] readBytes(int length) {
+      if (position + length > bytes.length) {
+        throw new IndexOutOfBoundsException(position + length);
+      }
+      byte[] slice = new byte[length];
+      System.arraycopy(bytes, position, slice, 0, length);
+      position += length;
+      return slice;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Translates book writes into targeted listing evictions
+ *
+ * <p>Interview Points: 1. Pages hold ids only, so an edit normally needs no page eviction: the
+ * {@code book} entry is evicted after commit and every page picks up the new body 2. An edit evicts
+ * the pages of the listings the book can appear on that are sorted by a property that changed, as
+ * the book may move onto, off or within any of them 3. Creates and deletes change listing
+ * membership, so they evict the unfiltered listing and the book's category, but never other
+ * categories or other books 4. A category change evicts both the old and the new category 5.
+ * Without a tag-aware CacheManager it degrades to clearing the listing caches, the previous
+ * behaviour 6. Creates, and ISBN changes, also clear negative entries for the new id and ISBN 7.
+ * Search pages are evicted by creates and deletes, and by edits to a title or author 8. In
+ * write-through mode the {@code book} entry is overwritten with the saved body once the transaction
+ * commits, and a delete leaves a negative entry, so readers of an edited book never reach the
+ * database 9. An edit that only changes stock rewrites the book's {@link StockLevel} entry and
+ * evicts only pages sorted by stock, version or update time, so inventory churn keeps book bodies
+ * and other listing pages cached 10. Rows changed outside the API are reported by a database
+ * trigger and evicted the same way, see {@link BookChangeListener} 11. Every post-commit change to
+ * a book also drops this node's {@link HotBookReplica} copy, so a node always reads its own writes
+ * 12. Page and negative-cache evictions also wait for the commit, so no listing is rebuilt from the
+ * rows being replaced 13. ISBNs written outside the API are added to the {@link IsbnBloomFilter},
+ * and missed changes make it rebuild, so it never wrongly answers "absent" for them
+ */
+@Component
+public class BookCacheInvalidator {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookCacheInvalidator.class);
+
+  private static final List<String> LISTING_CACHES =
+      List.of("books", "booksByCategory", "bookSearch");
+
+  private final CacheManager cacheManager;
+  private final MissingBookCache missingBookCache;
+  private final BookPageCache bookPageCache;
+  private final HotBookReplica hotBookReplica;
+  private final IsbnBloomFilter isbnBloomFilter;
+  private final boolean writeThrough;
+
+  public BookCacheInvalidator(
+      CacheManager cacheManager,
+      MissingBookCache missingBookCache,
+      BookPageCache bookPageCache,
+      HotBookReplica hotBookReplica,
+      IsbnBloomFilter isbnBloomFilter,
+      @Value("${app.cache.write-through:false}") boolean writeThrough) {
+    this.cacheManager = cacheManager;
+    this.missingBookCache = missingBookCache;
+    this.bookPageCache = bookPageCache;
+    this.hotBookReplica = hotBookReplica;
+    this.isbnBloomFilter = isbnBloomFilter;
+    this.writeThrough = writeThrough;
+  }
+
+  public void bookCreated(BookResponse book) {
+    // Every eviction waits for the commit: a listing rebuilt in between would miss the new book
+    // for its whole TTL
+    afterCommit(
+        () -> {
+          missingBookCache.bookExists(book.id(), book.isbn());
+          evictTagged(Set.of(BookCacheTags.ALL_BOOKS, BookCacheTags.category(book.category())));
+          if (writeThrough) {
+            bookPageCache.putBook(book);
+          }
+        });
+  }
+
+  public void bookUpdated(BookResponse previous, BookResponse book) {
+    Set<String> tags = new LinkedHashSet<>();
+    if (!Objects.equals(previous.category(), book.category())) {
+      tags.add(BookCacheTags.category(previous.category()));
+      tags.add(BookCacheTags.category(book.category()));
+    }
+    Set<String> changed = BookCacheTags.changedProperties(previous, book);
+    if (changed.contains("title") || changed.contains("author")) {
+      tags.add(BookCacheTags.SEARCH_TEXT); // the book may now match different searches
+    }
+    // Any page sorted by a changed property may now gain, lose or reorder the book
+    tags.addAll(BookCacheTags.sortedListings(book.category(), changed));
+    boolean isbnChanged = !Objects.equals(previous.isbn(), book.isbn());
+    boolean stockOnly = StockLevel.of(book).applyTo(previous).equals(book);
+    // Evicting before the commit would let a reader cache the old row, or a page built from it,
+    // again in between
+    afterCommit(
+        () -> {
+          if (stockOnly) {
+            // Only stock, version and update time changed: the cached body stays valid underneath
+            // the newer stock entry
+            bookPageCache.putStock(book);
+            hotBookReplica.evict(book.id());
+          } else if (writeThrough) {
+            // Readers keep the previous body until the commit, then get the new one from the cache
+            bookPageCache.putBook(book);
+            hotBookReplica.evict(book.id());
+          } else {
+            evictBook(book.id(), book.version());
+          }
+          if (isbnChanged) {
+            missingBookCache.bookExists(null, book.isbn());
+          }
+          if (!tags.isEmpty()) {
+            evictTagged(tags);
+          }
+        });
+  }
+
+  public void bookDeleted(Long id, String category) {
+    // Tombstone: no version of the book may be cached again, and in write-through mode readers
+    // are answered "not found" from the negative cache
+    afterCommit(
+        () -> {
+          evictBook(id, VersionedCache.DELETED);
+          if (writeThrough) {
+            missingBookCache.markMissingId(id);
+          }
+          evictTagged(Set.of(BookCacheTags.ALL_BOOKS, BookCacheTags.category(category)));
+        });
+  }
+
+  /**
+   * Evict what rows changed outside the API affect Interview Point: the changes have already
+   * committed and arrive in batches, so each book is evicted once, at its newest version, and the
+   * tags of the whole batch are evicted together
+   */
+  public void rowsChanged(Collection<BookRowChange> changes) {
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    Set<String> tags = new LinkedHashSet<>();
+    for (BookRowChange change : changes) {
+      if (change.isInsert()) {
+        missingBookCache.bookExists(change.id(), change.isbn());
+        isbnBloomFilter.add(change.isbn());
+        tags.add(BookCacheTags.ALL_BOOKS);
+        tags.add(BookCacheTags.category(change.category()));
+      } else if (change.isDelete()) {
+        tags.add(BookCacheTags.ALL_BOOKS);
+        tags.add(BookCacheTags.category(change.oldCategory()));
+        versions.put(change.id(), VersionedCache.DELETED);
+      } else {
+        Set<String> changed = change.changed() != null ? change.changed() : Set.of();
+        if (changed.contains("isbn")) {
+          missingBookCache.bookExists(null, change.isbn());
+          isbnBloomFilter.add(change.isbn());
+        }
+        if (changed.contains("category")) {
+          tags.add(BookCacheTags.category(change.oldCategory()));
+          tags.add(BookCacheTags.category(change.category()));
+        }
+        if (changed.contains("title") || changed.contains("author")) {
+          tags.add(BookCacheTags.SEARCH_TEXT);
+        }
+        tags.addAll(BookCacheTags.sortedListings(change.category(), changed));
+        long version = change.version() != null ? change.version() : 0L;
+        versions.merge(change.id(), version, Math::max);
+      }
+    }
+    logger.debug("Evicting {} books changed outside the API", versions.size());
+    versions.forEach(this::evictBook);
+    if (!tags.isEmpty()) {
+      evictTagged(tags);
+    }
+  }
+
+  /**
+   * Changes outside the API may have been missed, such as a TRUNCATE or a dropped listener
+   * connection Interview Point: ISBNs they wrote may be missing from the ISBN filter, so it is not
+   * trusted again until rebuilt from the database
+   */
+  public void changesMissed() {
+    isbnBloomFilter.markForRebuild();
+  }
+
+  /** Evict the book and, where supported, refuse later puts older than {@code version}. */
+  private void evictBook(Long id, Long version) {
+    Cache cache = cacheManager.getCache(BookPageCache.BOOK_CACHE);
+    if (cache instanceof VersionedCache versionedCache && version != null) {
+      versionedCache.evictOlderThan(id, version);
+    } else if (cache != null) {
+      cache.evict(id);
+    }
+    hotBookReplica.evict(id);
+  }
+
+  /**
+   * Run {@code action} once the current transaction commits, or now if there is none Interview
+   * Point: writing before the commit could publish a body that is then rolled back, evicting before
+   * it lets readers re-cache the old row, and a failure here must not turn a committed write into
+   * an error response
+   */
+  private static void afterCommit(Runnable action) {
+    Runnable guarded =
+        () -> {
+          try {
+            action.run();
+          } catch (RuntimeException ex) {
+            logger.warn("Post-commit cache update failed: {}", ex.getMessage());
+          }
+        };
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      guarded.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            guarded.run();
+          }
+        });
+  }
+
+  private void evictTagged(Set<String> tags) {
+    logger.debug("Evicting cache entries tagged {}", tags);
+    if (cacheManager instanceof TaggedCacheManager taggedCacheManager) {
+      taggedCacheManager.evictTagged(tags);
+      return;
+    }
+    for (String cacheName : LISTING_CACHES) {
+      Cache cache = cacheManager.getCache(cacheName);
+      if (cache != null) {
+        cache.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Tag vocabulary for book listings
+ *
+ * <p>Interview Points: 1. Membership tags ("books:all", "category:Fiction") mark listings whose
+ * composition changes when a book is added, removed or moves category 2. Order tags
+ * ("category:Fiction:sorted:title") mark every page of a listing sorted by one property, since an
+ * edit to that property can move a book onto, off or within any page of it, not only the pages that
+ * listed it before 3. Pages store ids only, so editing any other property needs no page eviction at
+ * all 4. Tags are plain strings, so the index needs no knowledge of the domain
+ */
+public final class BookCacheTags {
+
+  /** Every page of the unfiltered {@code books} listing, and every search result page. */
+  public static final String ALL_BOOKS = "books:all";
+
+  /** Search result pages, whose membership also changes when a title or author is edited. */
+  public static final String SEARCH_TEXT = "books:search-text";
+
+  /** BookResponse accessors by the entity property name clients sort on. */
+  private static final Map<String, Function<BookResponse, Object>> SORTABLE_PROPERTIES =
+      Map.of(
+          "title", BookResponse::title,
+          "author", BookResponse::author,
+          "isbn", BookResponse::isbn,
+          "price", BookResponse::price,
+          "category", BookResponse::category,
+          "description", BookResponse::description,
+          "stockQuantity", BookResponse::stockQuantity,
+          "version", BookResponse::version,
+          "createdAt", BookResponse::createdAt,
+          "updatedAt", BookResponse::updatedAt);
+
+  private BookCacheTags() {}
+
+  public static String category(String category) {
+    return "category:" + category;
+  }
+
+  /** Pages of the listing tagged {@code listing} that are sorted by {@code property}. */
+  public static String sortedBy(String listing, String property) {
+    return listing + ":sorted:" + property;
+  }
+
+  /**
+   * Order tags of every listing a book in {@code category} can appear on, for each property in
+   * {@code properties}
+   */
+  public static Set<String> sortedListings(String category, Collection<String> properties) {
+    Set<String> tags = new LinkedHashSet<>();
+    for (String property : properties) {
+      tags.add(sortedBy(ALL_BOOKS, property));
+      tags.add(sortedBy(category(category), property));
+      tags.add(sortedBy(SEARCH_TEXT, property));
+    }
+    return tags;
+  }
+
+  /** Names of the properties whose values differ between two versions of a book. */
+  public static Set<String> changedProperties(BookResponse previous, BookResponse current) {
+    Set<String> changed = new LinkedHashSet<>();
+    SORTABLE_PROPERTIES.forEach(
+        (property, accessor) -> {
+          if (!Objects.equals(accessor.apply(previous), accessor.apply(current))) {
+            changed.add(property);
+          }
+        });
+    return changed;
+  }
+
+  /** Tags for a normalized listing page keyed by {@link PageCacheKey}. */
+  public static CacheTagResolver listingPage() {
+    return (key, value) -> {
+      Set<String> tags = new LinkedHashSet<>();
+      if (key instanceof PageCacheKey pageKey) {
+        String listing;
+        if (pageKey.query() != null) {
+          // Any created or deleted book may match a search
+          tags.add(ALL_BOOKS);
+          listing = SEARCH_TEXT;
+        } else {
+          listing = pageKey.category() == null ? ALL_BOOKS : category(pageKey.category());
+        }
+        tags.add(listing);
+        for (String property : pageKey.sortProperties()) {
+          tags.add(sortedBy(listing, property));
+        }
+      }
+      return tags;
+    };
+  }
+}
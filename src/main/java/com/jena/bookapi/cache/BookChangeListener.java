@@ -0,0 +1,227 @@
+package com.jena.bookapi.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jena.bookapi.config.BookCacheProperties;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Turns Postgres notifications about changed {@code books} rows into targeted evictions
+ *
+ * <p>Interview Points: 1. The {@code notify_book_change} trigger in scripts/init.sql sends one
+ * notification per changed row, and Postgres delivers them only once the change commits 2.
+ * Notifications are collected for a short window, or until a batch fills, and evicted together, so
+ * a bulk UPDATE of many rows evicts each affected page once 3. The listener holds its own unpooled
+ * connection, so the LISTEN never occupies a pool slot 4. Every node listens and evicts; evictions
+ * are idempotent, so only the work is repeated 5. Notifications sent while the connection is down
+ * are lost, so after a reconnect the configured caches are cleared, and the ISBN filter rebuilt,
+ * instead 6. Writes made through the API are skipped by the trigger, since the API already evicts
+ * precisely after its own commits
+ */
+public class BookChangeListener implements SmartLifecycle {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookChangeListener.class);
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private static final int IDLE_POLL_MILLIS = 1_000;
+
+  private final DataSource dataSource;
+  private final BookCacheInvalidator invalidator;
+  private final CacheManager cacheManager;
+  private final BookCacheProperties.DbInvalidation settings;
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final List<BookRowChange> pending = new ArrayList<>();
+  private long flushDeadline;
+  private boolean resyncPending;
+  private volatile boolean running;
+  private Thread thread;
+
+  /** {@code dataSource} should be unpooled: its one connection is held for as long as it works. */
+  public BookChangeListener(
+      DataSource dataSource,
+      BookCacheInvalidator invalidator,
+      CacheManager cacheManager,
+      BookCacheProperties.DbInvalidation settings) {
+    if (!CHANNEL_NAME.matcher(settings.getChannel()).matches()) {
+      throw new IllegalArgumentException("Invalid notification channel: " + settings.getChannel());
+    }
+    this.dataSource = dataSource;
+    this.invalidator = invalidator;
+    this.cacheManager = cacheManager;
+    this.settings = settings;
+  }
+
+  @Override
+  public synchronized void start() {
+    if (!settings.isEnabled() || running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::listen, "book-change-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public synchronized void stop() {
+    running = false;
+    if (thread != null) {
+      try {
+        thread.join(2L * IDLE_POLL_MILLIS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      thread = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listen() {
+    boolean listenedBefore = false;
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+          logger.error("Database-driven cache invalidation needs PostgreSQL, listener stopped");
+          running = false;
+          return;
+        }
+        PGConnection notifications = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + settings.getChannel());
+        }
+        if (listenedBefore) {
+          // Changes committed while no connection was listening were never seen
+          resync();
+        }
+        listenedBefore = true;
+        logger.info("Listening for book changes on channel {}", settings.getChannel());
+        while (running) {
+          PGNotification[] received = notifications.getNotifications(pollMillis());
+          if (received != null) {
+            for (PGNotification notification : received) {
+              onNotification(notification.getParameter());
+            }
+          }
+          boolean batchOpen = !pending.isEmpty() || resyncPending;
+          if (batchOpen && System.currentTimeMillis() >= flushDeadline) {
+            flush();
+          }
+        }
+      } catch (SQLException ex) {
+        logger.warn("Book change listener disconnected: {}", ex.getMessage());
+        flush(); // everything received before the failure is still valid
+        sleep(settings.getReconnectDelay().toMillis());
+      }
+    }
+    flush();
+  }
+
+  /** Queue the change in {@code payload}, flushing if the batch is full. */
+  void onNotification(String payload) {
+    BookRowChange change;
+    try {
+      change = objectMapper.readValue(payload, BookRowChange.class);
+    } catch (JsonProcessingException ex) {
+      logger.warn("Ignoring malformed book change notification: {}", payload);
+      return;
+    }
+    boolean firstInBatch = pending.isEmpty() && !resyncPending;
+    if ("TRUNCATE".equals(change.op())) {
+      resyncPending = true; // the trigger cannot list the rows a TRUNCATE removed
+    } else if (change.id() == null) {
+      logger.warn("Ignoring book change notification without an id: {}", payload);
+      return;
+    } else {
+      pending.add(change);
+    }
+    if (firstInBatch) {
+      flushDeadline = System.currentTimeMillis() + settings.getCoalesceWindow().toMillis();
+    }
+    if (pending.size() >= settings.getMaxBatchSize()) {
+      flush();
+    }
+  }
+
+  /** Apply the evictions of every queued change. */
+  void flush() {
+    if (resyncPending) {
+      pending.clear();
+      resync();
+      return;
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<BookRowChange> batch = List.copyOf(pending);
+    pending.clear();
+    try {
+      invalidator.rowsChanged(batch);
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to evict {} changed books: {}", batch.size(), ex.getMessage());
+    }
+  }
+
+  private void resync() {
+    resyncPending = false;
+    logger.warn("Book changes may have been missed, clearing {}", settings.getResyncCaches());
+    for (String cacheName : settings.getResyncCaches()) {
+      Cache cache = cacheManager.getCache(cacheName);
+      if (cache == null) {
+        continue;
+      }
+      try {
+        cache.clear();
+      } catch (RuntimeException ex) {
+        logger.warn("Failed to clear cache {}: {}", cacheName, ex.getMessage());
+      }
+    }
+    try {
+      invalidator.changesMissed();
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to report missed book changes: {}", ex.getMessage());
+    }
+  }
+
+  private int pollMillis() {
+    if (pending.isEmpty() && !resyncPending) {
+      return IDLE_POLL_MILLIS;
+    }
+    // 0 would block until the next notification, so wait at least a millisecond
+    long remaining = flushDeadline - System.currentTimeMillis();
+    return (int) Math.max(1, Math.min(IDLE_POLL_MILLIS, remaining));
+  }
+
+  private void sleep(long millis) {
+    long deadline = System.currentTimeMillis() + millis;
+    long remaining = millis;
+    while (running && remaining > 0) {
+      try {
+        Thread.sleep(Math.min(IDLE_POLL_MILLIS, remaining));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,359 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Normalized book cache: pages hold id lists, bodies come from the {@code book} cache and stock
+ * levels from the {@code bookStock} cache
+ *
+ * <p>Interview Points: 1. A page hit is one lookup for the id list plus a bulk lookup of the
+ * bodies, most of which are near-cache hits, and the remaining bodies share one MGET 2. Bodies
+ * missing from the {@code book} cache are loaded in a single batched query and cached for the next
+ * reader 3. If a listed book no longer exists the page is stale; it is evicted and rebuilt rather
+ * than served with holes 4. Unpaged requests bypass the cache, since their size is unbounded 5.
+ * Pages load through Cache.get(key, loader), so concurrent misses for one page share a single query
+ * and hits near expiry are refreshed in the background 6. Every cached body is written together
+ * with its {@link StockLevel}, and reads assemble the two, so a stock change rewrites a few bytes
+ * and leaves the body, and every node's near-cache copy of it, untouched 7. A body whose stock
+ * entry is missing may predate a stock change, so it is treated as a miss and reloaded 8. When a
+ * reload fails because the database is unavailable, expired pages, bodies and stock levels still
+ * held by the cache are served instead, and the request is marked stale through {@link StaleReads}
+ */
+@Component
+public class BookPageCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookPageCache.class);
+
+  public static final String BOOK_CACHE = "book";
+
+  public static final String STOCK_CACHE = "bookStock";
+
+  private final CacheManager cacheManager;
+
+  public BookPageCache(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * Return the page for {@code key}, building it with {@code pageLoader} on a miss
+   *
+   * @param cacheName listing cache holding the id list
+   * @param key canonical page key
+   * @param pageable page request the result is reported against
+   * @param pageLoader runs the listing query on a miss
+   * @param bookLoader loads bodies of listed books missing from the {@code book} cache
+   */
+  public Page<BookResponse> getPage(
+      String cacheName,
+      PageCacheKey key,
+      Pageable pageable,
+      Supplier<Page<BookResponse>> pageLoader,
+      Function<Collection<Long>, List<BookResponse>> bookLoader) {
+    Cache pages = cacheManager.getCache(cacheName);
+    Cache books = cacheManager.getCache(BOOK_CACHE);
+    Cache stocks = cacheManager.getCache(STOCK_CACHE);
+    if (pages == null || books == null || pageable.isUnpaged()) {
+      return pageLoader.get();
+    }
+
+    // Read-through: a miss runs the query once per key, a hit near expiry is refreshed in the
+    // background with the same loader
+    AtomicReference<Page<BookResponse>> loaded = new AtomicReference<>();
+    Callable<CachedPage> loader =
+        () -> {
+          Page<BookResponse> result = pageLoader.get();
+          putBooks(books, stocks, result.getContent());
+          loaded.set(result);
+          return CachedPage.of(result);
+        };
+    CachedPage cached;
+    try {
+      cached = getOrLoad(pages, key, loader);
+    } catch (RuntimeException ex) {
+      cached = staleOrThrow(pages, key, CachedPage.class, ex);
+    }
+    if (loaded.get() != null) {
+      return loaded.get();
+    }
+    List<BookResponse> content = resolveBooks(books, stocks, cached.ids(), bookLoader);
+    if (content != null) {
+      return new PageImpl<>(content, pageable, cached.totalElements());
+    }
+
+    logger.debug("Cached page {} lists a missing book, rebuilding", key);
+    pages.evict(key);
+    cached = getOrLoad(pages, key, loader);
+    if (loaded.get() != null) {
+      return loaded.get();
+    }
+    content = resolveBooks(books, stocks, cached.ids(), bookLoader);
+    return content != null
+        ? new PageImpl<>(content, pageable, cached.totalElements())
+        : pageLoader.get();
+  }
+
+  /**
+   * Return the book with id {@code id}, loading it with {@code loader} on a miss Interview Point:
+   * misses go through Cache.get(key, loader), so a hot book expiring triggers one query
+   */
+  public BookResponse getBook(Long id, Supplier<BookResponse> loader) {
+    Cache books = cacheManager.getCache(BOOK_CACHE);
+    if (books == null) {
+      return loader.get();
+    }
+    Cache stocks = cacheManager.getCache(STOCK_CACHE);
+    AtomicReference<BookResponse> loaded = new AtomicReference<>();
+    Callable<BookResponse> bodyLoader =
+        () -> {
+          BookResponse book = loader.get();
+          putStock(stocks, book);
+          loaded.set(book);
+          return book;
+        };
+    BookResponse body;
+    try {
+      body = getOrLoad(books, id, bodyLoader);
+    } catch (RuntimeException ex) {
+      return staleBook(books, stocks, id, null, ex);
+    }
+    BookResponse book = loaded.get() != null ? loaded.get() : withStock(stocks, body);
+    if (book != null) {
+      return book;
+    }
+
+    logger.debug("Cached book {} has no stock entry, reloading", id);
+    books.evict(id);
+    BookResponse unstocked = body;
+    try {
+      body = getOrLoad(books, id, bodyLoader);
+    } catch (RuntimeException ex) {
+      return staleBook(books, stocks, id, unstocked, ex);
+    }
+    book = loaded.get() != null ? loaded.get() : withStock(stocks, body);
+    return book != null ? book : body;
+  }
+
+  /** Cache a freshly loaded book: its body and its stock level. */
+  public void putBook(BookResponse book) {
+    Cache books = cacheManager.getCache(BOOK_CACHE);
+    if (books != null) {
+      putBook(books, cacheManager.getCache(STOCK_CACHE), book);
+    }
+  }
+
+  /** Cache only the stock level of {@code book}, leaving its cached body as it is. */
+  public void putStock(BookResponse book) {
+    putStock(cacheManager.getCache(STOCK_CACHE), book);
+  }
+
+  /**
+   * Cache books just read from the database Interview Point: bodies and stock levels are each
+   * written with one pipelined bulk put where the cache supports it
+   */
+  public void putBooks(Collection<BookResponse> loadedBooks) {
+    Cache books = cacheManager.getCache(BOOK_CACHE);
+    if (books != null) {
+      putBooks(books, cacheManager.getCache(STOCK_CACHE), loadedBooks);
+    }
+  }
+
+  private static void putBooks(Cache books, Cache stocks, Collection<BookResponse> loadedBooks) {
+    if (loadedBooks.isEmpty()) {
+      return;
+    }
+    Map<Long, BookResponse> bodies = new LinkedHashMap<>();
+    Map<Long, StockLevel> stockLevels = new LinkedHashMap<>();
+    for (BookResponse book : loadedBooks) {
+      bodies.put(book.id(), book);
+      stockLevels.put(book.id(), StockLevel.of(book));
+    }
+    putAll(books, bodies);
+    if (stocks != null) {
+      putAll(stocks, stockLevels);
+    }
+  }
+
+  private static Map<Object, Object> getAll(Cache cache, Collection<?> keys) {
+    if (cache instanceof BulkCache bulkCache) {
+      return bulkCache.getAll(keys);
+    }
+    Map<Object, Object> found = new HashMap<>();
+    for (Object key : keys) {
+      ValueWrapper wrapper = cache.get(key);
+      if (wrapper != null && wrapper.get() != null) {
+        found.put(key, wrapper.get());
+      }
+    }
+    return found;
+  }
+
+  private static void putAll(Cache cache, Map<?, ?> values) {
+    if (cache instanceof BulkCache bulkCache) {
+      bulkCache.putAll(values);
+    } else {
+      values.forEach(cache::put);
+    }
+  }
+
+  private static void putBook(Cache books, Cache stocks, BookResponse book) {
+    books.put(book.id(), book);
+    putStock(stocks, book);
+  }
+
+  private static void putStock(Cache stocks, BookResponse book) {
+    if (stocks != null) {
+      stocks.put(book.id(), StockLevel.of(book));
+    }
+  }
+
+  /** {@code body} with its cached stock level, or null if the stock entry is missing. */
+  private static BookResponse withStock(Cache stocks, BookResponse body) {
+    if (stocks == null) {
+      return body;
+    }
+    StockLevel stock = stocks.get(body.id(), StockLevel.class);
+    return stock != null ? stock.applyTo(body) : null;
+  }
+
+  /**
+   * The expired value of {@code key}, if {@code failure} means the database is unavailable
+   * Interview Point: any other failure, or nothing left to serve, rethrows {@code failure}
+   */
+  private static <T> T staleOrThrow(
+      Cache cache, Object key, Class<T> type, RuntimeException failure) {
+    if (StaleReads.isDatabaseUnavailable(failure)
+        && cache instanceof StaleIfErrorCache staleCache) {
+      ValueWrapper stale = staleCache.getStale(key);
+      if (stale != null && type.isInstance(stale.get())) {
+        logger.warn("Database unavailable, serving stale {}::{}", cache.getName(), key);
+        StaleReads.markStale();
+        return type.cast(stale.get());
+      }
+    }
+    throw failure;
+  }
+
+  /** Expired body of {@code id}, or {@code body} if given, with its expired stock level. */
+  private static BookResponse staleBook(
+      Cache books, Cache stocks, Long id, BookResponse body, RuntimeException failure) {
+    BookResponse staleBody = body;
+    if (staleBody == null) {
+      staleBody = staleOrThrow(books, id, BookResponse.class, failure);
+    } else if (StaleReads.isDatabaseUnavailable(failure)) {
+      logger.warn("Database unavailable, serving book {} without a current stock level", id);
+      StaleReads.markStale();
+    } else {
+      throw failure;
+    }
+    // Without a stock entry the body's own, older, stock level is served
+    return stocks instanceof StaleIfErrorCache staleStocks
+            && staleStocks.getStale(id) instanceof ValueWrapper stock
+            && stock.get() instanceof StockLevel level
+        ? level.applyTo(staleBody)
+        : staleBody;
+  }
+
+  /** Expired bodies of {@code ids} with their stock levels, all or nothing. */
+  private static List<BookResponse> staleBooks(
+      Cache books, Cache stocks, List<Long> ids, RuntimeException failure) {
+    if (!StaleReads.isDatabaseUnavailable(failure)
+        || !(books instanceof StaleIfErrorCache staleBooks)) {
+      throw failure;
+    }
+    Map<Object, Object> bodies = staleBooks.getAllStale(ids);
+    Map<Object, Object> stockLevels =
+        stocks instanceof StaleIfErrorCache staleStocks ? staleStocks.getAllStale(ids) : Map.of();
+    List<BookResponse> result = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      if (!(bodies.get(id) instanceof BookResponse body)) {
+        throw failure;
+      }
+      result.add(stockLevels.get(id) instanceof StockLevel stock ? stock.applyTo(body) : body);
+    }
+    logger.warn("Database unavailable, serving {} stale {} entries", ids.size(), books.getName());
+    StaleReads.markStale();
+    return result;
+  }
+
+  /** Cache.get(key, loader) wraps loader failures; rethrow the original so callers see it. */
+  private static <T> T getOrLoad(Cache cache, Object key, Callable<T> loader) {
+    try {
+      return cache.get(key, loader);
+    } catch (Cache.ValueRetrievalException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Look up bodies in listing order, batch-loading misses Interview Point: returns null when a
+   * listed id cannot be found at all, so the caller can rebuild the page
+   */
+  private List<BookResponse> resolveBooks(
+      Cache books,
+      Cache stocks,
+      List<Long> ids,
+      Function<Collection<Long>, List<BookResponse>> bookLoader) {
+    Map<Object, Object> bodies = getAll(books, ids);
+    Map<Object, Object> stockLevels = stocks != null ? getAll(stocks, bodies.keySet()) : null;
+    Map<Long, BookResponse> found = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : ids) {
+      BookResponse book = null;
+      if (bodies.get(id) instanceof BookResponse body) {
+        // A body whose stock entry is missing may predate a stock change
+        book =
+            stockLevels == null
+                ? body
+                : stockLevels.get(id) instanceof StockLevel stock ? stock.applyTo(body) : null;
+      }
+      if (book != null) {
+        found.put(id, book);
+      } else {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      List<BookResponse> loadedBooks;
+      try {
+        loadedBooks = bookLoader.apply(missing);
+        putBooks(books, stocks, loadedBooks);
+      } catch (RuntimeException ex) {
+        // Stale bodies are served but never written back, which would extend their lifetime
+        loadedBooks = staleBooks(books, stocks, missing, ex);
+      }
+      loadedBooks.forEach(book -> found.put(book.id(), book));
+    }
+
+    List<BookResponse> content = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      BookResponse book = found.get(id);
+      if (book == null) {
+        return null;
+      }
+      content.add(book);
+    }
+    return content;
+  }
+}
@@ -0,0 +1,32 @@
+package com.jena.bookapi.cache;
+
+import java.util.Set;
+
+/**
+ * A change to one row of {@code books}, as sent by the {@code notify_book_change} trigger
+ *
+ * @param op INSERT, UPDATE or DELETE
+ * @param id id of the row
+ * @param version row version after the change; null for a delete
+ * @param category category after the change; null for a delete
+ * @param oldCategory category before the change; null for an insert
+ * @param isbn ISBN after the change; null for a delete
+ * @param changed entity property names whose values changed, for an update
+ */
+public record BookRowChange(
+    String op,
+    Long id,
+    Long version,
+    String category,
+    String oldCategory,
+    String isbn,
+    Set<String> changed) {
+
+  public boolean isInsert() {
+    return "INSERT".equals(op);
+  }
+
+  public boolean isDelete() {
+    return "DELETE".equals(op);
+  }
+}
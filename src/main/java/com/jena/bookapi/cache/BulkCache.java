@@ -0,0 +1,23 @@
+package com.jena.bookapi.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache that reads and writes many keys in one round trip
+ *
+ * <p>Interview Point: Callers check for this capability and fall back to one call per key when it
+ * is absent, like {@link VersionedCache}
+ */
+public interface BulkCache extends Cache {
+
+  /** Cached values of {@code keys}; keys with no entry are left out. */
+  Map<Object, Object> getAll(Collection<?> keys);
+
+  /**
+   * Store values just read from the database Interview Point: like a read-through load, and unlike
+   * {@link #put}, other nodes are not told to drop their copies
+   */
+  void putAll(Map<?, ?> values);
+}
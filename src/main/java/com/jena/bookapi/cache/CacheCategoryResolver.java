@@ -0,0 +1,14 @@
+package com.jena.bookapi.cache;
+
+/**
+ * Derives the category an entry belongs to, for per-category TTLs
+ *
+ * <p>Interview Point: Strategy interface registered per cache name, like {@link CacheTagResolver};
+ * the value is null when only the key is known, e.g. on a miss or an eviction
+ */
+@FunctionalInterface
+public interface CacheCategoryResolver {
+
+  /** The entry's category, or null if it has none or it cannot be told from what is given. */
+  String categoryOf(Object key, Object value);
+}
@@ -0,0 +1,241 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.PoolException;
+
+/**
+ * Circuit breaker between the application and Redis
+ *
+ * <p>Interview Points: 1. The outcomes of the last N Redis calls are kept in a ring; once enough of
+ * them failed or were slower than the slow-call threshold, the circuit opens 2. While open, calls
+ * are not attempted at all and the caller's fallback answers immediately, so a Redis brownout costs
+ * microseconds per request instead of a command timeout 3. After the open interval one live call is
+ * let through as a probe: success closes the circuit, failure re-opens it 4. Only data access
+ * failures count; anything else is a bug and propagates as before, though a probe that throws it
+ * still re-opens the circuit 5. Recovery listeners run when the circuit closes, so work skipped
+ * during the outage can be replayed 6. Disabling the breaker stops it from opening, not from
+ * degrading: a failed call still answers with its fallback
+ */
+public class CacheCircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+
+  /** Circuit states. */
+  public enum State {
+    /** Calls go to Redis. */
+    CLOSED,
+    /** A single probe call is testing whether Redis has recovered. */
+    HALF_OPEN,
+    /** Calls are answered by their fallback without touching Redis. */
+    OPEN
+  }
+
+  private final BookCacheProperties.CircuitBreaker settings;
+  private final boolean[] failed;
+  private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder slowCalls = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  private State state = State.CLOSED;
+  private int recorded;
+  private int position;
+  private int failedInWindow;
+  private long openedAt;
+  private boolean probeInFlight;
+
+  public CacheCircuitBreaker(BookCacheProperties.CircuitBreaker settings) {
+    this.settings = settings;
+    this.failed = new boolean[Math.max(1, settings.getWindowSize())];
+  }
+
+  /**
+   * Run a Redis call, or answer with {@code fallback} if the circuit is open or the call fails
+   * Interview Point: the caller always gets an answer; only the breaker sees the failure
+   */
+  public <T> T call(Supplier<T> call, Supplier<T> fallback) {
+    if (!settings.isEnabled()) {
+      try {
+        return call.get();
+      } catch (DataAccessException | PoolException ex) {
+        logger.debug("Redis call failed, using fallback: {}", ex.getMessage());
+        return fallback.get();
+      }
+    }
+    if (!tryAcquirePermission()) {
+      rejected.increment();
+      return fallback.get();
+    }
+    long started = System.nanoTime();
+    try {
+      T result = call.get();
+      onResult(System.nanoTime() - started > settings.getSlowCallThreshold().toNanos());
+      return result;
+    } catch (DataAccessException | PoolException ex) {
+      failures.increment();
+      onOutcome(true);
+      logger.debug("Redis call failed, using fallback: {}", ex.getMessage());
+      return fallback.get();
+    } catch (RuntimeException | Error ex) {
+      if (isHalfOpen()) {
+        // Not proof that Redis is back, and an unrecorded probe would keep the circuit half-open
+        failures.increment();
+        onOutcome(true);
+      } else {
+        onResult(false); // not an availability problem
+      }
+      throw ex;
+    }
+  }
+
+  /** Run a Redis call for its side effect; false if it was skipped or failed. */
+  public boolean run(Runnable call) {
+    return call(
+        () -> {
+          call.run();
+          return true;
+        },
+        () -> false);
+  }
+
+  /** Register an action to run each time the circuit closes after being open. */
+  public void onRecovery(Runnable listener) {
+    recoveryListeners.add(listener);
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  /** Failed or slow share of the calls in the current window. */
+  public synchronized double getFailureRate() {
+    return recorded == 0 ? 0 : (double) failedInWindow / recorded;
+  }
+
+  public long getSuccessCount() {
+    return successes.sum();
+  }
+
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  public long getSlowCallCount() {
+    return slowCalls.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  private synchronized boolean isHalfOpen() {
+    return state == State.HALF_OPEN;
+  }
+
+  private synchronized boolean tryAcquirePermission() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (System.nanoTime() - openedAt < settings.getOpenDuration().toNanos()) {
+          return false;
+        }
+        state = State.HALF_OPEN;
+        probeInFlight = false;
+        logger.info("Cache circuit half-open, probing Redis");
+      // fall through
+      default:
+        if (probeInFlight) {
+          return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+  }
+
+  private void onResult(boolean slow) {
+    if (slow) {
+      slowCalls.increment();
+    } else {
+      successes.increment();
+    }
+    onOutcome(slow);
+  }
+
+  private void onOutcome(boolean failure) {
+    boolean recovered;
+    synchronized (this) {
+      recovered = record(failure);
+    }
+    if (recovered) {
+      for (Runnable listener : recoveryListeners) {
+        try {
+          listener.run();
+        } catch (RuntimeException ex) {
+          logger.warn("Cache recovery action failed: {}", ex.getMessage());
+        }
+      }
+    }
+  }
+
+  /** Returns true if this outcome closed an open circuit. */
+  private boolean record(boolean failure) {
+    if (state == State.HALF_OPEN) {
+      probeInFlight = false;
+      if (failure) {
+        open();
+        return false;
+      }
+      state = State.CLOSED;
+      resetWindow();
+      logger.info("Cache circuit closed, Redis is back");
+      return true;
+    }
+    if (state == State.OPEN) {
+      return false; // a call started before the circuit opened
+    }
+    if (recorded == failed.length) {
+      if (failed[position]) {
+        failedInWindow--;
+      }
+    } else {
+      recorded++;
+    }
+    failed[position] = failure;
+    if (failure) {
+      failedInWindow++;
+    }
+    position = (position + 1) % failed.length;
+    if (recorded >= settings.getMinimumCalls()
+        && failedInWindow >= settings.getFailureRateThreshold() * recorded) {
+      logger.warn(
+          "Cache circuit opened: {} of the last {} Redis calls failed or were slow",
+          failedInWindow,
+          recorded);
+      open();
+    }
+    return false;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = System.nanoTime();
+    resetWindow();
+  }
+
+  private void resetWindow() {
+    recorded = 0;
+    position = 0;
+    failedInWindow = 0;
+    Arrays.fill(failed, false);
+  }
+}
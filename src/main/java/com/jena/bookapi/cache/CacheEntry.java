@@ -0,0 +1,20 @@
+package com.jena.bookapi.cache;
+
+/**
+ * Cached value plus the metadata refresh-ahead needs
+ *
+ * <p>Interview Points: 1. The logical expiry travels with the value, so every node reading it makes
+ * the same refresh decision without an extra PTTL round trip 2. Redis keeps the entry a little past
+ * its logical expiry, which is the window in which it is served while being refreshed
+ *
+ * @param value the cached value
+ * @param expiresAt logical expiry, epoch millis, including TTL jitter
+ * @param loadMillis how long the value took to compute, the XFetch "delta"
+ */
+public record CacheEntry(Object value, long expiresAt, int loadMillis) {
+
+  /** Entries written before refresh metadata existed; they expire normally and never refresh. */
+  static CacheEntry of(Object stored) {
+    return stored instanceof CacheEntry entry ? entry : new CacheEntry(stored, Long.MAX_VALUE, 0);
+  }
+}
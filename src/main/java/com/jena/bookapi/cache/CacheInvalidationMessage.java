@@ -0,0 +1,35 @@
+package com.jena.bookapi.cache;
+
+/**
+ * Near-cache invalidation broadcast between application nodes
+ *
+ * <p>Interview Points: 1. Records give a compact immutable message type 2. A null key means "clear
+ * the whole cache" 3. The origin node id lets a node ignore its own broadcasts
+ *
+ * @param origin id of the node that performed the eviction
+ * @param cacheName cache the entry belongs to
+ * @param key string form of the evicted key, or {@code null} for a full clear
+ */
+record CacheInvalidationMessage(String origin, String cacheName, String key) {
+
+  private static final String SEPARATOR = "\n";
+
+  String encode() {
+    return key == null
+        ? origin + SEPARATOR + cacheName
+        : origin + SEPARATOR + cacheName + SEPARATOR + key;
+  }
+
+  /** Keys may contain any character, so only the first two separators are significant. */
+  static CacheInvalidationMessage decode(String payload) {
+    String[] parts = payload.split(SEPARATOR, 3);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Malformed cache invalidation message: " + payload);
+    }
+    return new CacheInvalidationMessage(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+  }
+
+  boolean isClear() {
+    return key == null;
+  }
+}
@@ -0,0 +1,77 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Short-lived Redis leases that elect one node to repopulate a missing cache entry
+ *
+ * <p>Interview Points: 1. SET NX PX is an atomic "acquire if free, with expiry", so a crashed
+ * holder can never block a key for longer than the lease TTL 2. Each lease carries a random token
+ * and is released by a Lua compare-and-delete, so a slow holder cannot release a lease another node
+ * has since acquired 3. Leases are an optimization, not a lock: if Redis is unreachable, or the
+ * circuit breaker is open, every caller proceeds to load 4. Waiters check whether the lease is
+ * still held, so a holder that stored nothing, because its load failed or found nothing, releases
+ * them at once instead of after the lease TTL
+ */
+public class CacheLoadLeases {
+
+  private static final String LEASE_KEY_PREFIX = "book-api:cache-lease:";
+
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+              + "else return 0 end",
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final BookCacheProperties.SingleFlight settings;
+  private final CacheCircuitBreaker circuitBreaker;
+
+  public CacheLoadLeases(
+      StringRedisTemplate redisTemplate,
+      BookCacheProperties.SingleFlight settings,
+      CacheCircuitBreaker circuitBreaker) {
+    this.redisTemplate = redisTemplate;
+    this.settings = settings;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  /** Returns a token if this node should load the entry, or null if another node holds it. */
+  public String tryAcquire(String cacheName, String key) {
+    String token = UUID.randomUUID().toString();
+    return circuitBreaker.call(
+        () -> {
+          Boolean acquired =
+              redisTemplate
+                  .opsForValue()
+                  .setIfAbsent(leaseKey(cacheName, key), token, settings.getLeaseTtl());
+          return Boolean.FALSE.equals(acquired) ? null : token;
+        },
+        () -> token);
+  }
+
+  /** Whether another node still holds the lease; false if Redis cannot tell. */
+  public boolean isHeld(String cacheName, String key) {
+    return circuitBreaker.call(
+        () -> Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey(cacheName, key))), () -> false);
+  }
+
+  public void release(String cacheName, String key, String token) {
+    // If Redis is unreachable the lease expires on its own
+    circuitBreaker.run(
+        () -> redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(cacheName, key)), token));
+  }
+
+  public BookCacheProperties.SingleFlight getSettings() {
+    return settings;
+  }
+
+  private static String leaseKey(String cacheName, String key) {
+    return LEASE_KEY_PREFIX + cacheName + "::" + key;
+  }
+}
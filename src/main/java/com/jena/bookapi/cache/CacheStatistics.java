@@ -0,0 +1,89 @@
+package com.jena.bookapi.cache;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-cache counters maintained by {@link TwoLevelCache}
+ *
+ * <p>Interview Points: 1. LongAdder keeps the hot read path contention-free; Micrometer reads the
+ * totals through function counters only when scraped 2. The load and clear timers are attached once
+ * a registry is bound, so the cache works unchanged without metrics
+ */
+public class CacheStatistics {
+
+  private final LongAdder localHits = new LongAdder();
+  private final LongAdder remoteHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private volatile Timer loadTimer;
+  private volatile Timer clearTimer;
+
+  void localHit() {
+    localHits.increment();
+  }
+
+  void remoteHit() {
+    remoteHits.increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  void put() {
+    puts.increment();
+  }
+
+  void eviction() {
+    evictions.increment();
+  }
+
+  void load(long nanos) {
+    Timer timer = loadTimer;
+    if (timer != null) {
+      timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  void clear(long nanos) {
+    Timer timer = clearTimer;
+    if (timer != null) {
+      timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  void setLoadTimer(Timer loadTimer) {
+    this.loadTimer = loadTimer;
+  }
+
+  void setClearTimer(Timer clearTimer) {
+    this.clearTimer = clearTimer;
+  }
+
+  public long localHits() {
+    return localHits.sum();
+  }
+
+  public long remoteHits() {
+    return remoteHits.sum();
+  }
+
+  public long hits() {
+    return localHits.sum() + remoteHits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public long puts() {
+    return puts.sum();
+  }
+
+  public long evictions() {
+    return evictions.sum();
+  }
+}
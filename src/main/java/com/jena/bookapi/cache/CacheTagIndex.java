@@ -0,0 +1,86 @@
+package com.jena.bookapi.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Redis-backed reverse index from tag to cache entries
+ *
+ * <p>Interview Points: 1. Each tag is a Redis set of "cacheName + newline + key" members shared by
+ * every node 2. Tag writes are pipelined so tagging a 20-book page is a single round trip 3. Tag
+ * sets expire with the longest-lived tagged cache, so stale members never accumulate 4. Members may
+ * outlive their entry; evicting an absent key is harmless 5. A tag set is read and unlinked by one
+ * Lua script, so an entry tagged during invalidation lands in a fresh set instead of being dropped
+ */
+public class CacheTagIndex {
+
+  private static final String TAG_KEY_PREFIX = "book-api:cache-tags:";
+  private static final String MEMBER_SEPARATOR = "\n";
+
+  // Broad tags such as "all books" can hold thousands of members; UNLINK frees them off-thread
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> TAKE_SCRIPT =
+      new DefaultRedisScript<>(
+          "local members = redis.call('smembers', KEYS[1]) redis.call('unlink', KEYS[1]) "
+              + "return members",
+          List.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final Duration ttl;
+
+  public CacheTagIndex(StringRedisTemplate redisTemplate, Duration ttl) {
+    this.redisTemplate = redisTemplate;
+    this.ttl = ttl;
+  }
+
+  /** Record that {@code cacheName/key} must be evicted when any of {@code tags} is invalidated. */
+  public void tag(String cacheName, String key, Collection<String> tags) {
+    if (tags.isEmpty()) {
+      return;
+    }
+    String member = cacheName + MEMBER_SEPARATOR + key;
+    redisTemplate.executePipelined(
+        new SessionCallback<Object>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public Object execute(RedisOperations operations) throws DataAccessException {
+            for (String tag : tags) {
+              operations.opsForSet().add(TAG_KEY_PREFIX + tag, member);
+              operations.expire(TAG_KEY_PREFIX + tag, ttl);
+            }
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Remove the given tags and hand every (cacheName, key) pair they referenced to {@code evictor}.
+   * Interview Point: entries shared by several tags are evicted once
+   */
+  public void invalidate(Collection<String> tags, BiConsumer<String, String> evictor) {
+    Set<String> members = new HashSet<>();
+    for (String tag : tags) {
+      // One key per script call, so each tag set can live on any cluster slot
+      List<?> tagged = redisTemplate.execute(TAKE_SCRIPT, List.of(TAG_KEY_PREFIX + tag));
+      if (tagged != null) {
+        tagged.forEach(member -> members.add(String.valueOf(member)));
+      }
+    }
+    for (String member : members) {
+      int separator = member.indexOf(MEMBER_SEPARATOR);
+      if (separator > 0) {
+        evictor.accept(member.substring(0, separator), member.substring(separator + 1));
+      }
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.jena.bookapi.cache;
+
+import java.util.Collection;
+
+/**
+ * Derives invalidation tags for an entry about to be cached
+ *
+ * <p>Interview Point: Strategy interface registered per cache name, so the cache layer stays
+ * ignorant of what a book or a category is
+ */
+@FunctionalInterface
+public interface CacheTagResolver {
+
+  Collection<String> tagsFor(Object key, Object value);
+}
@@ -0,0 +1,231 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Page;
+
+/**
+ * Records anonymized cache access traces for offline replay by the cache simulator
+ *
+ * <p>Interview Points: 1. One line per event: {@code B,<millis>,<book>,<bytes>} for a book read,
+ * {@code P,<millis>,<page>,<filter>,<book>:<bytes>|...} for a listing page read, and {@code
+ * W,<millis>,<C|U|D>,<book>,<filter>[,<previous filter>]} for a write 2. Ids, page keys and
+ * categories are replaced by truncated HMACs, so a trace shows reuse and sizes but no catalogue
+ * data 3. Sampling is by key, not by event: a sampled book or page has every access recorded, so
+ * reuse distances, and therefore hit ratios, survive sampling; writes are rare and any of them can
+ * invalidate a sampled page, so all are recorded 4. The request thread only formats the line and
+ * offers it to a bounded queue; a background thread writes, and a full queue drops events rather
+ * than slowing requests 5. Recording stops when the file reaches its size limit
+ */
+public class CacheTraceRecorder implements SmartLifecycle {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheTraceRecorder.class);
+
+  /** Compared by identity, so no recorded line can be mistaken for it. */
+  @SuppressWarnings("StringOperationCanBeSimplified")
+  private static final String STOP = new String("stop");
+
+  private final BookCacheProperties.Trace settings;
+  private final boolean enabled;
+  private final int sampleThreshold;
+  private final BlockingQueue<String> queue;
+  private final LongAdder dropped = new LongAdder();
+  private final ThreadLocal<Mac> macs;
+  private volatile boolean running;
+  private Thread writer;
+
+  public CacheTraceRecorder(BookCacheProperties.Trace settings) {
+    this.settings = settings;
+    this.enabled = settings.isEnabled() && settings.getSampleRate() > 0;
+    this.sampleThreshold = (int) Math.round(Math.min(1.0, settings.getSampleRate()) * 10_000);
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+    byte[] key = settings.getSalt().getBytes(StandardCharsets.UTF_8);
+    if (settings.getSalt().isBlank()) {
+      key = new byte[32];
+      new SecureRandom().nextBytes(key);
+    }
+    byte[] macKey = key;
+    this.macs = ThreadLocal.withInitial(() -> newMac(macKey));
+  }
+
+  /** Record a book read by id. */
+  public void bookRead(BookResponse book) {
+    if (running && book != null && sampled(book.id())) {
+      long bytes = CacheValueWeigher.estimate(book);
+      offer("B," + System.currentTimeMillis() + "," + anonymize(book.id()) + "," + bytes);
+    }
+  }
+
+  /** Record a listing or search page read. */
+  public void pageRead(PageCacheKey key, Page<BookResponse> page) {
+    if (!running || page == null || !sampled(key)) {
+      return;
+    }
+    StringBuilder line = new StringBuilder(64 + 24 * page.getNumberOfElements());
+    line.append("P,")
+        .append(System.currentTimeMillis())
+        .append(',')
+        .append(anonymize(key))
+        .append(',')
+        .append(filter(key))
+        .append(',');
+    boolean first = true;
+    for (BookResponse book : page.getContent()) {
+      if (!first) {
+        line.append('|');
+      }
+      first = false;
+      line.append(anonymize(book.id())).append(':').append(CacheValueWeigher.estimate(book));
+    }
+    offer(line.toString());
+  }
+
+  /** Record a create, update or delete; {@code previousCategory} only when an update moved it. */
+  public void bookWritten(char op, Long id, String category, String previousCategory) {
+    if (!running) {
+      return;
+    }
+    String line =
+        "W," + System.currentTimeMillis() + "," + op + "," + anonymize(id) + "," + filter(category);
+    offer(previousCategory != null ? line + "," + filter(previousCategory) : line);
+  }
+
+  /** Events dropped because the writer could not keep up. */
+  public long droppedEvents() {
+    return dropped.sum();
+  }
+
+  @Override
+  public synchronized void start() {
+    if (!enabled || running) {
+      return;
+    }
+    Path file;
+    BufferedWriter out;
+    try {
+      Path directory = Path.of(settings.getDirectory());
+      Files.createDirectories(directory);
+      file = directory.resolve("cache-trace-" + System.currentTimeMillis() + ".csv");
+      out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      logger.warn("Cache trace recording disabled: {}", ex.getMessage());
+      return;
+    }
+    running = true;
+    writer = new Thread(() -> write(file, out), "cache-trace-writer");
+    writer.setDaemon(true);
+    writer.start();
+    logger.info("Recording cache trace to {} (sample rate {})", file, settings.getSampleRate());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    queue.offer(STOP);
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void write(Path file, BufferedWriter out) {
+    long limit = settings.getMaxFileSize().toBytes();
+    long written = 0;
+    try (out) {
+      while (true) {
+        String line = queue.poll(1, TimeUnit.SECONDS);
+        if (line == null) {
+          out.flush();
+          continue;
+        }
+        if (line == STOP) {
+          break;
+        }
+        out.write(line);
+        out.newLine();
+        written += line.length() + 1;
+        if (written >= limit) {
+          logger.info("Cache trace {} reached {} bytes, recording stopped", file, written);
+          running = false;
+          break;
+        }
+      }
+    } catch (IOException ex) {
+      logger.warn("Cache trace recording failed: {}", ex.getMessage());
+      running = false;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    queue.clear();
+    if (dropped.sum() > 0) {
+      logger.info("Cache trace dropped {} events the writer could not keep up with", dropped.sum());
+    }
+  }
+
+  private void offer(String line) {
+    if (!queue.offer(line)) {
+      dropped.increment();
+    }
+  }
+
+  /** Consistent per-key sampling: the same key is in or out on every node and every start. */
+  private boolean sampled(Object key) {
+    if (key == null) {
+      return false;
+    }
+    int hash = key.toString().hashCode() * 0x9E3779B9;
+    return Math.floorMod(hash ^ (hash >>> 16), 10_000) < sampleThreshold;
+  }
+
+  private String filter(PageCacheKey key) {
+    if (key.query() != null) {
+      return "search";
+    }
+    return key.category() != null ? filter(key.category()) : "all";
+  }
+
+  private String filter(String category) {
+    return "c" + anonymize(category);
+  }
+
+  private String anonymize(Object value) {
+    byte[] digest = macs.get().doFinal(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(digest, 0, 8);
+  }
+
+  private static Mac newMac(byte[] key) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(key, "HmacSHA256"));
+      return mac;
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HmacSHA256 unavailable", ex);
+    }
+  }
+}
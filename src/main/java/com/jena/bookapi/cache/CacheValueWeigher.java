@@ -0,0 +1,63 @@
+package com.jena.bookapi.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.jena.bookapi.dto.BookResponse;
+import java.util.Collection;
+import org.springframework.data.domain.Page;
+
+/**
+ * Approximate heap footprint of near-cache entries
+ *
+ * <p>Interview Points: 1. A weigher lets Caffeine bound a cache by bytes rather than entry count,
+ * so a 100-book page costs more than a single book 2. Estimates only need to be proportional, not
+ * exact 3. Weights are computed once on insert, so the estimate must be cheap
+ */
+class CacheValueWeigher implements Weigher<Object, Object> {
+
+  private static final int ENTRY_OVERHEAD = 64;
+  private static final int OBJECT_OVERHEAD = 16;
+
+  @Override
+  public int weigh(Object key, Object value) {
+    long weight = ENTRY_OVERHEAD + estimate(key) + estimate(value);
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  static long estimate(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof CacheEntry entry) {
+      return OBJECT_OVERHEAD + 16 + estimate(entry.value());
+    }
+    if (value instanceof CharSequence text) {
+      return 40 + 2L * text.length();
+    }
+    if (value instanceof Number || value instanceof Boolean) {
+      return OBJECT_OVERHEAD + 8;
+    }
+    if (value instanceof BookResponse book) {
+      return 96
+          + estimate(book.title())
+          + estimate(book.author())
+          + estimate(book.isbn())
+          + estimate(book.category())
+          + estimate(book.description())
+          + 5L * (OBJECT_OVERHEAD + 24); // price, stock, version and timestamps
+    }
+    if (value instanceof CachedPage page) {
+      return OBJECT_OVERHEAD + 8 + estimate(page.ids());
+    }
+    if (value instanceof Page<?> page) {
+      return 128 + estimate(page.getContent());
+    }
+    if (value instanceof Collection<?> values) {
+      long size = OBJECT_OVERHEAD + 4L * values.size();
+      for (Object element : values) {
+        size += estimate(element);
+      }
+      return size;
+    }
+    return 64;
+  }
+}
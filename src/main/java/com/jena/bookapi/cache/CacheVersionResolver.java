@@ -0,0 +1,14 @@
+package com.jena.bookapi.cache;
+
+/**
+ * Extracts the version of a value about to be cached
+ *
+ * <p>Interview Point: Strategy interface registered per cache name, like {@link CacheTagResolver},
+ * so version-stamped writes need no knowledge of the entity behind the value
+ */
+@FunctionalInterface
+public interface CacheVersionResolver {
+
+  /** The value's version, or null if it has none. */
+  Long versionOf(Object value);
+}
@@ -0,0 +1,130 @@
+package com.jena.bookapi.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Version-conditional writes to Redis cache entries
+ *
+ * <p>Interview Points: 1. Each versioned entry has a companion key holding the highest version
+ * written or evicted, so an eviction leaves a floor behind instead of an empty slot 2. A put is one
+ * Lua script that compares against the floor and writes entry and floor together, so no other
+ * client can interleave between the check and the write 3. A reader that loaded a row just before a
+ * write committed therefore cannot put it back after the write's eviction 4. Floors expire with the
+ * cache TTL; the races they guard against last milliseconds 5. Entry and floor always share a
+ * cluster slot, so the scripts also run against a Redis Cluster
+ */
+public class CacheVersionStamps {
+
+  private static final String VERSION_KEY_PREFIX = "book-api:cache-version:";
+
+  static final byte[] PUT_SCRIPT =
+      ("local floor = tonumber(redis.call('get', KEYS[2]) or '-1') "
+              + "if tonumber(ARGV[1]) < floor then return 0 end "
+              + "if ARGV[3] == '0' then redis.call('set', KEYS[1], ARGV[2]) "
+              + "else redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) end "
+              + "redis.call('set', KEYS[2], ARGV[1], 'PX', ARGV[4]) "
+              + "return 1")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] EVICT_SCRIPT =
+      ("redis.call('unlink', KEYS[1]) "
+              + "local floor = tonumber(redis.call('get', KEYS[2]) or '-1') "
+              + "if tonumber(ARGV[1]) > floor then "
+              + "redis.call('set', KEYS[2], ARGV[1], 'PX', ARGV[2]) end "
+              + "return 1")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final StringRedisTemplate redisTemplate;
+
+  public CacheVersionStamps(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /** Write {@code entry} unless a newer version was written or evicted; true if written. */
+  public boolean putIfNotOlder(
+      RedisCache cache, Object key, CacheEntry entry, long version, Duration floorTtl) {
+    RedisCacheConfiguration config = cache.getCacheConfiguration();
+    Duration ttl = config.getTtlFunction().getTimeToLive(key, entry);
+    byte[] value = bytes(config.getValueSerializationPair().write(entry));
+    Long written =
+        redisTemplate.execute(
+            (RedisCallback<Long>)
+                connection ->
+                    connection
+                        .scriptingCommands()
+                        .eval(
+                            PUT_SCRIPT,
+                            ReturnType.INTEGER,
+                            2,
+                            entryKey(cache, key),
+                            versionKey(cache, key),
+                            utf8(Long.toString(version)),
+                            value,
+                            utf8(Long.toString(ttl == null ? 0 : Math.max(0, ttl.toMillis()))),
+                            utf8(Long.toString(floorTtl.toMillis()))));
+    return written != null && written == 1L;
+  }
+
+  /** Delete the entry and raise its floor to {@code version}. */
+  public void evictOlderThan(RedisCache cache, Object key, long version, Duration floorTtl) {
+    redisTemplate.execute(
+        (RedisCallback<Long>)
+            connection ->
+                connection
+                    .scriptingCommands()
+                    .eval(
+                        EVICT_SCRIPT,
+                        ReturnType.INTEGER,
+                        2,
+                        entryKey(cache, key),
+                        versionKey(cache, key),
+                        utf8(Long.toString(version)),
+                        utf8(Long.toString(floorTtl.toMillis()))));
+  }
+
+  /** The key RedisCache itself would use, e.g. "book-api:book:bin3::42". */
+  static byte[] entryKey(RedisCache cache, Object key) {
+    RedisCacheConfiguration config = cache.getCacheConfiguration();
+    return bytes(
+        config
+            .getKeySerializationPair()
+            .write(config.getKeyPrefixFor(cache.getName()) + TwoLevelCache.localKey(key)));
+  }
+
+  /**
+   * The floor key, e.g. "book-api:cache-version:{book-api:book:bin3::42}" Interview Point: the hash
+   * tag makes Redis Cluster place it in the entry's slot, which a script touching both requires
+   */
+  static byte[] versionKey(RedisCache cache, Object key) {
+    String entryKey =
+        cache.getCacheConfiguration().getKeyPrefixFor(cache.getName())
+            + TwoLevelCache.localKey(key);
+    return utf8(VERSION_KEY_PREFIX + "{" + hashTag(entryKey) + "}");
+  }
+
+  /**
+   * The part of {@code key} Redis Cluster hashes: a non-empty {...} section, else the whole key.
+   */
+  static String hashTag(String key) {
+    int open = key.indexOf('{');
+    int close = open >= 0 ? key.indexOf('}', open + 1) : -1;
+    return close > open + 1 ? key.substring(open + 1, close) : key;
+  }
+
+  static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] bytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,27 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.util.List;
+import org.springframework.data.domain.Page;
+
+/**
+ * Normalized listing page: ordered book ids plus the total, without book bodies
+ *
+ * <p>Interview Points: 1. Storing ids instead of full objects means each book is cached once, in
+ * the {@code book} cache, however many pages it appears on 2. An edit refreshes one book entry and
+ * every page that lists it sees the change 3. Pages shrink from kilobytes to a few bytes per book
+ *
+ * @param ids book ids in listing order
+ * @param totalElements total number of books matching the listing's filter
+ */
+public record CachedPage(List<Long> ids, long totalElements) {
+
+  public CachedPage {
+    ids = List.copyOf(ids);
+  }
+
+  public static CachedPage of(Page<BookResponse> page) {
+    return new CachedPage(
+        page.getContent().stream().map(BookResponse::id).toList(), page.getTotalElements());
+  }
+}
@@ -0,0 +1,64 @@
+package com.jena.bookapi.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch of recent read frequencies per book id
+ *
+ * <p>Interview Points: 1. Memory is fixed at four rows of counters, however many distinct ids are
+ * read 2. Each row hashes the id to a different counter, and the estimate is the smallest of the
+ * four, so a collision only inflates a count when it hits every row 3. Estimates never undercount,
+ * so a genuinely hot id is always detected; a cold one is very rarely promoted by collisions 4.
+ * {@link #decay()} halves every counter, so estimates follow recent traffic and a cooled id fades
+ * out 5. Increments are lock-free; a decay racing an increment may lose that one count, which an
+ * estimate can afford
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+  };
+
+  private final AtomicIntegerArray counters;
+  private final int width;
+
+  /** {@code width} counters per row, rounded up to a power of two. */
+  FrequencySketch(int width) {
+    this.width = Integer.highestOneBit(Math.max(16, width) * 2 - 1);
+    this.counters = new AtomicIntegerArray(SEEDS.length * this.width);
+  }
+
+  /** Count one read of {@code id} and return its estimated frequency, including this read. */
+  int increment(long id) {
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      estimate = Math.min(estimate, counters.incrementAndGet(index(id, row)));
+    }
+    return estimate;
+  }
+
+  /** Estimated recent reads of {@code id}. */
+  int estimate(long id) {
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      estimate = Math.min(estimate, counters.get(index(id, row)));
+    }
+    return estimate;
+  }
+
+  /** Halve every counter. */
+  void decay() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.set(i, counters.get(i) >>> 1);
+    }
+  }
+
+  private int index(long id, int row) {
+    // SplitMix64 finalizer, so neighbouring ids land on unrelated counters
+    long hash = id + SEEDS[row];
+    hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+    hash ^= hash >>> 31;
+    return row * width + (int) (hash & (width - 1));
+  }
+}
@@ -0,0 +1,182 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Detects books read far more than the rest and serves them from a per-node replica
+ *
+ * <p>Interview Points: 1. Every by-id read of a book that is not yet hot is counted in a {@link
+ * FrequencySketch}; a book whose estimate reaches the threshold becomes hot, up to a fixed number
+ * of hot books 2. The near-cache already holds hot books, but each eviction or stock change drops
+ * the copy on every node and every request thread that misses it reads the same Redis key until
+ * one of them refills it; the replica instead serves the previous copy while a single thread per
+ * node re-reads it 3. Consistency is short-lived by design: a replica is re-read once it is older
+ * than the replica TTL, so writes made on other nodes show up within that TTL, while writes made
+ * on this node evict it after commit through {@link BookCacheInvalidator} 4. Reads answered from
+ * expired entries because the database is down are never replicated, so the stale marker is not
+ * lost 5. Reads of a hot book are counted on a striped LongAdder rather than the sketch, so the
+ * hottest key causes no counter contention; a hot book with fewer than a quarter of the threshold's
+ * reads in one interval is demoted, half the rate that promoted it, so books near the threshold do
+ * not flap 6. The current hot set and each hot book's read rate are exported as metrics
+ */
+public class HotBookReplica implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(HotBookReplica.class);
+
+  private final BookCacheProperties.HotKeys settings;
+  private final FrequencySketch sketch;
+  private final long replicaTtlNanos;
+  private final ConcurrentMap<Long, HotBook> hotBooks = new ConcurrentHashMap<>();
+  private final LongAdder replicaHits = new LongAdder();
+  private volatile MultiGauge readRates;
+
+  public HotBookReplica(BookCacheProperties.HotKeys settings) {
+    this.settings = settings;
+    this.sketch = settings.isEnabled() ? new FrequencySketch(settings.getSketchWidth()) : null;
+    this.replicaTtlNanos = settings.getReplicaTtl().toNanos();
+  }
+
+  /**
+   * Return book {@code id}, from the replica if it is hot and fresh, otherwise from {@code reader}
+   * Interview Point: exceptions from the reader, such as an unknown id, propagate unchanged
+   */
+  public BookResponse get(Long id, Supplier<BookResponse> reader) {
+    if (sketch == null || id == null) {
+      return reader.get();
+    }
+    HotBook hot = hotBooks.get(id);
+    if (hot == null) {
+      if (sketch.increment(id) >= settings.getThreshold()) {
+        promote(id);
+      }
+      return reader.get();
+    }
+    hot.reads.increment();
+    Replica replica = hot.replica;
+    if (replica != null && System.nanoTime() - replica.readAt() < replicaTtlNanos) {
+      replicaHits.increment();
+      return replica.book();
+    }
+    if (!hot.refreshing.compareAndSet(false, true)) {
+      // Another thread is re-reading it; the previous copy is at most one read older
+      if (replica != null) {
+        replicaHits.increment();
+        return replica.book();
+      }
+      return reader.get();
+    }
+    try {
+      long evictions = hot.evictions;
+      StaleReads.Tracked<BookResponse> read = StaleReads.track(reader);
+      if (!read.stale() && read.value() != null) {
+        synchronized (hot) {
+          if (hot.evictions == evictions) {
+            hot.replica = new Replica(read.value(), System.nanoTime());
+          }
+        }
+      }
+      return read.value();
+    } finally {
+      hot.refreshing.set(false);
+    }
+  }
+
+  /** Drop the replica of {@code id}, once a write to it has committed. */
+  public void evict(Long id) {
+    HotBook hot = id != null ? hotBooks.get(id) : null;
+    if (hot != null) {
+      synchronized (hot) {
+        hot.evictions++;
+        hot.replica = null;
+      }
+    }
+  }
+
+  /** Ids of the books currently replicated. */
+  public Set<Long> hotKeys() {
+    return Set.copyOf(hotBooks.keySet());
+  }
+
+  /** Halve the sketch and demote hot books whose reads fell off. */
+  @Scheduled(fixedRateString = "${app.cache.hot-keys.decay-interval:5s}")
+  public void decay() {
+    if (sketch == null) {
+      return;
+    }
+    sketch.decay();
+    double seconds = settings.getDecayInterval().toMillis() / 1000.0;
+    List<MultiGauge.Row<?>> rows = new ArrayList<>();
+    hotBooks.forEach(
+        (id, hot) -> {
+          long reads = hot.reads.sumThenReset();
+          if (hot.promotedThisInterval) {
+            hot.promotedThisInterval = false; // counted for part of an interval only
+          } else if (reads * 4 < settings.getThreshold()) {
+            hotBooks.remove(id, hot);
+            logger.info("Book {} is no longer hot ({} reads in {}s)", id, reads, seconds);
+            return;
+          }
+          rows.add(MultiGauge.Row.of(Tags.of("book", String.valueOf(id)), reads / seconds));
+        });
+    MultiGauge gauge = readRates;
+    if (gauge != null) {
+      gauge.register(rows, true);
+    }
+  }
+
+  /**
+   * Export the hot set Interview Point: each hot book is its own time series, tagged by id; the
+   * hot set is capped, so the number of series is too
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("cache.hot.keys", hotBooks, ConcurrentMap::size)
+        .description("Books currently detected as hot and replicated on this node")
+        .register(registry);
+    FunctionCounter.builder("cache.hot.replica.hits", replicaHits, LongAdder::sum)
+        .description("Book reads answered by the hot-book replica")
+        .register(registry);
+    readRates =
+        MultiGauge.builder("cache.hot.key.reads")
+            .description("Reads per second of each hot book on this node, over the last interval")
+            .baseUnit("reads/s")
+            .register(registry);
+  }
+
+  private void promote(Long id) {
+    if (hotBooks.size() >= settings.getMaxHotKeys()) {
+      return;
+    }
+    if (hotBooks.putIfAbsent(id, new HotBook()) == null) {
+      logger.info("Book {} is hot, replicating it on this node", id);
+    }
+  }
+
+  private record Replica(BookResponse book, long readAt) {}
+
+  private static final class HotBook {
+    private final LongAdder reads = new LongAdder();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Replica replica;
+    private volatile long evictions;
+    private volatile boolean promotedThisInterval = true;
+  }
+}
@@ -0,0 +1,103 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Records which cache keys are read most, so a fresh instance knows what to preload
+ *
+ * <p>Interview Points: 1. Reads only bump an in-memory LongAdder; Redis is touched once per flush
+ * interval, never on the request path 2. Every node merges its counts into one shared sorted set
+ * per cache, so a new node inherits the cluster's view of what is hot 3. Memory is bounded: each
+ * flush interval counts at most a fixed number of distinct keys, and the shared ranking is trimmed
+ * to the top entries 4. Only first listing pages are recorded, since those are what warm-up loads
+ */
+public class HotKeyTracker {
+
+  private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+  private static final String RANKING_KEY_PREFIX = "book-api:hot-keys:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final BookCacheProperties.WarmUp settings;
+  private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> counts =
+      new ConcurrentHashMap<>();
+
+  public HotKeyTracker(StringRedisTemplate redisTemplate, BookCacheProperties.WarmUp settings) {
+    this.redisTemplate = redisTemplate;
+    this.settings = settings;
+  }
+
+  /** Count one read of {@code key} in {@code cacheName}. */
+  public void record(String cacheName, Object key) {
+    if (key instanceof PageCacheKey page && page.page() > 0) {
+      return;
+    }
+    ConcurrentMap<String, LongAdder> cacheCounts =
+        counts.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+    String member = TwoLevelCache.localKey(key);
+    LongAdder counter = cacheCounts.get(member);
+    if (counter == null) {
+      if (cacheCounts.size() >= settings.getMaxTrackedKeys()) {
+        return;
+      }
+      counter = cacheCounts.computeIfAbsent(member, k -> new LongAdder());
+    }
+    counter.increment();
+  }
+
+  /** Merge the counts gathered since the last flush into the shared rankings. */
+  @Scheduled(fixedDelayString = "${app.cache.warm-up.flush-interval:1m}")
+  public void flush() {
+    for (String cacheName : counts.keySet()) {
+      Map<String, LongAdder> snapshot = counts.remove(cacheName);
+      if (snapshot == null || snapshot.isEmpty()) {
+        continue;
+      }
+      String rankingKey = RANKING_KEY_PREFIX + cacheName;
+      try {
+        redisTemplate.executePipelined(
+            new SessionCallback<Object>() {
+              @Override
+              @SuppressWarnings("unchecked")
+              public Object execute(RedisOperations operations) throws DataAccessException {
+                snapshot.forEach(
+                    (member, count) ->
+                        operations.opsForZSet().incrementScore(rankingKey, member, count.sum()));
+                // Keep the top entries only: ranks are ascending, so drop everything below them
+                operations
+                    .opsForZSet()
+                    .removeRange(rankingKey, 0, -(settings.getRetainedKeys() + 1L));
+                operations.expire(rankingKey, settings.getRetention());
+                return null;
+              }
+            });
+      } catch (RuntimeException ex) {
+        // Losing one interval of counts only makes the next warm-up slightly less accurate
+        logger.warn("Failed to flush hot keys for {}: {}", cacheName, ex.getMessage());
+      }
+    }
+  }
+
+  /** The {@code limit} most read keys of {@code cacheName}, hottest first. */
+  public List<String> topKeys(String cacheName, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    Set<String> keys =
+        redisTemplate.opsForZSet().reverseRange(RANKING_KEY_PREFIX + cacheName, 0, limit - 1L);
+    return keys == null ? List.of() : List.copyOf(keys);
+  }
+}
@@ -0,0 +1,369 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.repository.BookRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Cluster-wide Bloom filter of ISBNs known to the database
+ *
+ * <p>Interview Points: 1. A Bloom filter never answers "absent" for an ISBN it was given, so
+ * "definitely not present" needs no database query; "possibly present" falls back to the unique
+ * index 2. Each generation's bits live in one Redis bitmap shared by every node, and each check is
+ * a single BITFIELD round trip however many ISBNs it covers 3. Bit 0 marks the filter as fully
+ * built and is read in the same BITFIELD, so a missing or half-built filter is never trusted 4.
+ * Deleted books keep their bits until the next generation; that only adds false positives, which
+ * the database then answers 5. The filter is an optimization: if Redis fails, every ISBN is treated
+ * as possibly present 6. The filter is rebuilt from the database every rebuild interval, into a
+ * fresh key per generation, so an ISBN written outside the API without reaching the filter is
+ * picked up within two intervals; each write sets its bits in the current and the next generation,
+ * and the next one is scanned in the second half of the current one, after every write that skipped
+ * it has committed 7. An ISBN whose bits could not be written, while the filter could not be marked
+ * unbuilt either, is treated as possibly present by this node until it is recorded
+ */
+public class IsbnBloomFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(IsbnBloomFilter.class);
+
+  private static final String KEY_PREFIX = "book-api:isbn-bloom:";
+
+  private static final BitFieldType BIT = BitFieldType.unsigned(1);
+
+  /** Bounds the size of a single BITFIELD command on large batches. */
+  private static final int MAX_ISBNS_PER_COMMAND = 500;
+
+  private static final long READY_BIT = 0;
+
+  private final StringRedisTemplate redisTemplate;
+  private final BookRepository bookRepository;
+  private final BookCacheProperties.IsbnFilter settings;
+  private final long bitCount;
+  private final int hashCount;
+  private final String keyPrefix;
+  private final long generationMillis;
+  private final Set<String> unrecorded = ConcurrentHashMap.newKeySet();
+
+  public IsbnBloomFilter(
+      StringRedisTemplate redisTemplate,
+      BookRepository bookRepository,
+      BookCacheProperties.IsbnFilter settings) {
+    this.redisTemplate = redisTemplate;
+    this.bookRepository = bookRepository;
+    this.settings = settings;
+    this.bitCount = optimalBitCount(settings.getExpectedIsbns(), settings.getFalsePositiveRate());
+    this.hashCount = optimalHashCount(settings.getExpectedIsbns(), bitCount);
+    this.keyPrefix = KEY_PREFIX + bitCount + ":" + hashCount + ":";
+    this.generationMillis = Math.max(1, settings.getRebuildInterval().toMillis());
+  }
+
+  /** False only if {@code isbn} is certainly not in the database. */
+  public boolean mightContain(String isbn) {
+    return isbn == null || !mightContainAll(List.of(isbn)).isEmpty();
+  }
+
+  /**
+   * The subset of {@code isbns} that may be in the database Interview Point: every ISBN not
+   * returned is certainly absent, so callers only query the database for what is returned
+   */
+  public Set<String> mightContainAll(Collection<String> isbns) {
+    Set<String> candidates = new HashSet<>(isbns);
+    if (!settings.isEnabled() || candidates.isEmpty()) {
+      return candidates;
+    }
+    Set<String> possible = new HashSet<>();
+    List<String> distinct = new ArrayList<>();
+    for (String isbn : candidates) {
+      if (unrecorded.contains(isbn)) {
+        possible.add(isbn); // its bits may be missing, so only the database can answer
+      } else {
+        distinct.add(isbn);
+      }
+    }
+    String bitsKey = bitsKey(currentGeneration());
+    try {
+      for (int from = 0; from < distinct.size(); from += MAX_ISBNS_PER_COMMAND) {
+        List<String> chunk =
+            distinct.subList(from, Math.min(from + MAX_ISBNS_PER_COMMAND, distinct.size()));
+        BitFieldSubCommands commands = BitFieldSubCommands.create().get(BIT).valueAt(READY_BIT);
+        for (String isbn : chunk) {
+          for (long position : positions(isbn)) {
+            commands = commands.get(BIT).valueAt(position);
+          }
+        }
+        List<Long> bits = redisTemplate.opsForValue().bitField(bitsKey, commands);
+        if (bits == null || bits.isEmpty() || bits.get(0) != 1L) {
+          return candidates; // not built yet
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+          if (allSet(bits, 1 + i * hashCount)) {
+            possible.add(chunk.get(i));
+          }
+        }
+      }
+      return possible;
+    } catch (RuntimeException ex) {
+      logger.debug("ISBN filter unavailable, checking the database: {}", ex.getMessage());
+      return candidates;
+    }
+  }
+
+  /**
+   * Record an ISBN that was just written to the database Interview Point: it goes into the next
+   * generation too, which may already be building and must not miss it
+   */
+  public void add(String isbn) {
+    if (!settings.isEnabled() || isbn == null) {
+      return;
+    }
+    long generation = currentGeneration();
+    try {
+      record(generation, List.of(isbn));
+      record(generation + 1, List.of(isbn));
+    } catch (RuntimeException ex) {
+      // A lost bit would turn into a wrong "absent" answer, so stop trusting the filter until
+      // the next check rebuilds it
+      logger.warn("Failed to add ISBN to filter, marking it for rebuild: {}", ex.getMessage());
+      try {
+        clearReadyBit(generation);
+        clearReadyBit(generation + 1);
+      } catch (RuntimeException unreachable) {
+        // Other nodes may still trust a filter without it; this node at least checks the
+        // database for it until the next check records it
+        unrecorded.add(isbn);
+      }
+    }
+  }
+
+  /**
+   * Stop trusting the filter until it is rebuilt Interview Point: for when ISBNs may have been
+   * written without being added, such as a missed change feed
+   */
+  public void markForRebuild() {
+    if (!settings.isEnabled()) {
+      return;
+    }
+    long generation = currentGeneration();
+    try {
+      clearReadyBit(generation);
+      clearReadyBit(generation + 1);
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to mark ISBN filter for rebuild: {}", ex.getMessage());
+    }
+  }
+
+  /**
+   * Build the current generation if no node has, and the next one in the second half of the
+   * current one Interview Point: runs at startup and periodically, so a Redis restart or flush is
+   * repaired without a deploy; a lease keeps nodes from rebuilding together
+   */
+  @Scheduled(fixedDelayString = "${app.cache.isbn-filter.check-interval:5m}")
+  public void ensureBuilt() {
+    if (!settings.isEnabled()) {
+      return;
+    }
+    recordUnrecorded();
+    long now = System.currentTimeMillis();
+    long generation = now / generationMillis;
+    ensureBuilt(generation);
+    // Writes that started in the previous generation skipped the next one; by the second half of
+    // this one they have committed, so the scan sees them
+    if (now % generationMillis >= generationMillis / 2) {
+      ensureBuilt(generation + 1);
+    }
+  }
+
+  private void ensureBuilt(long generation) {
+    String bitsKey = bitsKey(generation);
+    String leaseKey = bitsKey + ":rebuild";
+    String token = UUID.randomUUID().toString();
+    try {
+      if (Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(bitsKey, READY_BIT))
+          || !Boolean.TRUE.equals(
+              redisTemplate
+                  .opsForValue()
+                  .setIfAbsent(leaseKey, token, settings.getRebuildLeaseTtl()))) {
+        return; // built, or being built by another node
+      }
+    } catch (RuntimeException ex) {
+      logger.debug("ISBN filter check skipped, Redis unavailable: {}", ex.getMessage());
+      return;
+    }
+    try {
+      long added = rebuild(bitsKey);
+      redisTemplate.opsForValue().setBit(bitsKey, READY_BIT, true);
+      expire(generation);
+      logger.info(
+          "Built ISBN filter generation {} with {} ISBNs ({} bits, {} hashes)",
+          generation,
+          added,
+          bitCount,
+          hashCount);
+    } catch (RuntimeException ex) {
+      logger.warn("Failed to build ISBN filter, retrying later: {}", ex.getMessage());
+    } finally {
+      try {
+        if (token.equals(redisTemplate.opsForValue().get(leaseKey))) {
+          redisTemplate.delete(leaseKey);
+        }
+      } catch (RuntimeException ex) {
+        // The lease expires on its own
+      }
+    }
+  }
+
+  /** Retry ISBNs whose bits could not be written, now that Redis may be back. */
+  private void recordUnrecorded() {
+    long generation = currentGeneration();
+    for (String isbn : unrecorded) {
+      try {
+        record(generation, List.of(isbn));
+        record(generation + 1, List.of(isbn));
+        unrecorded.remove(isbn);
+      } catch (RuntimeException ex) {
+        return; // still unavailable, try again on the next check
+      }
+    }
+  }
+
+  /**
+   * Set the bits of every ISBN in the database Interview Point: bits are only ever set, so books
+   * created while the rebuild runs, which add their own bits, are never lost
+   */
+  private long rebuild(String bitsKey) {
+    long afterId = 0;
+    long added = 0;
+    PageRequest batch = PageRequest.of(0, settings.getRebuildBatchSize());
+    while (true) {
+      List<BookRepository.IsbnEntry> entries = bookRepository.findIsbnsAfter(afterId, batch);
+      if (entries.isEmpty()) {
+        return added;
+      }
+      for (int from = 0; from < entries.size(); from += MAX_ISBNS_PER_COMMAND) {
+        setBits(
+            bitsKey,
+            entries.subList(from, Math.min(from + MAX_ISBNS_PER_COMMAND, entries.size())).stream()
+                .map(BookRepository.IsbnEntry::getIsbn)
+                .toList());
+      }
+      added += entries.size();
+      afterId = entries.get(entries.size() - 1).getId();
+    }
+  }
+
+  /**
+   * Set the bits of {@code isbns} in a generation outside its rebuild Interview Point: the write
+   * may create the key, so it sets the expiry too, or a generation no node ever builds would keep
+   * its key forever
+   */
+  private void record(long generation, List<String> isbns) {
+    setBits(bitsKey(generation), isbns);
+    expire(generation);
+  }
+
+  private void clearReadyBit(long generation) {
+    redisTemplate.opsForValue().setBit(bitsKey(generation), READY_BIT, false);
+    expire(generation);
+  }
+
+  /** Read until the end of its generation; kept one more so late readers never see it vanish. */
+  private void expire(long generation) {
+    redisTemplate.expireAt(
+        bitsKey(generation), Instant.ofEpochMilli((generation + 2) * generationMillis));
+  }
+
+  private void setBits(String bitsKey, List<String> isbns) {
+    BitFieldSubCommands commands = BitFieldSubCommands.create();
+    for (String isbn : isbns) {
+      for (long position : positions(isbn)) {
+        commands = commands.set(BIT).valueAt(position).to(1);
+      }
+    }
+    redisTemplate.opsForValue().bitField(bitsKey, commands);
+  }
+
+  private long currentGeneration() {
+    return System.currentTimeMillis() / generationMillis;
+  }
+
+  /** Sizing is part of the key, so resizing starts a fresh filter instead of misreading the old. */
+  private String bitsKey(long generation) {
+    return keyPrefix + generation;
+  }
+
+  private boolean allSet(List<Long> bits, int from) {
+    for (int i = from; i < from + hashCount; i++) {
+      if (bits.get(i) != 1L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Bit offsets of {@code isbn} Interview Point: double hashing derives all k positions from two
+   * 64-bit hashes instead of running k hash functions; offset 0 is reserved for the ready flag
+   */
+  long[] positions(String isbn) {
+    long h1 = mix(fnv1a(isbn.getBytes(StandardCharsets.UTF_8)));
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    long[] positions = new long[hashCount];
+    for (int i = 0; i < hashCount; i++) {
+      positions[i] = 1 + Math.floorMod(h1 + i * h2, bitCount);
+    }
+    return positions;
+  }
+
+  long bitCount() {
+    return bitCount;
+  }
+
+  int hashCount() {
+    return hashCount;
+  }
+
+  /** m = -n ln(p) / (ln 2)^2 */
+  static long optimalBitCount(long expectedInsertions, double falsePositiveRate) {
+    return Math.max(
+        64,
+        (long)
+            Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+  }
+
+  /** k = (m / n) ln 2 */
+  static int optimalHashCount(long expectedInsertions, long bitCount) {
+    return Math.max(
+        1, (int) Math.round((double) bitCount / Math.max(1, expectedInsertions) * Math.log(2)));
+  }
+
+  private static long fnv1a(byte[] bytes) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : bytes) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  /** SplitMix64 finalizer, spreading FNV's weak low bits across the whole word. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
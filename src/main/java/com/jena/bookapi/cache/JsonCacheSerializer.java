@@ -0,0 +1,44 @@
+package com.jena.bookapi.cache;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Human-readable JSON cache format with embedded type information
+ *
+ * <p>Interview Points: 1. Larger and slower than the binary format, but inspectable with redis-cli,
+ * which makes it useful when debugging cache contents 2. The JavaTimeModule is required for the
+ * LocalDateTime audit fields of BookResponse 3. Values that cannot be read back (e.g. types without
+ * a Jackson creator) are treated as a cache miss rather than failing the request
+ */
+public class JsonCacheSerializer implements VersionedCacheSerializer {
+
+  private static final Logger logger = LoggerFactory.getLogger(JsonCacheSerializer.class);
+
+  private final GenericJackson2JsonRedisSerializer delegate =
+      new GenericJackson2JsonRedisSerializer()
+          .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+
+  @Override
+  public String formatId() {
+    return "json3"; // bumped alongside the binary format; v3 stores CacheEntry envelopes
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    return delegate.serialize(value);
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    try {
+      return delegate.deserialize(bytes);
+    } catch (SerializationException ex) {
+      logger.debug("Unreadable JSON cache value treated as a miss: {}", ex.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.jena.bookapi.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Negative cache of book ids and ISBNs known not to exist
+ *
+ * <p>Interview Points: 1. Probes for ids or ISBNs that do not exist would otherwise reach the
+ * database every time, since a missing book is never cached 2. Entries live in their own short-TTL
+ * cache, so a wrong "missing" answer can only last briefly 3. Creating a book, or moving a book to
+ * a new ISBN, evicts the matching entries on every node 4. Bounded by the near-cache weight limit
+ * and by the Redis TTL 5. Marking a miss is never broadcast, so probes of unknown ids cost no
+ * cluster-wide traffic
+ */
+@Component
+public class MissingBookCache {
+
+  public static final String CACHE_NAME = "missingBooks";
+
+  private final CacheManager cacheManager;
+
+  public MissingBookCache(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  public boolean isMissingId(Long id) {
+    return isMissing(idKey(id));
+  }
+
+  public void markMissingId(Long id) {
+    markMissing(idKey(id));
+  }
+
+  public boolean isMissingIsbn(String isbn) {
+    return isMissing(isbnKey(isbn));
+  }
+
+  public void markMissingIsbn(String isbn) {
+    markMissing(isbnKey(isbn));
+  }
+
+  /** Forget negative entries for a book that now exists. */
+  public void bookExists(Long id, String isbn) {
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      return;
+    }
+    if (id != null) {
+      cache.evict(idKey(id));
+    }
+    if (isbn != null) {
+      cache.evict(isbnKey(isbn));
+    }
+  }
+
+  private boolean isMissing(String key) {
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    return cache != null && cache.get(key) != null;
+  }
+
+  /**
+   * Remember a miss Interview Point: putIfAbsent writes without broadcasting an invalidation or
+   * counting as an update; a negative entry never replaces a cached value, so no other node holds
+   * one to drop
+   */
+  private void markMissing(String key) {
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache != null) {
+      cache.putIfAbsent(key, Boolean.TRUE);
+    }
+  }
+
+  private static String idKey(Long id) {
+    return "id:" + id;
+  }
+
+  /** Exact match, like the ISBN column lookup, so a cached miss never hides an existing book. */
+  private static String isbnKey(String isbn) {
+    return "isbn:" + isbn;
+  }
+}
@@ -0,0 +1,126 @@
+package com.jena.bookapi.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Canonical cache key for one page of a book listing
+ *
+ * <p>Interview Points: 1. Every input that changes the result is part of the key: filter, sort,
+ * page number and page size 2. The string form is canonical, so equivalent requests share an entry
+ * on every node 3. The key object is passed to the cache as-is, letting tag resolvers read the
+ * filter and sort without parsing strings 4. Search terms are normalized first, so " Tolkien " and
+ * "tolkien" share one entry
+ *
+ * @param category category filter, or {@code null} for the unfiltered listing
+ * @param query normalized title/author search term, or {@code null} when not searching
+ * @param sort sort order applied to the query
+ * @param page zero-based page number
+ * @param size page size
+ */
+public record PageCacheKey(String category, String query, Sort sort, int page, int size) {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  public static PageCacheKey of(String category, Pageable pageable) {
+    return new PageCacheKey(
+        category, null, pageable.getSort(), pageable.getPageNumber(), pageable.getPageSize());
+  }
+
+  /** Key for a title/author search; {@link #query()} holds the normalized term to search for. */
+  public static PageCacheKey search(String term, Pageable pageable) {
+    return new PageCacheKey(
+        null,
+        normalizeQuery(term),
+        pageable.getSort(),
+        pageable.getPageNumber(),
+        pageable.getPageSize());
+  }
+
+  /**
+   * Case-fold, trim and collapse whitespace Interview Point: the search query lower-cases both
+   * sides, so case-folding never changes the result; whitespace is normalized in the term that is
+   * actually run, so the key always describes the query
+   */
+  public static String normalizeQuery(String term) {
+    return WHITESPACE.matcher(term.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Inverse of {@link #toString()}, for keys read back from Redis Interview Point: the filter is
+   * split off at the last separator, so a category containing '|' still round-trips
+   *
+   * @throws IllegalArgumentException if {@code value} is not a page key
+   */
+  public static PageCacheKey parse(String value) {
+    try {
+      int sizeAt = value.lastIndexOf("|size=");
+      int pageAt = value.lastIndexOf("|page=", sizeAt);
+      int sortAt = value.lastIndexOf("|sort=", pageAt);
+      String filter = value.substring(0, sortAt);
+      String category = null;
+      String query = null;
+      if (filter.startsWith("category=")) {
+        category = filter.substring("category=".length());
+      } else if (filter.startsWith("search=")) {
+        query = filter.substring("search=".length());
+      } else if (!filter.equals("all")) {
+        throw new IllegalArgumentException("Unknown filter: " + filter);
+      }
+      String orders = value.substring(sortAt + "|sort=".length(), pageAt);
+      Sort sort = Sort.unsorted();
+      if (!orders.equals("unsorted")) {
+        List<Sort.Order> parsed = new ArrayList<>();
+        for (String order : orders.split(",")) {
+          String[] parts = order.split(":");
+          Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]);
+          parsed.add(parts.length > 2 ? sortOrder.ignoreCase() : sortOrder);
+        }
+        sort = Sort.by(parsed);
+      }
+      return new PageCacheKey(
+          category,
+          query,
+          sort,
+          Integer.parseInt(value.substring(pageAt + "|page=".length(), sizeAt)),
+          Integer.parseInt(value.substring(sizeAt + "|size=".length())));
+    } catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Not a page cache key: " + value, ex);
+    }
+  }
+
+  /** Page request equivalent to this key. */
+  public Pageable toPageable() {
+    return PageRequest.of(page, size, sort);
+  }
+
+  /** Entity properties the listing is ordered by. */
+  public List<String> sortProperties() {
+    return sort.stream().map(Sort.Order::getProperty).toList();
+  }
+
+  /** e.g. {@code category=Fiction|sort=title:ASC,price:DESC|page=0|size=20} */
+  @Override
+  public String toString() {
+    String filter =
+        category != null ? "category=" + category : query != null ? "search=" + query : "all";
+    String orders =
+        sort.isSorted()
+            ? sort.stream()
+                .map(
+                    order ->
+                        order.getProperty()
+                            + ":"
+                            + order.getDirection()
+                            + (order.isIgnoreCase() ? ":ic" : ""))
+                .collect(Collectors.joining(","))
+            : "unsorted";
+    return filter + "|sort=" + orders + "|page=" + page + "|size=" + size;
+  }
+}
@@ -0,0 +1,170 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Loads the next page of a listing into the cache while the client is still reading the current one
+ *
+ * <p>Interview Points: 1. Clients walk listings in order, so once page N is served, page N+1 of
+ * the same filter, sort and size is loaded on the async executor and the client's next request is
+ * a cache hit 2. Opt-in, and only ever background work: a prefetch that cannot start at once is
+ * skipped, never queued 3. Prefetches are skipped when the token bucket is empty, when the
+ * configured number are already running, when the executor already has work queued, and when
+ * requests are waiting for a database connection, so they only use capacity foreground traffic
+ * leaves idle 4. A next page already in this node's near-cache, or already being prefetched, is
+ * left alone 5. Prefetched pages are loaded without going through the request path again, so they
+ * prefetch nothing further and never appear in access traces
+ */
+public class PagePrefetcher implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(PagePrefetcher.class);
+
+  private final CacheManager cacheManager;
+  private final Executor executor;
+  private final HikariDataSource pool;
+  private final BookCacheProperties.Prefetch settings;
+  private final Semaphore running;
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+  private final LongAdder loaded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private final double tokensPerNano;
+  private final double burst;
+  private double tokens;
+  private long refilledAt = System.nanoTime();
+
+  /** {@code dataSource} may be null; a Hikari pool is watched for waiting requests. */
+  public PagePrefetcher(
+      CacheManager cacheManager,
+      Executor executor,
+      DataSource dataSource,
+      BookCacheProperties.Prefetch settings) {
+    this.cacheManager = cacheManager;
+    this.executor = executor;
+    this.pool = hikariPool(dataSource);
+    this.settings = settings;
+    this.running = new Semaphore(Math.max(1, settings.getMaxConcurrent()));
+    this.tokensPerNano = settings.getMaxPerSecond() / 1e9;
+    this.burst = Math.max(1, settings.getMaxPerSecond());
+    this.tokens = burst;
+  }
+
+  /**
+   * Note that {@code page} was served for {@code key} from {@code cacheName}, and prefetch the page
+   * after it with {@code loadPage} if there is idle capacity for it
+   */
+  public void pageServed(
+      String cacheName, PageCacheKey key, Page<?> page, Consumer<Pageable> loadPage) {
+    if (!settings.isEnabled() || !page.hasNext()) {
+      return;
+    }
+    Pageable next = page.nextPageable();
+    PageCacheKey nextKey = PageCacheKey.of(key.category(), next);
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache instanceof TwoLevelCache twoLevelCache && twoLevelCache.peekLocal(nextKey) != null) {
+      return;
+    }
+    String id = cacheName + "::" + nextKey;
+    if (!inFlight.add(id)) {
+      return;
+    }
+    if (!hasIdleCapacity() || !running.tryAcquire()) {
+      inFlight.remove(id);
+      skipped.increment();
+      return;
+    }
+    try {
+      executor.execute(() -> prefetch(id, next, loadPage));
+    } catch (RuntimeException ex) {
+      // Rejected: the executor is saturated, which is exactly when not to prefetch
+      running.release();
+      inFlight.remove(id);
+      skipped.increment();
+    }
+  }
+
+  /**
+   * Export prefetch outcomes Interview Point: a high skipped count means prefetching is throttled
+   * by foreground load or by its own limits, not that it is broken
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindCounter(registry, "loaded", loaded);
+    bindCounter(registry, "failed", failed);
+    bindCounter(registry, "skipped", skipped);
+  }
+
+  private void prefetch(String id, Pageable next, Consumer<Pageable> loadPage) {
+    try {
+      loadPage.accept(next);
+      loaded.increment();
+    } catch (RuntimeException ex) {
+      failed.increment();
+      logger.debug("Prefetch of {} failed: {}", id, ex.getMessage());
+    } finally {
+      running.release();
+      inFlight.remove(id);
+    }
+  }
+
+  private boolean hasIdleCapacity() {
+    if (executor instanceof ThreadPoolTaskExecutor pooled && pooled.getQueueSize() > 0) {
+      return false; // foreground async work, such as refresh-ahead, is already waiting
+    }
+    // The pool MXBean only exists once the pool has started
+    HikariPoolMXBean poolStats = pool != null ? pool.getHikariPoolMXBean() : null;
+    if (poolStats != null && poolStats.getThreadsAwaitingConnection() > 0) {
+      return false;
+    }
+    return takeToken();
+  }
+
+  private synchronized boolean takeToken() {
+    long now = System.nanoTime();
+    tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+    refilledAt = now;
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  private void bindCounter(MeterRegistry registry, String result, LongAdder count) {
+    FunctionCounter.builder("cache.prefetch.pages", count, LongAdder::sum)
+        .tag("result", result)
+        .description("Next listing pages prefetched, or skipped for lack of idle capacity")
+        .register(registry);
+  }
+
+  private static HikariDataSource hikariPool(DataSource dataSource) {
+    try {
+      if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+        return dataSource.unwrap(HikariDataSource.class);
+      }
+    } catch (SQLException ex) {
+      logger.debug("Connection pool not watched by the prefetcher: {}", ex.getMessage());
+    }
+    return null;
+  }
+}
@@ -0,0 +1,41 @@
+package com.jena.bookapi.cache;
+
+import java.util.function.Consumer;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+/**
+ * SCAN that works against a standalone Redis and a Redis Cluster alike
+ *
+ * <p>Interview Points: 1. A cluster has no keyspace-wide SCAN; each master holds its own slots and
+ * is scanned on its own 2. Replicas are skipped, since they only hold copies of master keys
+ */
+public final class RedisKeyScanner {
+
+  private RedisKeyScanner() {}
+
+  /** Hand every key matching {@code options} to {@code action}. */
+  public static void forEachKey(
+      RedisConnection connection, ScanOptions options, Consumer<byte[]> action) {
+    if (connection instanceof RedisClusterConnection cluster) {
+      for (RedisClusterNode node : cluster.clusterGetNodes()) {
+        if (node.isMaster() && node.isConnected()) {
+          drain(cluster.scan(node, options), action);
+        }
+      }
+      return;
+    }
+    drain(connection.keyCommands().scan(options), action);
+  }
+
+  private static void drain(Cursor<byte[]> cursor, Consumer<byte[]> action) {
+    try (cursor) {
+      while (cursor.hasNext()) {
+        action.accept(cursor.next());
+      }
+    }
+  }
+}
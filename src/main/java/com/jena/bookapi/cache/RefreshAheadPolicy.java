@@ -0,0 +1,144 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Decides when cache entries expire and when they should be recomputed ahead of expiry
+ *
+ * <p>Interview Points: 1. TTL jitter spreads the expiry of entries written together, so they do not
+ * all miss in the same second 2. XFetch (probabilistic early expiration): a reader refreshes early
+ * with probability rising as expiry nears, scaled by how expensive the value is to compute 3. Redis
+ * keeps each entry for a short stale window past its logical expiry; readers in that window are
+ * served the current value while one background refresh runs 4. Refreshes run on the shared async
+ * executor, and a full queue simply skips the refresh 5. Past the stale window an entry is a miss,
+ * but Redis keeps it for a further grace period so it can still be served if reloading it fails 6.
+ * With an {@link AdaptiveTtlPolicy} attached, each entry's TTL comes from it rather than from the
+ * configured TTL of its cache
+ */
+public class RefreshAheadPolicy {
+
+  private static final Logger logger = LoggerFactory.getLogger(RefreshAheadPolicy.class);
+
+  private final Map<String, Duration> ttls;
+  private final Duration defaultTtl;
+  private final BookCacheProperties.RefreshAhead settings;
+  private final BookCacheProperties.StaleIfError staleIfError;
+  private final Executor executor;
+  private volatile AdaptiveTtlPolicy adaptiveTtl;
+
+  public RefreshAheadPolicy(
+      Map<String, Duration> ttls,
+      Duration defaultTtl,
+      BookCacheProperties.RefreshAhead settings,
+      BookCacheProperties.StaleIfError staleIfError,
+      Executor executor) {
+    this.ttls = Map.copyOf(ttls);
+    this.defaultTtl = defaultTtl;
+    this.settings = settings;
+    this.staleIfError = staleIfError;
+    this.executor = executor;
+  }
+
+  /** Take entry TTLs from {@code adaptiveTtl} from now on. */
+  public void setAdaptiveTtl(AdaptiveTtlPolicy adaptiveTtl) {
+    this.adaptiveTtl = adaptiveTtl;
+  }
+
+  AdaptiveTtlPolicy adaptiveTtl() {
+    return adaptiveTtl;
+  }
+
+  /** Wrap a freshly computed value with a jittered logical expiry. */
+  public CacheEntry wrap(String cacheName, Object key, Object value, long loadMillis) {
+    long ttl = entryTtl(cacheName, key, value).toMillis();
+    long jitter = (long) (ttl * settings.getJitter() * ThreadLocalRandom.current().nextDouble());
+    return new CacheEntry(
+        value,
+        System.currentTimeMillis() + ttl - jitter,
+        (int) Math.min(loadMillis, Integer.MAX_VALUE));
+  }
+
+  /**
+   * XFetch: refresh when {@code now - loadMillis * beta * ln(rand) >= expiresAt} Interview Point:
+   * ln(rand) is negative, so the check looks a random distance into the future, longer for values
+   * that are slow to compute
+   */
+  public boolean shouldRefresh(CacheEntry entry) {
+    if (!settings.isEnabled()) {
+      return false;
+    }
+    long now = System.currentTimeMillis();
+    if (now >= entry.expiresAt()) {
+      return true; // inside the stale window
+    }
+    double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+    double lookAhead = -entry.loadMillis() * settings.getBeta() * Math.log(random);
+    return now + lookAhead >= entry.expiresAt();
+  }
+
+  /**
+   * Whether {@code entry} is past its stale window Interview Point: such an entry is a miss and is
+   * reloaded in the foreground; it is only kept, for the stale-if-error grace period, as a fallback
+   */
+  public boolean isExpired(String cacheName, CacheEntry entry) {
+    return System.currentTimeMillis() - staleWindow(cacheName).toMillis() >= entry.expiresAt();
+  }
+
+  /**
+   * Redis TTL for {@code cacheName}: the entry's remaining logical lifetime plus the window, plus
+   * the stale-if-error grace period for caches that keep expired entries
+   */
+  public RedisCacheWriter.TtlFunction redisTtl(String cacheName) {
+    Duration ttl = ttl(cacheName);
+    Duration retention = staleWindow(cacheName).plus(staleIfErrorGrace(cacheName));
+    return (key, value) -> {
+      if (value instanceof CacheEntry entry) {
+        long remaining = Math.max(entry.expiresAt() - System.currentTimeMillis(), 1_000);
+        return Duration.ofMillis(remaining).plus(retention);
+      }
+      return ttl;
+    };
+  }
+
+  /** How long entries of {@code cacheName} outlive their stale window, zero if they do not. */
+  public Duration staleIfErrorGrace(String cacheName) {
+    return staleIfError.isEnabled() && staleIfError.getCaches().contains(cacheName)
+        ? staleIfError.getGracePeriod()
+        : Duration.ZERO;
+  }
+
+  private Duration staleWindow(String cacheName) {
+    return settings.isEnabled()
+        ? Duration.ofMillis((long) (ttl(cacheName).toMillis() * settings.getStaleWindow()))
+        : Duration.ZERO;
+  }
+
+  /** Run a refresh in the background; returns false if the executor refused it. */
+  boolean submit(Runnable refresh) {
+    try {
+      executor.execute(refresh);
+      return true;
+    } catch (RuntimeException ex) {
+      logger.debug("Refresh-ahead skipped: {}", ex.getMessage());
+      return false;
+    }
+  }
+
+  /** TTL of an entry about to be written, before jitter: adapted if enabled, else configured. */
+  public Duration entryTtl(String cacheName, Object key, Object value) {
+    AdaptiveTtlPolicy adaptive = adaptiveTtl;
+    return adaptive != null ? adaptive.ttl(cacheName, key, value) : ttl(cacheName);
+  }
+
+  /** Configured TTL of {@code cacheName}, before jitter. */
+  public Duration ttl(String cacheName) {
+    return cacheName == null ? defaultTtl : ttls.getOrDefault(cacheName, defaultTtl);
+  }
+}
@@ -0,0 +1,57 @@
+package com.jena.bookapi.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.cache.BatchStrategy;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.ScanOptions;
+
+/**
+ * Clears a Redis cache without blocking the server
+ *
+ * <p>Interview Points: 1. The default strategy runs KEYS, which walks the whole keyspace in one
+ * command while every other client waits 2. SCAN returns a bounded batch per call, so other
+ * commands interleave between batches 3. UNLINK frees values on a background thread, where DEL
+ * would free them inline 4. A key written during the scan may survive the clear, which is no
+ * different from a write that lands just after it 5. In a Redis Cluster every master is scanned in
+ * turn
+ */
+public class ScanUnlinkBatchStrategy implements BatchStrategy {
+
+  private static final Logger logger = LoggerFactory.getLogger(ScanUnlinkBatchStrategy.class);
+
+  private final int batchSize;
+
+  public ScanUnlinkBatchStrategy(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public long cleanCache(RedisConnection connection, String name, byte[] pattern) {
+    ScanOptions options = ScanOptions.scanOptions().count(batchSize).match(pattern).build();
+    long[] removed = {0};
+    List<byte[]> batch = new ArrayList<>(batchSize);
+    RedisKeyScanner.forEachKey(
+        connection,
+        options,
+        key -> {
+          batch.add(key);
+          if (batch.size() == batchSize) {
+            removed[0] += unlink(connection, batch);
+          }
+        });
+    if (!batch.isEmpty()) {
+      removed[0] += unlink(connection, batch);
+    }
+    logger.debug("Cleared {} keys from cache '{}'", removed[0], name);
+    return removed[0];
+  }
+
+  private static long unlink(RedisConnection connection, List<byte[]> batch) {
+    Long unlinked = connection.keyCommands().unlink(batch.toArray(new byte[0][]));
+    batch.clear();
+    return unlinked != null ? unlinked : 0;
+  }
+}
@@ -0,0 +1,20 @@
+package com.jena.bookapi.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache that still holds entries past their expiry, for use when they cannot be recomputed
+ *
+ * <p>Interview Point: Ordinary reads treat such entries as misses; callers ask for them explicitly
+ * only after a reload has failed, like HTTP's stale-if-error
+ */
+public interface StaleIfErrorCache extends Cache {
+
+  /** The value held for {@code key}, expired or not, or null if nothing is held at all. */
+  ValueWrapper getStale(Object key);
+
+  /** Values held for {@code keys}, expired or not; keys with nothing held are left out. */
+  Map<Object, Object> getAllStale(Collection<?> keys);
+}
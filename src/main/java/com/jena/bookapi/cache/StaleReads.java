@@ -0,0 +1,75 @@
+package com.jena.bookapi.cache;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.function.Supplier;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Records whether a request was answered from expired cache entries
+ *
+ * <p>Interview Points: 1. The cache layer marks the current thread when it falls back to a stale
+ * entry, and the web layer turns the mark into a response header 2. Only failures that say the
+ * database is unreachable or overloaded trigger the fallback; a missing book is still a 404 and a
+ * bug is still a 500
+ */
+public final class StaleReads {
+
+  private static final ThreadLocal<boolean[]> current = new ThreadLocal<>();
+
+  private StaleReads() {}
+
+  /** Result of a tracked call, and whether any of it was served stale. */
+  public record Tracked<T>(T value, boolean stale) {}
+
+  /** Run {@code call}, reporting whether any cache read it made fell back to a stale entry. */
+  public static <T> Tracked<T> track(Supplier<T> call) {
+    boolean[] outer = current.get();
+    boolean[] marker = new boolean[1];
+    current.set(marker);
+    try {
+      T value = call.get();
+      return new Tracked<>(value, marker[0]);
+    } finally {
+      if (outer != null) {
+        outer[0] |= marker[0];
+        current.set(outer);
+      } else {
+        current.remove();
+      }
+    }
+  }
+
+  /** Note that the value being returned on this thread came from an expired entry. */
+  static void markStale() {
+    boolean[] marker = current.get();
+    if (marker != null) {
+      marker[0] = true;
+    }
+  }
+
+  /**
+   * Whether {@code failure} means the database could not answer in time Interview Point: pool
+   * exhaustion surfaces as a failure to open a transaction or as a transient connection error,
+   * and an overloaded database as a query or transaction timeout
+   */
+  static boolean isDatabaseUnavailable(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TransientDataAccessException
+          || cause instanceof DataAccessResourceFailureException
+          || cause instanceof CannotCreateTransactionException
+          || cause instanceof TransactionTimedOutException
+          || cause instanceof SQLTransientException
+          || cause instanceof SQLRecoverableException) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+}
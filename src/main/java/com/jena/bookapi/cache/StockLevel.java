@@ -0,0 +1,42 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.time.LocalDateTime;
+
+/**
+ * The volatile part of a cached book, stored apart from its body
+ *
+ * <p>Interview Points: 1. Stock changes far more often than anything else on a book, so it is
+ * cached as its own small entry and a stock change rewrites only this entry 2. It carries the
+ * entity version and update time, which change together with stock 3. A stock level only overrides
+ * a body of the same or an older version; a newer body is always authoritative
+ *
+ * @param stockQuantity units in stock
+ * @param version entity version this stock level was read at
+ * @param updatedAt last modification of the book
+ */
+public record StockLevel(Integer stockQuantity, Long version, LocalDateTime updatedAt) {
+
+  public static StockLevel of(BookResponse book) {
+    return new StockLevel(book.stockQuantity(), book.version(), book.updatedAt());
+  }
+
+  /** {@code body} with this stock level, unless the body is newer. */
+  public BookResponse applyTo(BookResponse body) {
+    if (version == null || (body.version() != null && version < body.version())) {
+      return body;
+    }
+    return new BookResponse(
+        body.id(),
+        body.title(),
+        body.author(),
+        body.isbn(),
+        body.price(),
+        body.category(),
+        body.description(),
+        stockQuantity,
+        version,
+        body.createdAt(),
+        updatedAt);
+  }
+}
@@ -0,0 +1,15 @@
+package com.jena.bookapi.cache;
+
+import java.util.Collection;
+import org.springframework.cache.CacheManager;
+
+/**
+ * CacheManager that can evict every entry carrying a given tag
+ *
+ * <p>Interview Point: Callers check for this capability and fall back to clearing whole caches when
+ * it is absent (e.g. the no-op manager used in tests)
+ */
+public interface TaggedCacheManager extends CacheManager {
+
+  void evictTagged(Collection<String> tags);
+}
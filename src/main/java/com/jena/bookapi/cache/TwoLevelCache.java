@@ -0,0 +1,662 @@
+package com.jena.bookapi.cache;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Near-cache in front of a distributed cache
+ *
+ * <p>Interview Points: 1. Reads check the in-process L1 first and only fall through to Redis (L2)
+ * on a local miss 2. L2 hits are copied into L1 so subsequent reads avoid the network and
+ * deserialization entirely 3. Writes go to L2 first, then L1, so L1 never holds a value Redis has
+ * not accepted 4. Evictions are broadcast so every node drops its own L1 copy 5. Misses are
+ * coalesced, so a popular key expiring costs one database query rather than one per caller 6. Both
+ * levels store {@link CacheEntry} envelopes; read-through lookups of entries near expiry are
+ * answered immediately and refreshed in the background 7. Versioned caches write to Redis only if
+ * no newer version was written or evicted, so a slow reader cannot resurrect a superseded row 8.
+ * Multi-key reads fetch every near-cache miss with one MGET, and multi-key loads are pipelined 9.
+ * Every Redis call goes through the manager's circuit breaker: while it is open, reads miss L2,
+ * loads are kept in L1 only, and evictions Redis could not take are replayed once it recovers 10.
+ * Entries past their stale window are misses at both levels, but stay readable through {@link
+ * #getStale} until Redis drops them, so callers can fall back to them when a reload fails
+ */
+public class TwoLevelCache implements VersionedCache, BulkCache, StaleIfErrorCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+  private final String name;
+  private final com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> local;
+  private final Cache remote;
+  private final TwoLevelCacheManager manager;
+  private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final CacheStatistics statistics = new CacheStatistics();
+
+  TwoLevelCache(
+      String name,
+      com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> local,
+      Cache remote,
+      TwoLevelCacheManager manager) {
+    this.name = name;
+    this.local = local;
+    this.remote = remote;
+    this.manager = manager;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return remote.getNativeCache();
+  }
+
+  /** Underlying Redis cache, holding {@link CacheEntry} envelopes rather than bare values. */
+  public Cache getRemote() {
+    return remote;
+  }
+
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+
+  /** The near-cache copy of {@code key}, without counting a read or touching Redis. */
+  public CacheEntry peekLocal(Object key) {
+    return local.getIfPresent(localKey(key));
+  }
+
+  /** The Redis copy of {@code key}, without counting a read or filling the near-cache. */
+  public CacheEntry peekRemote(Object key) {
+    return remoteEntry(key);
+  }
+
+  /** Approximate number of near-cache entries. */
+  public long localSize() {
+    return local.estimatedSize();
+  }
+
+  /** Approximate heap held by the near-cache, in bytes, as estimated by its weigher. */
+  public long localWeight() {
+    return local
+        .policy()
+        .eviction()
+        .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+        .orElse(0L);
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    CacheEntry entry = lookup(key);
+    return entry != null ? new SimpleValueWrapper(entry.value()) : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  /**
+   * Read many keys Interview Point: near-cache hits are answered locally and all remaining keys
+   * share one MGET per batch instead of one GET each
+   */
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> found = new LinkedHashMap<>();
+    List<Object> remoteKeys = new ArrayList<>();
+    for (Object key : keys) {
+      manager.recordAccess(name, key);
+      CacheEntry cached = local.getIfPresent(localKey(key));
+      if (cached != null && !isExpired(cached)) {
+        statistics.localHit();
+        manager.recordRead(name, key, cached.value());
+        found.put(key, cached.value());
+      } else {
+        remoteKeys.add(key);
+      }
+    }
+    if (remoteKeys.isEmpty()) {
+      return found;
+    }
+    List<CacheEntry> entries = remoteEntries(remoteKeys);
+    for (int i = 0; i < remoteKeys.size(); i++) {
+      CacheEntry entry = entries != null ? entries.get(i) : null;
+      if (entry != null && !isExpired(entry)) {
+        statistics.remoteHit();
+        manager.recordRead(name, remoteKeys.get(i), entry.value());
+        local.put(localKey(remoteKeys.get(i)), entry);
+        found.put(remoteKeys.get(i), entry.value());
+      } else {
+        statistics.miss();
+        manager.recordRead(name, remoteKeys.get(i), null);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Read a key regardless of expiry Interview Point: counted neither as a hit nor as a miss, since
+   * it is only asked for after a read missed and the reload failed
+   */
+  @Override
+  public ValueWrapper getStale(Object key) {
+    CacheEntry cached = local.getIfPresent(localKey(key));
+    CacheEntry entry = cached != null ? cached : remoteEntry(key);
+    return entry != null ? new SimpleValueWrapper(entry.value()) : null;
+  }
+
+  /** Read many keys regardless of expiry, with one MGET per batch for near-cache misses. */
+  @Override
+  public Map<Object, Object> getAllStale(Collection<?> keys) {
+    Map<Object, Object> found = new LinkedHashMap<>();
+    List<Object> remoteKeys = new ArrayList<>();
+    for (Object key : keys) {
+      CacheEntry cached = local.getIfPresent(localKey(key));
+      if (cached != null) {
+        found.put(key, cached.value());
+      } else {
+        remoteKeys.add(key);
+      }
+    }
+    if (remoteKeys.isEmpty()) {
+      return found;
+    }
+    List<CacheEntry> entries = remoteEntries(remoteKeys);
+    for (int i = 0; entries != null && i < remoteKeys.size(); i++) {
+      if (entries.get(i) != null) {
+        found.put(remoteKeys.get(i), entries.get(i).value());
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Store loaded values with pipelined writes Interview Point: versioned values still go through
+   * the version check, so a value refused by Redis is not kept in the near-cache either
+   */
+  @Override
+  public void putAll(Map<?, ?> values) {
+    if (!(remote instanceof RedisCache redisCache)) {
+      values.forEach((key, value) -> store(key, value, 0));
+      return;
+    }
+    List<Object> keys = new ArrayList<>();
+    List<CacheEntry> entries = new ArrayList<>();
+    List<Long> versions = new ArrayList<>();
+    values.forEach(
+        (key, value) -> {
+          if (value != null) {
+            keys.add(key);
+            entries.add(manager.refreshPolicy().wrap(name, key, value, 0));
+            versions.add(manager.versionOf(name, value));
+          }
+        });
+    boolean[] written =
+        manager
+            .circuitBreaker()
+            .call(
+                () -> {
+                  boolean[] accepted =
+                      manager
+                          .bulkOperations()
+                          .putAll(
+                              redisCache,
+                              keys,
+                              entries,
+                              versions,
+                              manager.refreshPolicy().ttl(name));
+                  for (int i = 0; i < keys.size(); i++) {
+                    if (accepted[i]) {
+                      manager.tagEntry(name, keys.get(i), entries.get(i).value());
+                    }
+                  }
+                  return accepted;
+                },
+                () -> null);
+    for (int i = 0; i < keys.size(); i++) {
+      if (written == null || written[i]) {
+        statistics.put();
+        local.put(localKey(keys.get(i)), entries.get(i));
+      }
+    }
+  }
+
+  /**
+   * Read-through with single-flight loading Interview Point: concurrent misses for a key in this
+   * JVM share one load, and across the cluster only the node holding the Redis lease runs the
+   * loader while the others poll L2 for its result; hits the refresh policy marks as due are
+   * refreshed in the background with the same loader
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    CacheEntry entry = lookup(key);
+    if (entry != null) {
+      if (manager.refreshPolicy().shouldRefresh(entry)) {
+        refreshAsync(key, entry, valueLoader);
+      }
+      return (T) entry.value();
+    }
+    String localKey = localKey(key);
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> leader = inFlight.putIfAbsent(localKey, flight);
+    if (leader != null) {
+      return (T) awaitFlight(key, localKey, leader, valueLoader);
+    }
+    try {
+      Object value = loadOnce(key, localKey, valueLoader);
+      flight.complete(value);
+      return (T) value;
+    } catch (RuntimeException | Error ex) {
+      // Errors too: an uncompleted flight would block every waiter until its timeout
+      flight.completeExceptionally(ex instanceof ValueRetrievalException ? ex.getCause() : ex);
+      throw ex;
+    } finally {
+      inFlight.remove(localKey, flight);
+    }
+  }
+
+  private Object loadOnce(Object key, String localKey, Callable<?> valueLoader) {
+    CacheLoadLeases leases = manager.leases();
+    // With Redis unavailable there is no lease to take and no other node's result to wait for
+    boolean remoteAvailable = manager.isRemoteAvailable();
+    String token = remoteAvailable ? leases.tryAcquire(name, localKey) : null;
+    if (remoteAvailable && token == null) {
+      CacheEntry loadedElsewhere = awaitRemote(key, localKey, leases);
+      if (loadedElsewhere != null) {
+        return loadedElsewhere.value();
+      }
+      // The lease holder is slow or gone; load without it rather than fail the request
+    }
+    try {
+      long started = System.nanoTime();
+      Object value;
+      try {
+        value = valueLoader.call();
+      } catch (Exception ex) {
+        throw new ValueRetrievalException(key, valueLoader, ex);
+      }
+      statistics.load(System.nanoTime() - started);
+      if (value != null) {
+        store(key, value, elapsedMillis(started));
+      }
+      return value;
+    } finally {
+      if (token != null) {
+        leases.release(name, localKey, token);
+      }
+    }
+  }
+
+  /**
+   * Poll L2 until the lease holder publishes the value, giving up once it releases the lease
+   * without one, or after one lease TTL
+   */
+  private CacheEntry awaitRemote(Object key, String localKey, CacheLoadLeases leases) {
+    BookCacheProperties.SingleFlight settings = leases.getSettings();
+    long deadline = System.nanoTime() + settings.getLeaseTtl().toNanos();
+    while (System.nanoTime() < deadline) {
+      try {
+        Thread.sleep(settings.getPollInterval().toMillis());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      CacheEntry entry = freshRemoteEntry(key);
+      if (entry != null) {
+        return entry;
+      }
+      if (!leases.isHeld(name, localKey)) {
+        // Released: the holder stored nothing, unless it did so just after the read above
+        return freshRemoteEntry(key);
+      }
+    }
+    return null;
+  }
+
+  private CacheEntry freshRemoteEntry(Object key) {
+    CacheEntry entry = remoteEntry(key);
+    if (entry == null || isExpired(entry)) {
+      return null;
+    }
+    local.put(localKey(key), entry);
+    return entry;
+  }
+
+  /**
+   * Wait for this JVM's leader to finish its load, for at most two lease TTLs: one for the leader
+   * to wait on another node's lease and one for its own load
+   */
+  private Object awaitFlight(
+      Object key, String localKey, CompletableFuture<Object> leader, Callable<?> valueLoader) {
+    long timeout = manager.leases().getSettings().getLeaseTtl().multipliedBy(2).toMillis();
+    try {
+      return leader.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+    } catch (TimeoutException ex) {
+      // The leader is stuck; load without it rather than fail the request
+      logger.debug("Load of {}::{} still running after {} ms, loading again", name, key, timeout);
+      return loadOnce(key, localKey, valueLoader);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+  }
+
+  /**
+   * Recompute {@code stale} in the background Interview Point: one refresh per key per node, one
+   * per key across the cluster via the load lease, and skipped entirely if another node already
+   * wrote a newer entry to Redis
+   */
+  private void refreshAsync(Object key, CacheEntry stale, Callable<?> valueLoader) {
+    String localKey = localKey(key);
+    if (!refreshing.add(localKey)) {
+      return;
+    }
+    Runnable refresh =
+        () -> {
+          CacheLoadLeases leases = manager.leases();
+          String token = null;
+          try {
+            CacheEntry current = remoteEntry(key);
+            if (current != null && current.expiresAt() > stale.expiresAt()) {
+              local.put(localKey, current);
+              return;
+            }
+            if (manager.isRemoteAvailable()) {
+              token = leases.tryAcquire(name, localKey);
+              if (token == null) {
+                return; // another node is refreshing
+              }
+            }
+            long started = System.nanoTime();
+            Object value = valueLoader.call();
+            statistics.load(System.nanoTime() - started);
+            if (value != null) {
+              store(key, value, elapsedMillis(started));
+            }
+          } catch (Exception ex) {
+            logger.debug("Refresh-ahead of {}::{} failed: {}", name, localKey, ex.getMessage());
+          } finally {
+            if (token != null) {
+              leases.release(name, localKey, token);
+            }
+            refreshing.remove(localKey);
+          }
+        };
+    if (!manager.refreshPolicy().submit(refresh)) {
+      refreshing.remove(localKey);
+    }
+  }
+
+  /**
+   * Replace the entry on every node Interview Point: unlike a load, an explicit put may overwrite a
+   * value other nodes hold in L1, so they are told to drop it and re-read Redis
+   */
+  @Override
+  public void put(Object key, Object value) {
+    manager.recordUpdate(name, key, value != null ? value : localValue(key));
+    boolean reachedRemote;
+    if (value == null) {
+      reachedRemote = manager.circuitBreaker().run(() -> remote.put(key, null));
+      evictLocal(key);
+    } else {
+      reachedRemote = store(key, value, 0) != null;
+    }
+    if (!reachedRemote) {
+      manager.deferEviction(name, key);
+    }
+    manager.publishInvalidation(name, localKey(key));
+  }
+
+  /**
+   * Evict and raise the key's version floor Interview Point: called after a write commits, with the
+   * committed version, so any put of an older row still in flight is refused
+   */
+  @Override
+  public void evictOlderThan(Object key, long version) {
+    if (!manager.isVersioned(name) || !(remote instanceof RedisCache redisCache)) {
+      evict(key);
+      return;
+    }
+    statistics.eviction();
+    manager.recordUpdate(name, key, localValue(key));
+    boolean evicted =
+        manager
+            .circuitBreaker()
+            .run(
+                () ->
+                    manager
+                        .versionStamps()
+                        .evictOlderThan(
+                            redisCache, key, version, manager.refreshPolicy().ttl(name)));
+    if (!evicted) {
+      manager.deferEviction(name, key);
+    }
+    evictLocal(key);
+    manager.publishInvalidation(name, localKey(key));
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    if (value == null) {
+      return manager.circuitBreaker().call(() -> remote.putIfAbsent(key, null), () -> null);
+    }
+    CacheEntry entry = manager.refreshPolicy().wrap(name, key, value, 0);
+    Object[] existingHolder = new Object[1];
+    boolean reachedRemote =
+        manager
+            .circuitBreaker()
+            .run(
+                () -> {
+                  ValueWrapper existing = remote.putIfAbsent(key, entry);
+                  existingHolder[0] = existing != null ? existing.get() : null;
+                  if (existingHolder[0] == null) {
+                    manager.tagEntry(name, key, value);
+                  }
+                });
+    if (!reachedRemote) {
+      CacheEntry current = local.asMap().putIfAbsent(localKey(key), entry);
+      return current != null ? new SimpleValueWrapper(current.value()) : null;
+    }
+    if (existingHolder[0] == null) {
+      statistics.put();
+      local.put(localKey(key), entry);
+      return null;
+    }
+    CacheEntry current = CacheEntry.of(existingHolder[0]);
+    local.put(localKey(key), current);
+    return new SimpleValueWrapper(current.value());
+  }
+
+  @Override
+  public void evict(Object key) {
+    statistics.eviction();
+    manager.recordUpdate(name, key, localValue(key));
+    if (!manager.circuitBreaker().run(() -> remote.evict(key))) {
+      manager.deferEviction(name, key);
+    }
+    evictLocal(key);
+    manager.publishInvalidation(name, localKey(key));
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    Boolean evicted = manager.circuitBreaker().call(() -> remote.evictIfPresent(key), () -> null);
+    if (evicted == null) {
+      manager.deferEviction(name, key);
+      evicted = local.asMap().containsKey(localKey(key));
+    }
+    if (evicted) {
+      statistics.eviction();
+      manager.recordUpdate(name, key, localValue(key));
+    }
+    evictLocal(key);
+    manager.publishInvalidation(name, localKey(key));
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    long started = System.nanoTime();
+    if (!manager.circuitBreaker().run(remote::clear)) {
+      manager.deferClear(name);
+    }
+    statistics.clear(System.nanoTime() - started);
+    clearLocal();
+    manager.publishInvalidation(name, null);
+  }
+
+  @Override
+  public boolean invalidate() {
+    long started = System.nanoTime();
+    Boolean invalidated = manager.circuitBreaker().call(remote::invalidate, () -> null);
+    if (invalidated == null) {
+      manager.deferClear(name);
+      invalidated = local.estimatedSize() > 0;
+    }
+    statistics.clear(System.nanoTime() - started);
+    clearLocal();
+    manager.publishInvalidation(name, null);
+    return invalidated;
+  }
+
+  /** The near-cache value of {@code key}, e.g. to tell which category an evicted entry was in. */
+  private Object localValue(Object key) {
+    CacheEntry cached = local.getIfPresent(localKey(key));
+    return cached != null ? cached.value() : null;
+  }
+
+  void evictLocal(Object key) {
+    local.invalidate(localKey(key));
+  }
+
+  void clearLocal() {
+    local.invalidateAll();
+  }
+
+  /** The entry for {@code key}; entries past their stale window, kept only as a fallback, miss. */
+  private CacheEntry lookup(Object key) {
+    manager.recordAccess(name, key);
+    String localKey = localKey(key);
+    CacheEntry cached = local.getIfPresent(localKey);
+    if (cached != null && !isExpired(cached)) {
+      statistics.localHit();
+      manager.recordRead(name, key, cached.value());
+      return cached;
+    }
+    CacheEntry entry = remoteEntry(key);
+    if (entry != null && !isExpired(entry)) {
+      statistics.remoteHit();
+      manager.recordRead(name, key, entry.value());
+      local.put(localKey, entry);
+      return entry;
+    }
+    statistics.miss();
+    manager.recordRead(name, key, null);
+    return null;
+  }
+
+  private boolean isExpired(CacheEntry entry) {
+    return manager.refreshPolicy().isExpired(name, entry);
+  }
+
+  /** Redis copies of {@code keys} in order, one MGET per batch; null while Redis is unavailable. */
+  private List<CacheEntry> remoteEntries(List<Object> keys) {
+    return remote instanceof RedisCache redisCache
+        ? manager
+            .circuitBreaker()
+            .call(() -> manager.bulkOperations().getAll(redisCache, keys), () -> null)
+        : keys.stream().map(this::remoteEntry).toList();
+  }
+
+  /** The Redis copy of {@code key}; a miss while Redis is unavailable. */
+  private CacheEntry remoteEntry(Object key) {
+    return manager
+        .circuitBreaker()
+        .call(
+            () -> {
+              ValueWrapper wrapper = remote.get(key);
+              return wrapper != null && wrapper.get() != null ? CacheEntry.of(wrapper.get()) : null;
+            },
+            () -> null);
+  }
+
+  /**
+   * Write through both levels Interview Point: if Redis is unavailable the entry is kept in L1
+   * only, where its short expiry bounds how long it can miss another node's invalidation
+   *
+   * @return whether Redis accepted the write, or null if Redis was not reached
+   */
+  private Boolean store(Object key, Object value, long loadMillis) {
+    CacheEntry entry = manager.refreshPolicy().wrap(name, key, value, loadMillis);
+    Long version = manager.versionOf(name, value);
+    Boolean written =
+        manager
+            .circuitBreaker()
+            .call(
+                () -> {
+                  if (version != null && remote instanceof RedisCache redisCache) {
+                    boolean accepted =
+                        manager
+                            .versionStamps()
+                            .putIfNotOlder(
+                                redisCache, key, entry, version, manager.refreshPolicy().ttl(name));
+                    if (!accepted) {
+                      return false;
+                    }
+                  } else {
+                    remote.put(key, entry);
+                  }
+                  manager.tagEntry(name, key, value);
+                  return true;
+                },
+                () -> null);
+    if (Boolean.FALSE.equals(written)) {
+      logger.debug("Refused stale write of {}::{} at version {}", name, localKey(key), version);
+      return written;
+    }
+    statistics.put();
+    local.put(localKey(key), entry);
+    return written;
+  }
+
+  private static long elapsedMillis(long startedNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+  }
+
+  /**
+   * Keys are normalized to their string form, mirroring how RedisCache renders keys, so a Long id
+   * and the id received in an invalidation message address the same local entry.
+   */
+  static String localKey(Object key) {
+    return String.valueOf(key);
+  }
+}
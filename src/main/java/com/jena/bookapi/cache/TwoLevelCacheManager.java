@@ -0,0 +1,448 @@
+package com.jena.bookapi.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jena.bookapi.config.BookCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Composite CacheManager: Caffeine near-cache (L1) backed by a Redis CacheManager (L2)
+ *
+ * <p>Interview Points: 1. Decorator pattern: every Redis cache is wrapped, so @Cacheable call sites
+ * stay unchanged 2. Caffeine's W-TinyLFU admission keeps frequently read entries resident while
+ * one-off scans are rejected 3. Redis pub/sub fans evictions out to every node; each node ignores
+ * its own messages 4. L1 entries also expire on a short timer, bounding staleness if a message is
+ * lost 5. Caches with a registered {@link CacheTagResolver} index their entries by tag, so writes
+ * can evict exactly the entries they affect, and those with a {@link CacheVersionResolver} refuse
+ * writes older than the last version written or evicted 6. Reads are counted per key so startup
+ * warm-up knows which entries are hot 7. Hits, misses, puts, evictions, load and clear latency and
+ * near-cache size are exported per cache through Micrometer 8. Redis sits behind a circuit breaker,
+ * so an outage degrades the caches to near-cache only instead of stalling requests on timeouts;
+ * evictions Redis missed meanwhile are remembered and replayed when the circuit closes
+ */
+public class TwoLevelCacheManager implements TaggedCacheManager, MessageListener, MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+  private final CacheManager remoteCacheManager;
+  private final StringRedisTemplate redisTemplate;
+  private final BookCacheProperties properties;
+  private final CacheTagIndex tagIndex;
+  private final Map<String, CacheTagResolver> tagResolvers;
+  private final Map<String, CacheVersionResolver> versionResolvers;
+  private final CacheVersionStamps versionStamps;
+  private final CacheLoadLeases leases;
+  private final RedisBulkOperations bulkOperations;
+  private final HotKeyTracker hotKeyTracker;
+  private final RefreshAheadPolicy refreshPolicy;
+  private final CacheCircuitBreaker circuitBreaker;
+  private final ConcurrentMap<String, Set<Object>> pendingEvictions = new ConcurrentHashMap<>();
+  private final Set<String> pendingClears = ConcurrentHashMap.newKeySet();
+  private final Set<String> pendingTags = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+  private volatile MeterRegistry meterRegistry;
+
+  public TwoLevelCacheManager(
+      CacheManager remoteCacheManager,
+      StringRedisTemplate redisTemplate,
+      BookCacheProperties properties,
+      CacheTagIndex tagIndex,
+      Map<String, CacheTagResolver> tagResolvers,
+      Map<String, CacheVersionResolver> versionResolvers,
+      HotKeyTracker hotKeyTracker,
+      RefreshAheadPolicy refreshPolicy) {
+    this.remoteCacheManager = remoteCacheManager;
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+    this.tagIndex = tagIndex;
+    this.tagResolvers = Map.copyOf(tagResolvers);
+    this.versionResolvers = Map.copyOf(versionResolvers);
+    this.versionStamps = new CacheVersionStamps(redisTemplate);
+    this.bulkOperations =
+        new RedisBulkOperations(redisTemplate, properties.getClient().getBulkBatchSize());
+    this.hotKeyTracker = hotKeyTracker;
+    this.refreshPolicy = refreshPolicy;
+    this.circuitBreaker = new CacheCircuitBreaker(properties.getCircuitBreaker());
+    this.leases = new CacheLoadLeases(redisTemplate, properties.getSingleFlight(), circuitBreaker);
+    circuitBreaker.onRecovery(
+        () -> {
+          if (!refreshPolicy.submit(this::replayPendingEvictions)) {
+            replayPendingEvictions();
+          }
+        });
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    TwoLevelCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+    Cache remote = remoteCacheManager.getCache(name);
+    if (remote == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, remote));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return remoteCacheManager.getCacheNames();
+  }
+
+  /**
+   * Evict every entry, in any cache, indexed under one of the given tags Interview Point: each
+   * eviction goes through {@link TwoLevelCache#evict}, so other nodes drop their L1 copies too
+   */
+  @Override
+  public void evictTagged(Collection<String> tags) {
+    boolean invalidated =
+        circuitBreaker.run(
+            () ->
+                tagIndex.invalidate(
+                    tags,
+                    (cacheName, key) -> {
+                      Cache cache = getCache(cacheName);
+                      if (cache != null) {
+                        cache.evict(key);
+                      }
+                    }));
+    if (!invalidated) {
+      // Without the index the affected keys are unknown, so drop every tagged near-cache
+      pendingTags.addAll(tags);
+      tagResolvers.keySet().stream()
+          .map(caches::get)
+          .filter(Objects::nonNull)
+          .forEach(TwoLevelCache::clearLocal);
+    }
+  }
+
+  /** Breaker guarding every Redis call made by these caches. */
+  public CacheCircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /** Evictions and clears waiting for Redis to come back. */
+  public int pendingEvictionCount() {
+    return pendingCount.get() + pendingClears.size() + pendingTags.size();
+  }
+
+  /**
+   * Export per-cache metrics Interview Point: Spring Boot binds every MeterBinder bean to the
+   * registry at startup; caches created later are bound as they appear
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.meterRegistry = registry;
+    caches.values().forEach(cache -> bindMetrics(cache, registry));
+    bindCircuitMetrics(registry);
+  }
+
+  /**
+   * Number of Redis keys held by {@code cacheName}, or -1 if it is not a Redis cache Interview
+   * Point: SCAN walks the keyspace in batches and never blocks Redis the way KEYS does, but it is
+   * still proportional to the keyspace, so this is for admin use only
+   */
+  public long remoteKeyCount(String cacheName) {
+    if (!(remoteCacheManager.getCache(cacheName) instanceof RedisCache redisCache)) {
+      return -1;
+    }
+    // Prefixes are "book-api:<cache>:<format>::", which contain no glob metacharacters
+    String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName);
+    ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+    Long count =
+        redisTemplate.execute(
+            (RedisCallback<Long>)
+                connection -> {
+                  long[] keys = {0};
+                  RedisKeyScanner.forEachKey(connection, options, key -> keys[0]++);
+                  return keys[0];
+                });
+    return count != null ? count : 0;
+  }
+
+  /** Receives invalidations published by other nodes and drops the matching L1 entries. */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    CacheInvalidationMessage invalidation;
+    try {
+      invalidation =
+          CacheInvalidationMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+    } catch (IllegalArgumentException ex) {
+      logger.warn("Ignoring cache invalidation: {}", ex.getMessage());
+      return;
+    }
+    if (nodeId.equals(invalidation.origin())) {
+      return;
+    }
+    TwoLevelCache cache = caches.get(invalidation.cacheName());
+    if (cache == null) {
+      return; // nothing cached locally under this name yet
+    }
+    if (invalidation.isClear()) {
+      cache.clearLocal();
+    } else {
+      cache.evictLocal(invalidation.key());
+    }
+  }
+
+  void tagEntry(String cacheName, Object key, Object value) {
+    CacheTagResolver resolver = tagResolvers.get(cacheName);
+    if (resolver != null && value != null) {
+      tagIndex.tag(cacheName, TwoLevelCache.localKey(key), resolver.tagsFor(key, value));
+    }
+  }
+
+  /** Version of a value about to be stored, or null if its cache is not versioned. */
+  Long versionOf(String cacheName, Object value) {
+    CacheVersionResolver resolver = versionResolvers.get(cacheName);
+    return resolver != null && value != null ? resolver.versionOf(value) : null;
+  }
+
+  boolean isVersioned(String cacheName) {
+    return versionResolvers.containsKey(cacheName);
+  }
+
+  CacheVersionStamps versionStamps() {
+    return versionStamps;
+  }
+
+  void recordAccess(String cacheName, Object key) {
+    hotKeyTracker.record(cacheName, key);
+  }
+
+  /** Count a resolved read for adaptive TTLs; {@code value} is null on a miss. */
+  void recordRead(String cacheName, Object key, Object value) {
+    AdaptiveTtlPolicy adaptiveTtl = refreshPolicy.adaptiveTtl();
+    if (adaptiveTtl != null) {
+      adaptiveTtl.recordRead(cacheName, key, value);
+    }
+  }
+
+  /** Count an explicit put or eviction for adaptive TTLs. */
+  void recordUpdate(String cacheName, Object key, Object value) {
+    AdaptiveTtlPolicy adaptiveTtl = refreshPolicy.adaptiveTtl();
+    if (adaptiveTtl != null) {
+      adaptiveTtl.recordUpdate(cacheName, key, value);
+    }
+  }
+
+  RefreshAheadPolicy refreshPolicy() {
+    return refreshPolicy;
+  }
+
+  CacheLoadLeases leases() {
+    return leases;
+  }
+
+  RedisBulkOperations bulkOperations() {
+    return bulkOperations;
+  }
+
+  CacheCircuitBreaker circuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /** False while the circuit is open or probing, i.e. while Redis calls are being skipped. */
+  boolean isRemoteAvailable() {
+    return circuitBreaker.getState() == CacheCircuitBreaker.State.CLOSED;
+  }
+
+  /**
+   * Remember an eviction Redis did not take Interview Point: the set is bounded; past the limit the
+   * whole cache is cleared on recovery instead, which is coarse but cannot leave stale entries
+   */
+  void deferEviction(String cacheName, Object key) {
+    if (pendingClears.contains(cacheName)) {
+      return;
+    }
+    if (pendingCount.get() >= properties.getCircuitBreaker().getMaxPendingEvictions()) {
+      deferClear(cacheName);
+      return;
+    }
+    if (pendingEvictions
+        .computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet())
+        .add(key)) {
+      pendingCount.incrementAndGet();
+    }
+  }
+
+  void deferClear(String cacheName) {
+    pendingClears.add(cacheName);
+    Set<Object> keys = pendingEvictions.remove(cacheName);
+    if (keys != null) {
+      pendingCount.addAndGet(-keys.size());
+    }
+  }
+
+  /**
+   * Apply the evictions Redis missed while unavailable Interview Point: each replay is an ordinary
+   * eviction, so it is broadcast to other nodes and, if Redis fails again, simply deferred again
+   */
+  void replayPendingEvictions() {
+    for (String cacheName : List.copyOf(pendingClears)) {
+      pendingClears.remove(cacheName);
+      Cache cache = getCache(cacheName);
+      if (cache != null) {
+        cache.clear();
+      }
+    }
+    for (String cacheName : List.copyOf(pendingEvictions.keySet())) {
+      Set<Object> keys = pendingEvictions.remove(cacheName);
+      if (keys == null) {
+        continue;
+      }
+      pendingCount.addAndGet(-keys.size());
+      Cache cache = getCache(cacheName);
+      if (cache != null) {
+        keys.forEach(cache::evict);
+      }
+    }
+    if (!pendingTags.isEmpty()) {
+      List<String> tags = List.copyOf(pendingTags);
+      pendingTags.removeAll(tags);
+      evictTagged(tags);
+    }
+    logger.info("Replayed cache evictions deferred while Redis was unavailable");
+  }
+
+  void publishInvalidation(String cacheName, String key) {
+    if (!isRemoteAvailable()) {
+      return; // the eviction is deferred and broadcast when it is replayed
+    }
+    String payload = new CacheInvalidationMessage(nodeId, cacheName, key).encode();
+    try {
+      redisTemplate.convertAndSend(properties.getInvalidationChannel(), payload);
+    } catch (RuntimeException ex) {
+      // Other nodes fall back to L1 expiry; the local eviction has already happened
+      logger.warn("Failed to publish cache invalidation for {}: {}", cacheName, ex.getMessage());
+    }
+  }
+
+  private TwoLevelCache createCache(String name, Cache remote) {
+    BookCacheProperties.Local local = properties.getLocal();
+    // Short-lived caches (e.g. negative entries) must not outlive their Redis TTL in L1
+    Duration expireAfterWrite = local.getExpireAfterWrite();
+    if (refreshPolicy.ttl(name).compareTo(expireAfterWrite) < 0) {
+      expireAfterWrite = refreshPolicy.ttl(name);
+    }
+    com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> nearCache =
+        Caffeine.newBuilder()
+            .maximumWeight(local.getMaximumWeight())
+            .weigher(new CacheValueWeigher())
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    logger.info(
+        "Near-cache '{}' created (max weight {} bytes, expire after {})",
+        name,
+        local.getMaximumWeight(),
+        expireAfterWrite);
+    TwoLevelCache cache = new TwoLevelCache(name, nearCache, remote, this);
+    MeterRegistry registry = meterRegistry;
+    if (registry != null) {
+      bindMetrics(cache, registry);
+    }
+    return cache;
+  }
+
+  private void bindCircuitMetrics(MeterRegistry registry) {
+    Gauge.builder("cache.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+        .description("Redis circuit state: 0 closed, 1 half-open, 2 open")
+        .register(registry);
+    Gauge.builder("cache.circuit.failure.rate", circuitBreaker, CacheCircuitBreaker::getFailureRate)
+        .description("Share of failed or slow Redis calls in the current window")
+        .register(registry);
+    Gauge.builder(
+            "cache.circuit.pending.evictions", this, TwoLevelCacheManager::pendingEvictionCount)
+        .description("Evictions waiting for Redis to become available again")
+        .register(registry);
+    bindCircuitCounter(registry, "success", CacheCircuitBreaker::getSuccessCount);
+    bindCircuitCounter(registry, "failure", CacheCircuitBreaker::getFailureCount);
+    bindCircuitCounter(registry, "slow", CacheCircuitBreaker::getSlowCallCount);
+    bindCircuitCounter(registry, "rejected", CacheCircuitBreaker::getRejectedCount);
+  }
+
+  private void bindCircuitCounter(
+      MeterRegistry registry, String outcome, ToDoubleFunction<CacheCircuitBreaker> count) {
+    FunctionCounter.builder("cache.circuit.calls", circuitBreaker, count)
+        .tag("outcome", outcome)
+        .description("Redis calls made or skipped by the cache circuit breaker")
+        .register(registry);
+  }
+
+  private static void bindMetrics(TwoLevelCache cache, MeterRegistry registry) {
+    CacheStatistics statistics = cache.getStatistics();
+    Tags tags = Tags.of("cache", cache.getName(), "cache.manager", "cacheManager");
+    FunctionCounter.builder("cache.gets", statistics, CacheStatistics::hits)
+        .tags(tags)
+        .tag("result", "hit")
+        .description("Cache reads answered by either level")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", statistics, CacheStatistics::misses)
+        .tags(tags)
+        .tag("result", "miss")
+        .description("Cache reads found in neither level")
+        .register(registry);
+    FunctionCounter.builder("cache.near.hits", statistics, CacheStatistics::localHits)
+        .tags(tags)
+        .description("Cache reads answered by the in-process near-cache")
+        .register(registry);
+    FunctionCounter.builder("cache.puts", statistics, CacheStatistics::puts)
+        .tags(tags)
+        .description("Entries written to the cache")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", statistics, CacheStatistics::evictions)
+        .tags(tags)
+        .description("Entries explicitly evicted from the cache")
+        .register(registry);
+    Gauge.builder("cache.near.size", cache, TwoLevelCache::localSize)
+        .tags(tags)
+        .description("Approximate number of near-cache entries on this node")
+        .register(registry);
+    Gauge.builder("cache.near.weight", cache, TwoLevelCache::localWeight)
+        .tags(tags)
+        .baseUnit(BaseUnits.BYTES)
+        .description("Approximate heap held by near-cache entries on this node")
+        .register(registry);
+    statistics.setLoadTimer(
+        Timer.builder("cache.load")
+            .tags(tags)
+            .description("Time spent computing values on a miss or refresh")
+            .publishPercentileHistogram()
+            .register(registry));
+    statistics.setClearTimer(
+        Timer.builder("cache.clear")
+            .tags(tags)
+            .description("Time spent removing every entry of the cache from Redis")
+            .register(registry));
+  }
+}
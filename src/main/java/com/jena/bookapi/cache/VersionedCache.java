@@ -0,0 +1,21 @@
+package com.jena.bookapi.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Cache that can refuse writes older than a known version
+ *
+ * <p>Interview Point: Callers check for this capability and fall back to a plain eviction when it
+ * is absent (e.g. the no-op cache used in tests)
+ */
+public interface VersionedCache extends Cache {
+
+  /** Version recorded by {@link #evictOlderThan} for a deleted entry; rejects every later put. */
+  long DELETED = Long.MAX_VALUE;
+
+  /**
+   * Evict {@code key} and reject later puts of versions below {@code version}, so a reader that
+   * loaded the previous row cannot write it back.
+   */
+  void evictOlderThan(Object key, long version);
+}
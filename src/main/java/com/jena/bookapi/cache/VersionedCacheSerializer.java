@@ -0,0 +1,17 @@
+package com.jena.bookapi.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Cache value serializer that declares the wire format it produces
+ *
+ * <p>Interview Points: 1. The format id becomes part of every Redis key prefix, so builds with
+ * different formats read and write disjoint key spaces 2. A rolling deploy therefore never feeds a
+ * new build bytes it cannot decode, and old nodes keep their warm entries until they are replaced
+ * 3. Bump the id whenever the encoded shape changes
+ */
+public interface VersionedCacheSerializer extends RedisSerializer<Object> {
+
+  /** Short, key-safe identifier of the encoding and its schema version, e.g. {@code bin1}. */
+  String formatId();
+}
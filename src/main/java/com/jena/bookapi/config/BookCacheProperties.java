@@ -0,0 +1,961 @@
+package com.jena.bookapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Externalized cache tuning bound from the {@code app.cache} namespace
+ *
+ * <p>Interview Points: 1. @ConfigurationProperties gives type-safe binding instead of scattered
+ * {@code @Value} lookups 2. Durations and sizes are bound from human-readable strings (e.g. 5m,
+ * 64MB) 3. Nested static classes group related settings under one prefix
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class BookCacheProperties {
+
+  /** Redis pub/sub channel used to tell other nodes to drop near-cache entries. */
+  private String invalidationChannel = "book-api:cache:invalidation";
+
+  /** Wire format of cached values; each format writes to its own versioned key namespace. */
+  private Format format = Format.BINARY;
+
+  /** How long an unknown book id or ISBN is remembered as missing. */
+  private Duration negativeTtl = Duration.ofSeconds(60);
+
+  /**
+   * Whether book writes overwrite the cached body after commit instead of evicting it. Read by
+   * {@code BookCacheInvalidator} directly, so it also applies where this class is not bound.
+   */
+  private boolean writeThrough = false;
+
+  /** Keys fetched per SCAN and removed per UNLINK when a whole cache is cleared. */
+  private int clearBatchSize = 1_000;
+
+  private final Local local = new Local();
+
+  private final SingleFlight singleFlight = new SingleFlight();
+
+  private final WarmUp warmUp = new WarmUp();
+
+  private final RefreshAhead refreshAhead = new RefreshAhead();
+
+  private final IsbnFilter isbnFilter = new IsbnFilter();
+
+  private final Client client = new Client();
+
+  private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+  private final StaleIfError staleIfError = new StaleIfError();
+
+  private final AdaptiveTtl adaptiveTtl = new AdaptiveTtl();
+
+  private final DbInvalidation dbInvalidation = new DbInvalidation();
+
+  private final Trace trace = new Trace();
+
+  private final HotKeys hotKeys = new HotKeys();
+
+  private final Prefetch prefetch = new Prefetch();
+
+  public String getInvalidationChannel() {
+    return invalidationChannel;
+  }
+
+  public void setInvalidationChannel(String invalidationChannel) {
+    this.invalidationChannel = invalidationChannel;
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  public void setFormat(Format format) {
+    this.format = format;
+  }
+
+  public Duration getNegativeTtl() {
+    return negativeTtl;
+  }
+
+  public void setNegativeTtl(Duration negativeTtl) {
+    this.negativeTtl = negativeTtl;
+  }
+
+  public boolean isWriteThrough() {
+    return writeThrough;
+  }
+
+  public void setWriteThrough(boolean writeThrough) {
+    this.writeThrough = writeThrough;
+  }
+
+  public int getClearBatchSize() {
+    return clearBatchSize;
+  }
+
+  public void setClearBatchSize(int clearBatchSize) {
+    this.clearBatchSize = clearBatchSize;
+  }
+
+  public Local getLocal() {
+    return local;
+  }
+
+  public SingleFlight getSingleFlight() {
+    return singleFlight;
+  }
+
+  public WarmUp getWarmUp() {
+    return warmUp;
+  }
+
+  public RefreshAhead getRefreshAhead() {
+    return refreshAhead;
+  }
+
+  public IsbnFilter getIsbnFilter() {
+    return isbnFilter;
+  }
+
+  public Client getClient() {
+    return client;
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public StaleIfError getStaleIfError() {
+    return staleIfError;
+  }
+
+  public AdaptiveTtl getAdaptiveTtl() {
+    return adaptiveTtl;
+  }
+
+  public DbInvalidation getDbInvalidation() {
+    return dbInvalidation;
+  }
+
+  public Trace getTrace() {
+    return trace;
+  }
+
+  public HotKeys getHotKeys() {
+    return hotKeys;
+  }
+
+  public Prefetch getPrefetch() {
+    return prefetch;
+  }
+
+  /** Supported cache value encodings. */
+  public enum Format {
+    /** Compact positional binary encoding. */
+    BINARY,
+    /** Self-describing JSON, larger but readable with redis-cli. */
+    JSON
+  }
+
+  /** In-process (L1) near-cache settings, applied to every cache name. */
+  public static class Local {
+
+    /** Approximate upper bound, in bytes, of values held in each local cache. */
+    private long maximumWeight = 32L * 1024 * 1024;
+
+    /** Local entries expire after this long even if no invalidation message arrives. */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    public long getMaximumWeight() {
+      return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+      this.maximumWeight = maximumWeight;
+    }
+
+    public Duration getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+  }
+
+  /** Cross-node miss coalescing: one node loads, the others wait for the value to appear. */
+  public static class SingleFlight {
+
+    /** How long a node may hold the right to load a key before others give up waiting. */
+    private Duration leaseTtl = Duration.ofSeconds(5);
+
+    /** How often waiting nodes re-check Redis for the value being loaded elsewhere. */
+    private Duration pollInterval = Duration.ofMillis(20);
+
+    public Duration getLeaseTtl() {
+      return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+      this.leaseTtl = leaseTtl;
+    }
+
+    public Duration getPollInterval() {
+      return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+      this.pollInterval = pollInterval;
+    }
+  }
+
+  /** Hot-key recording during operation and cache preloading at startup. */
+  public static class WarmUp {
+
+    /** Whether to preload hot keys before the instance reports ready. */
+    private boolean enabled = true;
+
+    /** Upper bound on keys (book ids plus listing pages) preloaded at startup. */
+    private int maxKeys = 500;
+
+    /** Upper bound on time spent preloading; readiness is delayed by at most this much. */
+    private Duration timeout = Duration.ofSeconds(20);
+
+    /** Book ids loaded per repository query while preloading. */
+    private int batchSize = 100;
+
+    /** How often locally counted accesses are merged into the shared ranking in Redis. */
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    /** Distinct keys counted in memory per cache between flushes; further new keys are ignored. */
+    private int maxTrackedKeys = 10_000;
+
+    /** Keys kept in the shared ranking per cache. */
+    private int retainedKeys = 1_000;
+
+    /** Rankings not updated for this long expire, e.g. after the service is retired. */
+    private Duration retention = Duration.ofDays(7);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+      return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+      this.maxKeys = maxKeys;
+    }
+
+    public Duration getTimeout() {
+      return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+      return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+      this.flushInterval = flushInterval;
+    }
+
+    public int getMaxTrackedKeys() {
+      return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+      this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public int getRetainedKeys() {
+      return retainedKeys;
+    }
+
+    public void setRetainedKeys(int retainedKeys) {
+      this.retainedKeys = retainedKeys;
+    }
+
+    public Duration getRetention() {
+      return retention;
+    }
+
+    public void setRetention(Duration retention) {
+      this.retention = retention;
+    }
+  }
+
+  /** Background recomputation of entries nearing expiry, and TTL jitter. */
+  public static class RefreshAhead {
+
+    /** Whether read-through lookups refresh entries ahead of expiry. */
+    private boolean enabled = true;
+
+    /** XFetch beta; above 1.0 favours earlier refreshes, below 1.0 later ones. */
+    private double beta = 1.0;
+
+    /**
+     * Fraction of the TTL randomly taken off each entry so entries written together expire apart.
+     */
+    private double jitter = 0.1;
+
+    /**
+     * Fraction of the TTL an entry stays in Redis past its logical expiry, served while refreshed.
+     */
+    private double staleWindow = 0.1;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getBeta() {
+      return beta;
+    }
+
+    public void setBeta(double beta) {
+      this.beta = beta;
+    }
+
+    public double getJitter() {
+      return jitter;
+    }
+
+    public void setJitter(double jitter) {
+      this.jitter = jitter;
+    }
+
+    public double getStaleWindow() {
+      return staleWindow;
+    }
+
+    public void setStaleWindow(double staleWindow) {
+      this.staleWindow = staleWindow;
+    }
+  }
+
+  /** Shared Bloom filter of known ISBNs, consulted before ISBN lookups on the write path. */
+  public static class IsbnFilter {
+
+    /** Whether ISBN checks consult the filter; when off every ISBN goes to the database. */
+    private boolean enabled = true;
+
+    /** Number of ISBNs the filter is sized for; beyond it the false-positive rate climbs. */
+    private long expectedIsbns = 10_000_000;
+
+    /** Target probability that an unknown ISBN is reported as possibly present. */
+    private double falsePositiveRate = 0.01;
+
+    /** ISBNs read from the database per query while rebuilding the filter. */
+    private int rebuildBatchSize = 1_000;
+
+    /** Longest a node may spend rebuilding before another node may take over. */
+    private Duration rebuildLeaseTtl = Duration.ofMinutes(10);
+
+    /** How often each node checks that the filter is built, e.g. after a Redis flush. */
+    private Duration checkInterval = Duration.ofMinutes(5);
+
+    /** Lifetime of a filter generation; each one is rebuilt from the database, fresh. */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getExpectedIsbns() {
+      return expectedIsbns;
+    }
+
+    public void setExpectedIsbns(long expectedIsbns) {
+      this.expectedIsbns = expectedIsbns;
+    }
+
+    public double getFalsePositiveRate() {
+      return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+      this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public int getRebuildBatchSize() {
+      return rebuildBatchSize;
+    }
+
+    public void setRebuildBatchSize(int rebuildBatchSize) {
+      this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    public Duration getRebuildLeaseTtl() {
+      return rebuildLeaseTtl;
+    }
+
+    public void setRebuildLeaseTtl(Duration rebuildLeaseTtl) {
+      this.rebuildLeaseTtl = rebuildLeaseTtl;
+    }
+
+    public Duration getCheckInterval() {
+      return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+      this.checkInterval = checkInterval;
+    }
+
+    public Duration getRebuildInterval() {
+      return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+      this.rebuildInterval = rebuildInterval;
+    }
+  }
+
+  /** Redis client settings for cache traffic. */
+  public static class Client {
+
+    /** Whether commands written in the same event-loop pass share one socket flush. */
+    private boolean flushConsolidation = true;
+
+    /** Commands after which a flush is forced even while more are being written. */
+    private int maxBatchedFlushes = 256;
+
+    /** Whether per-command latency is also exported as a histogram, for server-side quantiles. */
+    private boolean latencyHistogram = true;
+
+    /** Keys per MGET, or per pipeline, when a cache reads or writes many keys at once. */
+    private int bulkBatchSize = 100;
+
+    public boolean isFlushConsolidation() {
+      return flushConsolidation;
+    }
+
+    public void setFlushConsolidation(boolean flushConsolidation) {
+      this.flushConsolidation = flushConsolidation;
+    }
+
+    public int getMaxBatchedFlushes() {
+      return maxBatchedFlushes;
+    }
+
+    public void setMaxBatchedFlushes(int maxBatchedFlushes) {
+      this.maxBatchedFlushes = maxBatchedFlushes;
+    }
+
+    public boolean isLatencyHistogram() {
+      return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(boolean latencyHistogram) {
+      this.latencyHistogram = latencyHistogram;
+    }
+
+    public int getBulkBatchSize() {
+      return bulkBatchSize;
+    }
+
+    public void setBulkBatchSize(int bulkBatchSize) {
+      this.bulkBatchSize = bulkBatchSize;
+    }
+  }
+
+  /** Circuit breaker between the caches and Redis. */
+  public static class CircuitBreaker {
+
+    /** Whether Redis failures open the circuit; when off they propagate to callers. */
+    private boolean enabled = true;
+
+    /** Number of most recent Redis calls the failure rate is computed over. */
+    private int windowSize = 50;
+
+    /** Calls the window must hold before the circuit may open. */
+    private int minimumCalls = 20;
+
+    /** Share of failed or slow calls in the window that opens the circuit. */
+    private double failureRateThreshold = 0.5;
+
+    /** A call slower than this counts as failed even if it succeeds. */
+    private Duration slowCallThreshold = Duration.ofMillis(100);
+
+    /** How long the circuit stays open before a probe call is let through. */
+    private Duration openDuration = Duration.ofSeconds(5);
+
+    /**
+     * Evictions remembered while Redis is unreachable; beyond this the cache is cleared instead.
+     */
+    private int maxPendingEvictions = 10_000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getWindowSize() {
+      return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+      this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+      return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+      this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+      return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+      this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public Duration getSlowCallThreshold() {
+      return slowCallThreshold;
+    }
+
+    public void setSlowCallThreshold(Duration slowCallThreshold) {
+      this.slowCallThreshold = slowCallThreshold;
+    }
+
+    public Duration getOpenDuration() {
+      return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+    }
+
+    public int getMaxPendingEvictions() {
+      return maxPendingEvictions;
+    }
+
+    public void setMaxPendingEvictions(int maxPendingEvictions) {
+      this.maxPendingEvictions = maxPendingEvictions;
+    }
+  }
+
+  /** Expired entries kept past their stale window and served only when reloading them fails. */
+  public static class StaleIfError {
+
+    /** Whether expired entries are kept and served while the database is unavailable. */
+    private boolean enabled = true;
+
+    /** How long an entry stays in Redis past its stale window, as a fallback. */
+    private Duration gracePeriod = Duration.ofHours(1);
+
+    /** Caches whose entries are kept; negative entries are left out, as they are cheap to lose. */
+    private Set<String> caches =
+        new LinkedHashSet<>(List.of("book", "bookStock", "books", "booksByCategory", "bookSearch"));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getGracePeriod() {
+      return gracePeriod;
+    }
+
+    public void setGracePeriod(Duration gracePeriod) {
+      this.gracePeriod = gracePeriod;
+    }
+
+    public Set<String> getCaches() {
+      return caches;
+    }
+
+    public void setCaches(Set<String> caches) {
+      this.caches = caches;
+    }
+  }
+
+  /** TTLs adjusted to how often entries are updated relative to how often they are read. */
+  public static class AdaptiveTtl {
+
+    /** Whether TTLs adapt; when off every cache uses its configured TTL unless overridden. */
+    private boolean enabled = true;
+
+    /** How often rates are sampled and TTLs recomputed, and overrides re-read from Redis. */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /** Lower bound of an adapted TTL, as a fraction of the cache's configured TTL. */
+    private double minFactor = 0.25;
+
+    /** Upper bound of an adapted TTL, as a multiple of the cache's configured TTL. */
+    private double maxFactor = 4.0;
+
+    /** Share of updates among reads and updates at and above which the lower bound applies. */
+    private double volatileShare = 0.2;
+
+    /** Weight of the latest interval in the smoothed rates; lower reacts slower but steadier. */
+    private double smoothing = 0.3;
+
+    /** Smoothed reads and updates per interval below which a scope keeps the configured TTL. */
+    private int minOperations = 20;
+
+    /** Categories tracked per cache; further categories share the cache-wide TTL. */
+    private int maxCategories = 100;
+
+    /** Caches whose TTLs adapt. */
+    private Set<String> caches =
+        new LinkedHashSet<>(List.of("book", "books", "booksByCategory", "bookSearch"));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+      return interval;
+    }
+
+    public void setInterval(Duration interval) {
+      this.interval = interval;
+    }
+
+    public double getMinFactor() {
+      return minFactor;
+    }
+
+    public void setMinFactor(double minFactor) {
+      this.minFactor = minFactor;
+    }
+
+    public double getMaxFactor() {
+      return maxFactor;
+    }
+
+    public void setMaxFactor(double maxFactor) {
+      this.maxFactor = maxFactor;
+    }
+
+    public double getVolatileShare() {
+      return volatileShare;
+    }
+
+    public void setVolatileShare(double volatileShare) {
+      this.volatileShare = volatileShare;
+    }
+
+    public double getSmoothing() {
+      return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+      this.smoothing = smoothing;
+    }
+
+    public int getMinOperations() {
+      return minOperations;
+    }
+
+    public void setMinOperations(int minOperations) {
+      this.minOperations = minOperations;
+    }
+
+    public int getMaxCategories() {
+      return maxCategories;
+    }
+
+    public void setMaxCategories(int maxCategories) {
+      this.maxCategories = maxCategories;
+    }
+
+    public Set<String> getCaches() {
+      return caches;
+    }
+
+    public void setCaches(Set<String> caches) {
+      this.caches = caches;
+    }
+  }
+
+  /** Evictions driven by Postgres notifications for rows changed outside the API. */
+  public static class DbInvalidation {
+
+    /** Whether to LISTEN for book row changes; needs the trigger in scripts/init.sql. */
+    private boolean enabled = false;
+
+    /** Notification channel the trigger sends to. */
+    private String channel = "book_changes";
+
+    /** How long notifications are collected before their evictions are applied together. */
+    private Duration coalesceWindow = Duration.ofMillis(200);
+
+    /** Changes collected before a flush is forced, whatever the window. */
+    private int maxBatchSize = 1_000;
+
+    /** How long to wait before reconnecting after the listening connection fails. */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /** Caches cleared after a reconnect, since notifications sent meanwhile are lost. */
+    private Set<String> resyncCaches =
+        new LinkedHashSet<>(List.of("book", "bookStock", "books", "booksByCategory", "bookSearch"));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getChannel() {
+      return channel;
+    }
+
+    public void setChannel(String channel) {
+      this.channel = channel;
+    }
+
+    public Duration getCoalesceWindow() {
+      return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(Duration coalesceWindow) {
+      this.coalesceWindow = coalesceWindow;
+    }
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getReconnectDelay() {
+      return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Duration reconnectDelay) {
+      this.reconnectDelay = reconnectDelay;
+    }
+
+    public Set<String> getResyncCaches() {
+      return resyncCaches;
+    }
+
+    public void setResyncCaches(Set<String> resyncCaches) {
+      this.resyncCaches = resyncCaches;
+    }
+  }
+
+  /** Anonymized access traces for replay in the cache simulator. */
+  public static class Trace {
+
+    /** Whether reads and writes are recorded. */
+    private boolean enabled = false;
+
+    /** Share of books and pages whose accesses are recorded; all accesses to each, or none. */
+    private double sampleRate = 0.1;
+
+    /** Directory trace files are written to, one per node start. */
+    private String directory = "logs/cache-trace";
+
+    /** Recording stops once the current file reaches this size. */
+    private DataSize maxFileSize = DataSize.ofMegabytes(256);
+
+    /** Events buffered for the writer; beyond this, events are dropped rather than waited on. */
+    private int queueCapacity = 10_000;
+
+    /** HMAC key anonymizing ids; blank for a random key per start, so traces cannot be joined. */
+    private String salt = "";
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+      return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+      this.sampleRate = sampleRate;
+    }
+
+    public String getDirectory() {
+      return directory;
+    }
+
+    public void setDirectory(String directory) {
+      this.directory = directory;
+    }
+
+    public DataSize getMaxFileSize() {
+      return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+      this.maxFileSize = maxFileSize;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public String getSalt() {
+      return salt;
+    }
+
+    public void setSalt(String salt) {
+      this.salt = salt;
+    }
+  }
+
+  /** Detection of books read far more than others, and their per-node replicas. */
+  public static class HotKeys {
+
+    /** Whether hot books are detected and replicated. */
+    private boolean enabled = true;
+
+    /** Sketch count at which a book becomes hot; a steady rate r reaches about 2 x r x interval. */
+    private int threshold = 500;
+
+    /** Counts are halved, and hot books with too few reads demoted, this often. */
+    private Duration decayInterval = Duration.ofSeconds(5);
+
+    /** Hot books replicated at once; further candidates wait for a slot. */
+    private int maxHotKeys = 32;
+
+    /** How long a replica is served before it is re-read, the staleness other nodes' writes see. */
+    private Duration replicaTtl = Duration.ofSeconds(1);
+
+    /** Counters per sketch row, rounded up to a power of two; four rows are kept. */
+    private int sketchWidth = 8_192;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getThreshold() {
+      return threshold;
+    }
+
+    public void setThreshold(int threshold) {
+      this.threshold = threshold;
+    }
+
+    public Duration getDecayInterval() {
+      return decayInterval;
+    }
+
+    public void setDecayInterval(Duration decayInterval) {
+      this.decayInterval = decayInterval;
+    }
+
+    public int getMaxHotKeys() {
+      return maxHotKeys;
+    }
+
+    public void setMaxHotKeys(int maxHotKeys) {
+      this.maxHotKeys = maxHotKeys;
+    }
+
+    public Duration getReplicaTtl() {
+      return replicaTtl;
+    }
+
+    public void setReplicaTtl(Duration replicaTtl) {
+      this.replicaTtl = replicaTtl;
+    }
+
+    public int getSketchWidth() {
+      return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+      this.sketchWidth = sketchWidth;
+    }
+  }
+
+  /** Background loading of the next listing page, for clients that page through in order. */
+  public static class Prefetch {
+
+    /** Whether the page after each served listing page is prefetched. */
+    private boolean enabled = false;
+
+    /** Prefetches started per second at most, per node. */
+    private double maxPerSecond = 10;
+
+    /** Prefetches running at once at most, so they never hold more connections than this. */
+    private int maxConcurrent = 2;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getMaxPerSecond() {
+      return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(double maxPerSecond) {
+      this.maxPerSecond = maxPerSecond;
+    }
+
+    public int getMaxConcurrent() {
+      return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+      this.maxConcurrent = maxConcurrent;
+    }
+  }
+}
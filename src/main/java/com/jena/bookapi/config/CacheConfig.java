@@ -1,65 +1,364 @@
 package com.jena.bookapi.config;
 
+import com.jena.bookapi.actuator.CacheAdminEndpoint;
+import com.jena.bookapi.actuator.CacheHealthIndicator;
+import com.jena.bookapi.actuator.CacheTtlEndpoint;
+import com.jena.bookapi.actuator.CacheWarmUpEndpoint;
+import com.jena.bookapi.cache.AdaptiveTtlPolicy;
+import com.jena.bookapi.cache.BinaryCacheSerializer;
+import com.jena.bookapi.cache.BookCacheInvalidator;
+import com.jena.bookapi.cache.BookChangeListener;
+import com.jena.bookapi.cache.BookCacheTags;
+import com.jena.bookapi.cache.BookPageCache;
+import com.jena.bookapi.cache.CacheTagIndex;
+import com.jena.bookapi.cache.CacheTraceRecorder;
+import com.jena.bookapi.cache.HotBookReplica;
+import com.jena.bookapi.cache.HotKeyTracker;
+import com.jena.bookapi.cache.IsbnBloomFilter;
+import com.jena.bookapi.cache.JsonCacheSerializer;
+import com.jena.bookapi.cache.MissingBookCache;
+import com.jena.bookapi.cache.PageCacheKey;
+import com.jena.bookapi.cache.PagePrefetcher;
+import com.jena.bookapi.cache.RefreshAheadPolicy;
+import com.jena.bookapi.cache.ScanUnlinkBatchStrategy;
+import com.jena.bookapi.cache.StockLevel;
+import com.jena.bookapi.cache.TwoLevelCacheManager;
+import com.jena.bookapi.cache.VersionedCacheSerializer;
+import com.jena.bookapi.dto.BookResponse;
+import com.jena.bookapi.mapper.BookMapper;
+import com.jena.bookapi.repository.BookRepository;
+import com.jena.bookapi.service.BookService;
+import com.jena.bookapi.service.CacheWarmUpService;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Redis Cache Configuration
  *
  * <p>Interview Points: 1. Redis provides distributed caching for scalability 2. Different TTL for
- * different cache types based on data volatility 3. JSON serialization for human-readable cached
- * data 4. Cache-aside pattern: application manages cache explicitly
+ * different cache types based on data volatility 3. Compact binary serialization by default, with
+ * the format version in the key prefix so rolling deploys never read incompatible values 4.
+ * Cache-aside pattern: application manages cache explicitly 5. A Caffeine near-cache in front of
+ * Redis serves hot entries without a network round trip 6. Tag-based invalidation evicts only the
+ * listing pages a write actually touches 7. Hot keys are recorded while serving and preloaded on
+ * the next startup, so deploys and Redis restarts do not start cold 8. Jittered TTLs and
+ * refresh-ahead keep hot entries from expiring together and from ever expiring under load 9. A
+ * shared Bloom filter answers "unknown ISBN" on the write path without a database query 10. The
+ * same configuration runs against a Redis Cluster (the "cluster" profile): keys a script touches
+ * together share a hash tag, and clears scan every master 11. The TTLs below are starting points:
+ * each cache's, and each category's, adapts within bounds to its observed update rate 12. Rows
+ * changed outside the API are evicted from Postgres notifications when db-invalidation is enabled
+ * 13. Books read far more than the rest are detected as they become hot and replicated on every
+ * node, so no single Redis key carries their traffic 14. Listing pages can prefetch the page after
+ * them, using only executor and connection capacity that foreground requests leave idle
  */
 @Configuration
-@EnableCaching
+@EnableScheduling // hot-key flushes and decay, ISBN filter builds, TTL adjustments
+@EnableConfigurationProperties(BookCacheProperties.class)
 @Profile("!test")
 public class CacheConfig {
 
+  private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
   /**
-   * Redis Cache Manager with custom configurations Interview Point: CacheManager is the main
-   * abstraction for cache operations
+   * Two-level Cache Manager with custom configurations Interview Point: CacheManager is the main
+   * abstraction for cache operations, so the near-cache is invisible to @Cacheable call sites
    */
   @Bean
-  public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+  public TwoLevelCacheManager cacheManager(
+      RedisConnectionFactory connectionFactory,
+      StringRedisTemplate redisTemplate,
+      BookCacheProperties properties,
+      HotKeyTracker hotKeyTracker,
+      AdaptiveTtlPolicy adaptiveTtlPolicy,
+      @Qualifier("taskExecutor") Executor taskExecutor) {
+    VersionedCacheSerializer valueSerializer = valueSerializer(properties);
+
+    Map<String, Duration> ttls = configuredTtls(properties);
+    // Default TTL: 30 minutes. Every TTL is jittered and extended by a short stale window in
+    // which expired entries are served while refreshed in the background.
+    RefreshAheadPolicy refreshPolicy =
+        new RefreshAheadPolicy(
+            ttls,
+            DEFAULT_TTL,
+            properties.getRefreshAhead(),
+            properties.getStaleIfError(),
+            taskExecutor);
+    // Entries are written with the TTL adapted to their cache's and category's update rate
+    refreshPolicy.setAdaptiveTtl(adaptiveTtlPolicy);
+
     // Default cache configuration
     RedisCacheConfiguration defaultConfig =
         RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(30)) // Default TTL: 30 minutes
+            .entryTtl(refreshPolicy.redisTtl(null))
+            // e.g. "book-api:book:bin3::42" - a format change moves to a fresh namespace
+            .computePrefixWith(
+                cacheName -> "book-api:" + cacheName + ":" + valueSerializer.formatId() + "::")
             .serializeKeysWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(
                     new StringRedisSerializer()))
             .serializeValuesWith(
-                RedisSerializationContext.SerializationPair.fromSerializer(
-                    new GenericJackson2JsonRedisSerializer()))
+                RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer))
             .disableCachingNullValues(); // Don't cache null values
 
     // Custom configurations for specific caches
     Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+    ttls.keySet()
+        .forEach(
+            cacheName ->
+                cacheConfigurations.put(
+                    cacheName, defaultConfig.entryTtl(refreshPolicy.redisTtl(cacheName))));
+
+    // Clearing a cache walks its keys with SCAN and removes them with UNLINK, never KEYS
+    RedisCacheWriter cacheWriter =
+        RedisCacheWriter.nonLockingRedisCacheWriter(
+            connectionFactory, new ScanUnlinkBatchStrategy(properties.getClearBatchSize()));
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(cacheWriter)
+            .cacheDefaults(defaultConfig)
+            .withInitialCacheConfigurations(cacheConfigurations)
+            .build();
+    redisCacheManager.initializeCaches();
+
+    // Listing pages are tagged with their filter and the books they order, so writes evict only
+    // the pages they affect. Tag sets live as long as the longest-lived tagged cache can adapt to.
+    return new TwoLevelCacheManager(
+        redisCacheManager,
+        redisTemplate,
+        properties,
+        new CacheTagIndex(redisTemplate, maxAdaptedTtl(ttls.get("books"), properties)),
+        Map.of(
+            "books", BookCacheTags.listingPage(),
+            "booksByCategory", BookCacheTags.listingPage(),
+            "bookSearch", BookCacheTags.listingPage()),
+        // Book bodies and stock levels carry the entity @Version, so a stale reload can never
+        // overwrite a newer entry
+        Map.of(
+            BookPageCache.BOOK_CACHE,
+            value -> value instanceof BookResponse book ? book.version() : null,
+            BookPageCache.STOCK_CACHE,
+            value -> value instanceof StockLevel stock ? stock.version() : null),
+        hotKeyTracker,
+        refreshPolicy);
+  }
+
+  /**
+   * Adapts each cache's TTL, and each category's, to its observed update rate Interview Point:
+   * book bodies are categorized by their category field and category pages by their filter
+   */
+  @Bean
+  public AdaptiveTtlPolicy adaptiveTtlPolicy(
+      StringRedisTemplate redisTemplate, BookCacheProperties properties) {
+    Map<String, Duration> ttls = configuredTtls(properties);
+    return new AdaptiveTtlPolicy(
+        redisTemplate,
+        properties.getAdaptiveTtl(),
+        cacheName -> ttls.getOrDefault(cacheName, DEFAULT_TTL),
+        Map.of(
+            BookPageCache.BOOK_CACHE,
+            (key, value) -> value instanceof BookResponse book ? book.category() : null,
+            "booksByCategory",
+            (key, value) -> pageCategory(key)));
+  }
+
+  /** Runtime view and overrides of effective cache TTLs. */
+  @Bean
+  public CacheTtlEndpoint cacheTtlEndpoint(AdaptiveTtlPolicy adaptiveTtlPolicy) {
+    return new CacheTtlEndpoint(adaptiveTtlPolicy);
+  }
+
+  /** Counts reads per key and periodically merges them into a cluster-wide ranking in Redis. */
+  @Bean
+  public HotKeyTracker hotKeyTracker(
+      StringRedisTemplate redisTemplate, BookCacheProperties properties) {
+    return new HotKeyTracker(redisTemplate, properties.getWarmUp());
+  }
 
-    // Books cache - longer TTL as book data changes less frequently
-    cacheConfigurations.put("books", defaultConfig.entryTtl(Duration.ofHours(2)));
+  /**
+   * Shared filter of known ISBNs Interview Point: built in the background on first start and
+   * rebuilt whenever Redis loses it; until then every ISBN check falls back to the database
+   */
+  @Bean
+  public IsbnBloomFilter isbnBloomFilter(
+      StringRedisTemplate redisTemplate,
+      BookRepository bookRepository,
+      BookCacheProperties properties) {
+    return new IsbnBloomFilter(redisTemplate, bookRepository, properties.getIsbnFilter());
+  }
 
-    // Individual book cache - medium TTL
-    cacheConfigurations.put("book", defaultConfig.entryTtl(Duration.ofMinutes(60)));
+  /**
+   * Evicts books and pages for rows changed outside the API Interview Point: listens on a dedicated
+   * unpooled connection, named so it can be told apart from the pool in pg_stat_activity
+   */
+  @Bean
+  public BookChangeListener bookChangeListener(
+      DataSourceProperties dataSourceProperties,
+      BookCacheInvalidator bookCacheInvalidator,
+      TwoLevelCacheManager cacheManager,
+      BookCacheProperties properties) {
+    DriverManagerDataSource listenerDataSource =
+        new DriverManagerDataSource(
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword());
+    Properties connectionProperties = new Properties();
+    connectionProperties.setProperty("ApplicationName", "book-api-listener");
+    listenerDataSource.setConnectionProperties(connectionProperties);
+    return new BookChangeListener(
+        listenerDataSource, bookCacheInvalidator, cacheManager, properties.getDbInvalidation());
+  }
 
-    // Category-based cache - shorter TTL as it might change more often
-    cacheConfigurations.put("booksByCategory", defaultConfig.entryTtl(Duration.ofMinutes(15)));
+  /** Samples BookService reads and writes into an anonymized trace, when enabled. */
+  @Bean
+  public CacheTraceRecorder cacheTraceRecorder(BookCacheProperties properties) {
+    return new CacheTraceRecorder(properties.getTrace());
+  }
 
-    return RedisCacheManager.builder(connectionFactory)
-        .cacheDefaults(defaultConfig)
-        .withInitialCacheConfigurations(cacheConfigurations)
-        .build();
+  /**
+   * Per-node replica of the hottest books Interview Point: also a MeterBinder, so the hot set is
+   * exported as soon as the registry binds it
+   */
+  @Bean
+  public HotBookReplica hotBookReplica(BookCacheProperties properties) {
+    return new HotBookReplica(properties.getHotKeys());
+  }
+
+  /**
+   * Background next-page prefetch, when enabled Interview Point: shares the async executor with
+   * refresh-ahead, and backs off as soon as that executor or the connection pool is busy
+   */
+  @Bean
+  public PagePrefetcher pagePrefetcher(
+      TwoLevelCacheManager cacheManager,
+      @Qualifier("taskExecutor") Executor taskExecutor,
+      DataSource dataSource,
+      BookCacheProperties properties) {
+    return new PagePrefetcher(cacheManager, taskExecutor, dataSource, properties.getPrefetch());
+  }
+
+  /**
+   * Preloads hot keys at startup Interview Point: registered as an ApplicationRunner, so it
+   * finishes before the readiness probe reports UP
+   */
+  @Bean
+  public CacheWarmUpService cacheWarmUpService(
+      HotKeyTracker hotKeyTracker,
+      BookPageCache bookPageCache,
+      BookRepository bookRepository,
+      BookMapper bookMapper,
+      BookService bookService,
+      BookCacheProperties properties) {
+    return new CacheWarmUpService(
+        hotKeyTracker,
+        bookPageCache,
+        bookRepository,
+        bookMapper,
+        bookService,
+        properties.getWarmUp());
+  }
+
+  /** Admin endpoint to list, inspect and evict cache entries. */
+  @Bean
+  public CacheAdminEndpoint cacheAdminEndpoint(TwoLevelCacheManager cacheManager) {
+    return new CacheAdminEndpoint(cacheManager);
+  }
+
+  /** Reported as the "cache" component of /actuator/health. */
+  @Bean
+  public CacheHealthIndicator cacheHealthIndicator(TwoLevelCacheManager cacheManager) {
+    return new CacheHealthIndicator(cacheManager);
+  }
+
+  @Bean
+  public CacheWarmUpEndpoint cacheWarmUpEndpoint(CacheWarmUpService cacheWarmUpService) {
+    return new CacheWarmUpEndpoint(cacheWarmUpService);
+  }
+
+  /** Configured TTL per cache name; caches not listed use {@link #DEFAULT_TTL}. */
+  private static Map<String, Duration> configuredTtls(BookCacheProperties properties) {
+    Duration bookTtl = Duration.ofMinutes(60);
+    return Map.of(
+        // Books cache - longer TTL as book data changes less frequently
+        "books",
+        Duration.ofHours(2),
+        // Individual book cache - medium TTL
+        BookPageCache.BOOK_CACHE,
+        bookTtl,
+        // Stock levels - outlive the bodies they complete, at any TTL the bodies adapt to, since a
+        // body without one is reloaded; every stock change rewrites its entry anyway
+        BookPageCache.STOCK_CACHE,
+        maxAdaptedTtl(bookTtl, properties).multipliedBy(3).dividedBy(2),
+        // Category-based cache - shorter TTL as it might change more often
+        "booksByCategory",
+        Duration.ofMinutes(15),
+        // Negative entries for unknown ids and ISBNs - short, so a wrong "missing" is brief
+        MissingBookCache.CACHE_NAME,
+        properties.getNegativeTtl());
+  }
+
+  /** Longest TTL a cache configured with {@code ttl} can adapt to. */
+  private static Duration maxAdaptedTtl(Duration ttl, BookCacheProperties properties) {
+    BookCacheProperties.AdaptiveTtl adaptive = properties.getAdaptiveTtl();
+    double factor = adaptive.isEnabled() ? Math.max(1.0, adaptive.getMaxFactor()) : 1.0;
+    return Duration.ofMillis(Math.round(ttl.toMillis() * factor));
+  }
+
+  /** Category filter of a category page key, given as the key or its string form from Redis. */
+  private static String pageCategory(Object key) {
+    if (key instanceof PageCacheKey page) {
+      return page.category();
+    }
+    if (key instanceof String value && value.startsWith("category=")) {
+      try {
+        return PageCacheKey.parse(value).category();
+      } catch (IllegalArgumentException ex) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static VersionedCacheSerializer valueSerializer(BookCacheProperties properties) {
+    return switch (properties.getFormat()) {
+      case BINARY -> new BinaryCacheSerializer();
+      case JSON -> new JsonCacheSerializer();
+    };
+  }
+
+  /**
+   * Subscribes this node to near-cache invalidations Interview Point: the listener container owns a
+   * dedicated connection, so pub/sub never blocks cache reads
+   */
+  @Bean
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      TwoLevelCacheManager cacheManager,
+      BookCacheProperties properties) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        cacheManager, new ChannelTopic(properties.getInvalidationChannel()));
+    return container;
   }
 }
@@ -0,0 +1,57 @@
+package com.jena.bookapi.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+
+/**
+ * Explicit order of the caching and transaction interceptors
+ *
+ * <p>Interview Points: 1. Both @EnableCaching and @EnableTransactionManagement default to the
+ * lowest precedence, so with equal orders which proxy layer runs first is left to registration
+ * order 2. A lower order is an outer layer: the cache interceptor wraps the transaction
+ * interceptor, so a cache hit returns before a transaction begins or a Hikari connection is
+ * borrowed 3. Method security (@PreAuthorize) orders itself near the highest precedence and stays
+ * outermost, so a cache hit is still authorized 4. Both annotations live only here: a second
+ * @EnableCaching elsewhere would make the order depend on which one is processed first 5. Startup
+ * fails if the advisors end up in the wrong order 6. BookService reads consult the cache
+ * programmatically, inside a SUPPORTS boundary that borrows nothing until a loader queries
+ */
+@Configuration
+@EnableCaching(order = InterceptorOrderConfig.CACHE_ORDER)
+@EnableTransactionManagement(order = InterceptorOrderConfig.TRANSACTION_ORDER)
+public class InterceptorOrderConfig {
+
+  /** Order of the @Cacheable interceptor: outside the transaction. */
+  public static final int CACHE_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+  /** Order of the @Transactional interceptor: innermost, next to the target method. */
+  public static final int TRANSACTION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+  /** Fail startup unless the cache advisor runs outside the transaction advisor. */
+  @Bean
+  public SmartInitializingSingleton interceptorOrderCheck(
+      ObjectProvider<BeanFactoryCacheOperationSourceAdvisor> cacheAdvisors,
+      ObjectProvider<BeanFactoryTransactionAttributeSourceAdvisor> transactionAdvisors) {
+    return () ->
+        cacheAdvisors.forEach(
+            cacheAdvisor ->
+                transactionAdvisors.forEach(
+                    transactionAdvisor -> {
+                      if (cacheAdvisor.getOrder() >= transactionAdvisor.getOrder()) {
+                        throw new IllegalStateException(
+                            "Cache interceptor (order "
+                                + cacheAdvisor.getOrder()
+                                + ") must run outside the transaction interceptor (order "
+                                + transactionAdvisor.getOrder()
+                                + "), or cache hits borrow a database connection");
+                      }
+                    }));
+  }
+}
@@ -0,0 +1,61 @@
+package com.jena.bookapi.config;
+
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.NettyCustomizer;
+import io.netty.channel.Channel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Lettuce client tuning for cache traffic
+ *
+ * <p>Interview Points: 1. Lettuce multiplexes every non-blocking command over one shared native
+ * connection per node; the pool only hands out dedicated connections for pipelines and
+ * transactions, so request threads never queue for a connection on plain cache reads 2. Commands
+ * written by many threads in the same event-loop pass are flushed to the socket together, so
+ * concurrent requests share system calls and packets instead of paying one each 3. A flush is still
+ * forced every few hundred commands, and any pass with no further writes flushes immediately, so
+ * batching adds microseconds at most 4. Per-command latency (GET, MGET, EVAL, ...) is exported by
+ * Lettuce's Micrometer recorder as lettuce.command.completion and lettuce.command.firstresponse
+ */
+@Configuration
+@Profile("!test")
+public class RedisClientConfig {
+
+  /**
+   * Coalesce socket flushes Interview Point: the handler sits next to the socket, so it sees the
+   * flushes of every command Lettuce writes on the channel
+   */
+  @Bean
+  public ClientResourcesBuilderCustomizer flushConsolidationCustomizer(
+      BookCacheProperties properties) {
+    BookCacheProperties.Client settings = properties.getClient();
+    return builder -> {
+      if (settings.isFlushConsolidation()) {
+        builder.nettyCustomizer(
+            new NettyCustomizer() {
+              @Override
+              public void afterChannelInitialized(Channel channel) {
+                channel
+                    .pipeline()
+                    .addFirst(new FlushConsolidationHandler(settings.getMaxBatchedFlushes(), true));
+              }
+            });
+      }
+    };
+  }
+
+  /**
+   * Replaces the auto-configured defaults so latency is also published as histogram buckets, which
+   * Prometheus can aggregate across nodes
+   */
+  @Bean
+  public MicrometerOptions micrometerOptions(BookCacheProperties properties) {
+    return MicrometerOptions.builder()
+        .histogram(properties.getClient().isLatencyHistogram())
+        .build();
+  }
+}
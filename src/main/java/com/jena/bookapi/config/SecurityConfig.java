@@ -67,7 +67,7 @@ public class SecurityConfig {
                     // API endpoints with role-based access
                     .requestMatchers(HttpMethod.GET, "/api/v1/books/**")
                     .hasAnyRole("USER", "LIBRARIAN", "ADMIN")
-                    .requestMatchers(HttpMethod.POST, "/api/v1/books")
+                    .requestMatchers(HttpMethod.POST, "/api/v1/books", "/api/v1/books/isbn/check")
                     .hasAnyRole("LIBRARIAN", "ADMIN")
                     .requestMatchers(HttpMethod.PUT, "/api/v1/books/**")
                     .hasAnyRole("LIBRARIAN", "ADMIN")
@@ -3,8 +3,10 @@ package com.jena.bookapi.controller;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import com.jena.bookapi.cache.StaleReads;
 import com.jena.bookapi.dto.BookRequest;
 import com.jena.bookapi.dto.BookResponse;
+import com.jena.bookapi.dto.IsbnCheckRequest;
 import com.jena.bookapi.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -33,7 +37,8 @@ import org.springframework.web.bind.annotation.*;
  * <p>Interview Points: 1. @RestController combines @Controller + @ResponseBody 2. @RequestMapping
  * defines base path and common attributes 3. HATEOAS provides hypermedia links for API
  * discoverability 4. @Valid triggers Bean Validation on request bodies 5. ResponseEntity allows
- * full control over HTTP response
+ * full control over HTTP response 6. Cached reads answered from expired entries while the database
+ * is unavailable carry a stale marker header instead of failing
  */
 @RestController
 @RequestMapping("/api/v1/books")
@@ -44,6 +49,9 @@ public class BookController {
 
   private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+  /** Set to "true" on responses built from expired cache entries. */
+  public static final String STALE_HEADER = "X-Cache-Stale";
+
   private final BookService bookService;
 
   public BookController(BookService bookService) {
@@ -63,7 +71,9 @@ public class BookController {
     logger.info(
         "GET /api/v1/books - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-    Page<BookResponse> books = bookService.getAllBooks(pageable);
+    StaleReads.Tracked<Page<BookResponse>> result =
+        StaleReads.track(() -> bookService.getAllBooks(pageable));
+    Page<BookResponse> books = result.value();
 
     // Convert to HATEOAS PagedModel
     PagedModel<EntityModel<BookResponse>> pagedModel =
@@ -91,7 +101,7 @@ public class BookController {
     // Add navigation links
     pagedModel.add(linkTo(methodOn(BookController.class).getAllBooks(pageable)).withSelfRel());
 
-    return ResponseEntity.ok(pagedModel);
+    return ok(result.stale()).body(pagedModel);
   }
 
   /** Get book by ID with HATEOAS links */
@@ -104,7 +114,8 @@ public class BookController {
 
     logger.info("GET /api/v1/books/{}", id);
 
-    BookResponse book = bookService.getBookById(id);
+    StaleReads.Tracked<BookResponse> result = StaleReads.track(() -> bookService.getBookById(id));
+    BookResponse book = result.value();
 
     EntityModel<BookResponse> bookModel =
         EntityModel.of(book)
@@ -115,9 +126,47 @@ public class BookController {
             .add(linkTo(methodOn(BookController.class).updateBook(id, null)).withRel("update"))
             .add(linkTo(methodOn(BookController.class).deleteBook(id)).withRel("delete"));
 
+    return ok(result.stale()).body(bookModel);
+  }
+
+  /** Get book by ISBN with HATEOAS links */
+  @GetMapping("/isbn/{isbn}")
+  @Operation(summary = "Get book by ISBN", description = "Retrieve a specific book by its ISBN")
+  @ApiResponse(responseCode = "200", description = "Book found")
+  @ApiResponse(responseCode = "404", description = "Book not found")
+  public ResponseEntity<EntityModel<BookResponse>> getBookByIsbn(
+      @Parameter(description = "Book ISBN") @PathVariable String isbn) {
+
+    logger.info("GET /api/v1/books/isbn/{}", isbn);
+
+    BookResponse book = bookService.getBookByIsbn(isbn);
+
+    EntityModel<BookResponse> bookModel =
+        EntityModel.of(book)
+            .add(linkTo(methodOn(BookController.class).getBookByIsbn(book.isbn())).withSelfRel())
+            .add(linkTo(methodOn(BookController.class).getBookById(book.id())).withRel("book"));
+
     return ResponseEntity.ok(bookModel);
   }
 
+  /**
+   * Check which ISBNs already exist Interview Point: lets bulk imports filter a batch of titles in
+   * one request, mostly answered by the Bloom filter rather than the database
+   */
+  @PostMapping("/isbn/check")
+  @Operation(
+      summary = "Check ISBNs",
+      description = "Report which of up to 1000 ISBNs already belong to a book")
+  @ApiResponse(responseCode = "200", description = "Existence of each ISBN, keyed by ISBN")
+  @ApiResponse(responseCode = "400", description = "Invalid input")
+  public ResponseEntity<Map<String, Boolean>> checkIsbns(
+      @Valid @RequestBody IsbnCheckRequest request) {
+
+    logger.info("POST /api/v1/books/isbn/check - {} ISBNs", request.isbns().size());
+
+    return ResponseEntity.ok(bookService.checkIsbns(request.isbns()));
+  }
+
   /** Create new book Interview Point: @Valid triggers validation, @RequestBody deserializes JSON */
   @PostMapping
   @Operation(summary = "Create new book", description = "Create a new book in the system")
@@ -188,7 +237,9 @@ public class BookController {
 
     logger.info("GET /api/v1/books/search?q={}", q);
 
-    Page<BookResponse> books = bookService.searchBooks(q, pageable);
+    StaleReads.Tracked<Page<BookResponse>> result =
+        StaleReads.track(() -> bookService.searchBooks(q, pageable));
+    Page<BookResponse> books = result.value();
 
     PagedModel<EntityModel<BookResponse>> pagedModel =
         PagedModel.of(
@@ -206,7 +257,7 @@ public class BookController {
                 books.getTotalElements(),
                 books.getTotalPages()));
 
-    return ResponseEntity.ok(pagedModel);
+    return ok(result.stale()).body(pagedModel);
   }
 
   /** Get books by category */
@@ -218,7 +269,9 @@ public class BookController {
 
     logger.info("GET /api/v1/books/category/{}", category);
 
-    Page<BookResponse> books = bookService.getBooksByCategory(category, pageable);
+    StaleReads.Tracked<Page<BookResponse>> result =
+        StaleReads.track(() -> bookService.getBooksByCategory(category, pageable));
+    Page<BookResponse> books = result.value();
 
     PagedModel<EntityModel<BookResponse>> pagedModel =
         PagedModel.of(
@@ -236,7 +289,7 @@ public class BookController {
                 books.getTotalElements(),
                 books.getTotalPages()));
 
-    return ResponseEntity.ok(pagedModel);
+    return ok(result.stale()).body(pagedModel);
   }
 
   /**
@@ -254,4 +307,18 @@ public class BookController {
 
     return bookService.getLowStockBooksAsync(threshold).thenApply(ResponseEntity::ok);
   }
+
+  /**
+   * 200 builder, marked stale if needed Interview Point: the obsolete but widely understood
+   * Warning 110 is sent alongside an explicit header, since clients rarely surface Warning
+   */
+  private static ResponseEntity.BodyBuilder ok(boolean stale) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    if (stale) {
+      builder
+          .header(STALE_HEADER, "true")
+          .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+    }
+    return builder;
+  }
 }
@@ -49,9 +49,7 @@ public record BookRequest(
     if (author != null) {
       author = author.trim();
     }
-    if (isbn != null) {
-      isbn = isbn.replaceAll("[^0-9X]", "").toUpperCase();
-    }
+    isbn = normalizeIsbn(isbn);
     if (category != null) {
       category = category.trim();
     }
@@ -59,4 +57,9 @@ public record BookRequest(
       description = description.trim();
     }
   }
+
+  /** The form ISBNs are stored in: hyphens, spaces and any prefix stripped. */
+  public static String normalizeIsbn(String isbn) {
+    return isbn == null ? null : isbn.replaceAll("[^0-9X]", "").toUpperCase();
+  }
 }
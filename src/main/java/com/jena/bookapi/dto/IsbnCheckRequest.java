@@ -0,0 +1,25 @@
+package com.jena.bookapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Batch ISBN existence check request
+ *
+ * <p>Interview Points: 1. ISBNs are normalized exactly as {@link BookRequest} normalizes them, so a
+ * check matches what a create would store 2. The batch size is capped, keeping the single IN query
+ * behind it bounded
+ */
+public record IsbnCheckRequest(
+    @NotEmpty(message = "At least one ISBN is required")
+        @Size(max = 1000, message = "At most 1000 ISBNs can be checked at once")
+        List<@NotBlank(message = "ISBN must not be blank") String> isbns) {
+
+  public IsbnCheckRequest {
+    if (isbns != null) {
+      isbns = isbns.stream().map(BookRequest::normalizeIsbn).toList();
+    }
+  }
+}
@@ -5,12 +5,13 @@ package com.jena.bookapi.exception;
  *
  * <p>Interview Points: 1. Custom exceptions provide better error handling and debugging 2.
  * RuntimeException doesn't require try-catch (unchecked exception) 3. Used with @ControllerAdvice
- * for global exception handling
+ * for global exception handling 4. A 404 is expected control flow, so the common constructor skips
+ * the stack trace; probes for missing books then cost no stack walk
  */
 public class BookNotFoundException extends RuntimeException {
 
   public BookNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 
   public BookNotFoundException(String message, Throwable cause) {
@@ -4,9 +4,12 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.security.access.AccessDeniedException;
@@ -52,6 +55,21 @@ public class GlobalExceptionHandler {
     return problemDetail;
   }
 
+  /**
+   * Handle unique index violations Interview Point: the ISBN pre-check and the insert are not
+   * atomic, so a concurrent create, or one the ISBN filter waved through, is caught by the unique
+   * index and reported as the same conflict
+   */
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ProblemDetail handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+    String cause = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    if (cause == null || !cause.toLowerCase(Locale.ROOT).contains("isbn")) {
+      return handleGenericException(ex);
+    }
+    return handleDuplicateIsbnException(
+        new DuplicateIsbnException("A book with this ISBN already exists", ex));
+  }
+
   /**
    * Handle validation errors from @Valid Interview Point: MethodArgumentNotValidException thrown by
    * Spring validation
@@ -2,6 +2,7 @@ package com.jena.bookapi.repository;
 
 import com.jena.bookapi.entity.Book;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -34,6 +35,20 @@ public interface BookRepository extends JpaRepository<Book, Long> {
    */
   boolean existsByIsbn(String isbn);
 
+  /**
+   * Which of the given ISBNs exist Interview Point: one IN query answers a whole batch, and only
+   * the ISBN column is selected
+   */
+  @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+  List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+  /**
+   * ISBNs in id order after {@code afterId} Interview Point: keyset pagination keeps every batch an
+   * index range scan, where OFFSET would re-read all earlier rows
+   */
+  @Query("SELECT b.id AS id, b.isbn AS isbn FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+  List<IsbnEntry> findIsbnsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
   /**
    * Find books by author (case-insensitive) Interview Point: IgnoreCase suffix generates UPPER()
    * comparison
@@ -76,4 +91,11 @@ public interface BookRepository extends JpaRepository<Book, Long> {
    * results
    */
   List<Book> findTop10ByOrderByPriceDesc();
+
+  /** Id and ISBN of a book, projected without loading the entity */
+  interface IsbnEntry {
+    Long getId();
+
+    String getIsbn();
+  }
 }
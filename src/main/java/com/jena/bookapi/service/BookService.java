@@ -1,5 +1,13 @@
 package com.jena.bookapi.service;
 
+import com.jena.bookapi.cache.BookCacheInvalidator;
+import com.jena.bookapi.cache.BookPageCache;
+import com.jena.bookapi.cache.CacheTraceRecorder;
+import com.jena.bookapi.cache.HotBookReplica;
+import com.jena.bookapi.cache.IsbnBloomFilter;
+import com.jena.bookapi.cache.MissingBookCache;
+import com.jena.bookapi.cache.PageCacheKey;
+import com.jena.bookapi.cache.PagePrefetcher;
 import com.jena.bookapi.dto.BookRequest;
 import com.jena.bookapi.dto.BookResponse;
 import com.jena.bookapi.entity.Book;
@@ -7,28 +15,41 @@ import com.jena.bookapi.exception.BookNotFoundException;
 import com.jena.bookapi.exception.DuplicateIsbnException;
 import com.jena.bookapi.mapper.BookMapper;
 import com.jena.bookapi.repository.BookRepository;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Book Service Layer with comprehensive business logic
  *
  * <p>Interview Points: 1. @Service is a specialization of @Component for business logic layer
- * 2. @Transactional ensures ACID properties and automatic rollback on exceptions
- * 3. @Cacheable/@CacheEvict improve performance by caching frequently accessed data
- * 4. @PreAuthorize provides method-level security based on SpEL expressions 5. @Async enables
- * non-blocking operations with CompletableFuture
+ * 2. @Transactional ensures ACID properties and automatic rollback on exceptions 3. Reads are
+ * cached through {@link BookPageCache}, and writes go through {@link BookCacheInvalidator}, which
+ * touches only the entries they affect 4. @PreAuthorize provides method-level security based on
+ * SpEL expressions 5. @Async enables non-blocking operations with CompletableFuture 6. Cached reads
+ * open no transaction of their own: each repository call on a miss runs in its own, so a full pool
+ * fails inside the cache loader, where an expired entry can still be served, rather than before
+ * the cache is even consulted 7. Any @Cacheable method is intercepted outside its transaction, see
+ * {@link com.jena.bookapi.config.InterceptorOrderConfig}; a cached read added here still needs
+ * SUPPORTS, or the class-level default borrows a connection before the cache is consulted 8. Reads
+ * and writes are reported to {@link CacheTraceRecorder}, which records a sample for offline replay
+ * 9. Listing pages are reported to {@link PagePrefetcher}, which can load the following page in the
+ * background before the client asks for it
  */
 @Service
 @Transactional(readOnly = true) // Default to read-only transactions for better performance
@@ -38,66 +59,168 @@ public class BookService {
 
   private final BookRepository bookRepository;
   private final BookMapper bookMapper;
+  private final BookCacheInvalidator bookCacheInvalidator;
+  private final BookPageCache bookPageCache;
+  private final MissingBookCache missingBookCache;
+  private final IsbnBloomFilter isbnBloomFilter;
+  private final CacheTraceRecorder cacheTraceRecorder;
+  private final HotBookReplica hotBookReplica;
+  private final PagePrefetcher pagePrefetcher;
 
-  public BookService(BookRepository bookRepository, BookMapper bookMapper) {
+  public BookService(
+      BookRepository bookRepository,
+      BookMapper bookMapper,
+      BookCacheInvalidator bookCacheInvalidator,
+      BookPageCache bookPageCache,
+      MissingBookCache missingBookCache,
+      IsbnBloomFilter isbnBloomFilter,
+      CacheTraceRecorder cacheTraceRecorder,
+      HotBookReplica hotBookReplica,
+      PagePrefetcher pagePrefetcher) {
     this.bookRepository = bookRepository;
     this.bookMapper = bookMapper;
+    this.bookCacheInvalidator = bookCacheInvalidator;
+    this.bookPageCache = bookPageCache;
+    this.missingBookCache = missingBookCache;
+    this.isbnBloomFilter = isbnBloomFilter;
+    this.cacheTraceRecorder = cacheTraceRecorder;
+    this.hotBookReplica = hotBookReplica;
+    this.pagePrefetcher = pagePrefetcher;
   }
 
   /**
-   * Get all books with pagination Interview Point: @Cacheable caches results based on method
-   * parameters
+   * Get all books with pagination Interview Point: the page is cached as an id list keyed by sort,
+   * page and size; book bodies are shared with the per-book cache
    */
-  @Cacheable(value = "books", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Page<BookResponse> getAllBooks(Pageable pageable) {
-    logger.debug("Fetching books with pagination: {}", pageable);
-    return bookRepository.findAll(pageable).map(bookMapper::toResponse);
+    PageCacheKey key = PageCacheKey.of(null, pageable);
+    Page<BookResponse> page = allBooksPage(key, pageable);
+    cacheTraceRecorder.pageRead(key, page);
+    pagePrefetcher.pageServed(
+        "books", key, page, next -> allBooksPage(PageCacheKey.of(null, next), next));
+    return page;
   }
 
-  /** Get book by ID Interview Point: @Cacheable with condition prevents caching null results */
-  @Cacheable(value = "book", key = "#id", condition = "#result != null")
+  private Page<BookResponse> allBooksPage(PageCacheKey key, Pageable pageable) {
+    return bookPageCache.getPage(
+        "books",
+        key,
+        pageable,
+        () -> {
+          logger.debug("Fetching books with pagination: {}", pageable);
+          return bookRepository.findAll(pageable).map(bookMapper::toResponse);
+        },
+        this::loadBooks);
+  }
+
+  /**
+   * Get book by ID Interview Point: the body and stock level are cached apart and assembled by
+   * {@link BookPageCache}; misses go through the cache's single-flight load, so a hot book expiring
+   * triggers one query, and missing ids are remembered briefly in the negative cache instead; the
+   * few books read far more than the rest are served from a per-node {@link HotBookReplica}
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public BookResponse getBookById(Long id) {
+    BookResponse book =
+        hotBookReplica.get(id, () -> bookPageCache.getBook(id, () -> loadBook(id)));
+    cacheTraceRecorder.bookRead(book);
+    return book;
+  }
+
+  private BookResponse loadBook(Long id) {
     MDC.put("bookId", String.valueOf(id));
     try {
+      if (missingBookCache.isMissingId(id)) {
+        throw new BookNotFoundException("Book not found with ID: " + id);
+      }
       logger.info("Fetching book by ID: {}", id);
       Book book =
           bookRepository
               .findById(id)
-              .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+              .orElseThrow(
+                  () -> {
+                    missingBookCache.markMissingId(id);
+                    return new BookNotFoundException("Book not found with ID: " + id);
+                  });
       return bookMapper.toResponse(book);
     } finally {
       MDC.remove("bookId");
     }
   }
 
-  /** Create new book Interview Point: @Transactional without readOnly enables write operations */
+  /**
+   * Get book by ISBN Interview Point: ISBNs the Bloom filter has never seen, and unknown ISBNs
+   * remembered briefly, are answered without the database; the ISBN is normalized first, as it is
+   * on writes, so a hyphenated ISBN finds the stored book and is never remembered as missing
+   */
+  public BookResponse getBookByIsbn(String rawIsbn) {
+    String isbn = BookRequest.normalizeIsbn(rawIsbn);
+    if (!isbnBloomFilter.mightContain(isbn) || missingBookCache.isMissingIsbn(isbn)) {
+      throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+    }
+    logger.debug("Fetching book by ISBN: {}", isbn);
+    return bookRepository
+        .findByIsbn(isbn)
+        .map(bookMapper::toResponse)
+        .orElseThrow(
+            () -> {
+              missingBookCache.markMissingIsbn(isbn);
+              return new BookNotFoundException("Book not found with ISBN: " + isbn);
+            });
+  }
+
+  /**
+   * Check which ISBNs exist Interview Point: the Bloom filter rules out unknown ISBNs without the
+   * database, and the rest are resolved with one IN query
+   */
+  @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+  public Map<String, Boolean> checkIsbns(List<String> isbns) {
+    Set<String> candidates = isbnBloomFilter.mightContainAll(isbns);
+    logger.debug("Checking {} ISBNs, {} possibly known", isbns.size(), candidates.size());
+    Set<String> existing =
+        candidates.isEmpty()
+            ? Set.of()
+            : new HashSet<>(bookRepository.findExistingIsbns(candidates));
+    Map<String, Boolean> result = new LinkedHashMap<>();
+    isbns.forEach(isbn -> result.put(isbn, existing.contains(isbn)));
+    return result;
+  }
+
+  /**
+   * Create new book Interview Point: @Transactional without readOnly enables write operations; only
+   * the unfiltered listing and the book's category change membership, so only they are evicted; the
+   * duplicate check only queries the database for ISBNs the Bloom filter may have seen
+   */
   @Transactional
   @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
-  @CacheEvict(value = "books", allEntries = true) // Clear cache after modification
   public BookResponse createBook(BookRequest request) {
     logger.info("Creating new book with ISBN: {}", request.isbn());
 
-    // Business validation
-    if (bookRepository.existsByIsbn(request.isbn())) {
+    // Business validation; the unique index still rejects a duplicate that races this check
+    if (isbnBloomFilter.mightContain(request.isbn())
+        && bookRepository.existsByIsbn(request.isbn())) {
       throw new DuplicateIsbnException("Book with ISBN " + request.isbn() + " already exists");
     }
 
     Book book = bookMapper.toEntity(request);
     Book savedBook = bookRepository.save(book);
+    isbnBloomFilter.add(savedBook.getIsbn());
 
     logger.info("Successfully created book with ID: {}", savedBook.getId());
-    return bookMapper.toResponse(savedBook);
+    BookResponse response = bookMapper.toResponse(savedBook);
+    bookCacheInvalidator.bookCreated(response);
+    cacheTraceRecorder.bookWritten('C', response.id(), response.category(), null);
+    return response;
   }
 
   /**
-   * Update existing book Interview Point: Optimistic locking prevents lost updates through @Version
+   * Update existing book Interview Point: Optimistic locking prevents lost updates
+   * through @Version; the book entry is evicted, or overwritten after commit in write-through mode,
+   * and only the pages that list it are evicted
    */
   @Transactional
   @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
-  @CacheEvict(
-      value = {"book", "books"},
-      key = "#id",
-      allEntries = true)
   public BookResponse updateBook(Long id, BookRequest request) {
     logger.info("Updating book with ID: {}", id);
 
@@ -106,51 +229,108 @@ public class BookService {
             .findById(id)
             .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
 
-    // Check for ISBN conflicts (excluding current book)
-    bookRepository
-        .findByIsbn(request.isbn())
-        .filter(book -> !book.getId().equals(id))
-        .ifPresent(
-            book -> {
-              throw new DuplicateIsbnException("ISBN " + request.isbn() + " is already in use");
-            });
+    // Check for ISBN conflicts (excluding current book); an unchanged or never-seen ISBN cannot
+    // conflict
+    boolean isbnChanged = !request.isbn().equals(existingBook.getIsbn());
+    if (isbnChanged && isbnBloomFilter.mightContain(request.isbn())) {
+      bookRepository
+          .findByIsbn(request.isbn())
+          .filter(book -> !book.getId().equals(id))
+          .ifPresent(
+              book -> {
+                throw new DuplicateIsbnException("ISBN " + request.isbn() + " is already in use");
+              });
+    }
 
+    BookResponse previous = bookMapper.toResponse(existingBook);
     bookMapper.updateEntity(existingBook, request);
-    Book updatedBook = bookRepository.save(existingBook);
+    // Flush so @Version is incremented now and the response carries the committed version
+    Book updatedBook = bookRepository.saveAndFlush(existingBook);
+    if (isbnChanged) {
+      isbnBloomFilter.add(updatedBook.getIsbn());
+    }
 
     logger.info("Successfully updated book with ID: {}", id);
-    return bookMapper.toResponse(updatedBook);
+    BookResponse response = bookMapper.toResponse(updatedBook);
+    bookCacheInvalidator.bookUpdated(previous, response);
+    cacheTraceRecorder.bookWritten(
+        'U',
+        id,
+        response.category(),
+        Objects.equals(previous.category(), response.category()) ? null : previous.category());
+    return response;
   }
 
   /** Delete book Interview Point: @PreAuthorize restricts access to admin users only */
   @Transactional
   @PreAuthorize("hasRole('ADMIN')")
-  @CacheEvict(
-      value = {"book", "books"},
-      key = "#id",
-      allEntries = true)
   public void deleteBook(Long id) {
     logger.info("Deleting book with ID: {}", id);
 
-    if (!bookRepository.existsById(id)) {
-      throw new BookNotFoundException("Book not found with ID: " + id);
-    }
+    // Load rather than existsById: the category is needed to evict the right listing pages
+    Book book =
+        bookRepository
+            .findById(id)
+            .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
 
-    bookRepository.deleteById(id);
+    bookRepository.delete(book);
+    bookCacheInvalidator.bookDeleted(id, book.getCategory());
+    cacheTraceRecorder.bookWritten('D', id, book.getCategory(), null);
     logger.info("Successfully deleted book with ID: {}", id);
   }
 
-  /** Search books by title or author */
+  /**
+   * Search books by title or author Interview Point: the double-wildcard LIKE scans the table, so
+   * results are cached per normalized term, page and sort, and the normalized term is what runs
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Page<BookResponse> searchBooks(String searchTerm, Pageable pageable) {
-    logger.debug("Searching books with term: {}", searchTerm);
-    return bookRepository.searchByTitleOrAuthor(searchTerm, pageable).map(bookMapper::toResponse);
+    PageCacheKey key = PageCacheKey.search(searchTerm, pageable);
+    Page<BookResponse> page =
+        bookPageCache.getPage(
+            "bookSearch",
+            key,
+            pageable,
+            () -> {
+              logger.debug("Searching books with term: {}", key.query());
+              return bookRepository
+                  .searchByTitleOrAuthor(key.query(), pageable)
+                  .map(bookMapper::toResponse);
+            },
+            this::loadBooks);
+    cacheTraceRecorder.pageRead(key, page);
+    return page;
   }
 
-  /** Get books by category */
-  @Cacheable(value = "booksByCategory", key = "#category + '-' + #pageable.pageNumber")
+  /** Get books by category, cached as id lists like {@link #getAllBooks} */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Page<BookResponse> getBooksByCategory(String category, Pageable pageable) {
-    logger.debug("Fetching books by category: {}", category);
-    return bookRepository.findByCategory(category, pageable).map(bookMapper::toResponse);
+    PageCacheKey key = PageCacheKey.of(category, pageable);
+    Page<BookResponse> page = categoryPage(key, pageable);
+    cacheTraceRecorder.pageRead(key, page);
+    pagePrefetcher.pageServed(
+        "booksByCategory", key, page, next -> categoryPage(PageCacheKey.of(category, next), next));
+    return page;
+  }
+
+  private Page<BookResponse> categoryPage(PageCacheKey key, Pageable pageable) {
+    return bookPageCache.getPage(
+        "booksByCategory",
+        key,
+        pageable,
+        () -> {
+          logger.debug("Fetching books by category: {}", key.category());
+          return bookRepository
+              .findByCategory(key.category(), pageable)
+              .map(bookMapper::toResponse);
+        },
+        this::loadBooks);
+  }
+
+  /** Batch-load bodies for cached page ids missing from the book cache */
+  private List<BookResponse> loadBooks(Collection<Long> ids) {
+    logger.debug("Batch-loading {} books missing from cache", ids.size());
+    return bookRepository.findAllById(ids).stream().map(bookMapper::toResponse).toList();
   }
 
   /**
@@ -0,0 +1,175 @@
+package com.jena.bookapi.service;
+
+import com.jena.bookapi.cache.BookPageCache;
+import com.jena.bookapi.cache.HotKeyTracker;
+import com.jena.bookapi.cache.PageCacheKey;
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import com.jena.bookapi.mapper.BookMapper;
+import com.jena.bookapi.repository.BookRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+/**
+ * Preloads the hottest books and listing pages before the instance takes traffic
+ *
+ * <p>Interview Points: 1. ApplicationRunners complete before ApplicationReadyEvent, which is what
+ * flips the readiness probe to ACCEPTING_TRAFFIC, so warm-up delays readiness rather than racing
+ * live requests 2. The key list comes from {@link HotKeyTracker}, i.e. what the cluster actually
+ * read recently 3. Books are loaded with batched findAllById queries and written with pipelined
+ * bulk puts; pages go through the normal listing path so they are cached exactly as a request would
+ * cache them 4. Both a key budget and a time budget apply, and a failure only skips warm-up, never
+ * startup
+ */
+public class CacheWarmUpService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+  private final HotKeyTracker hotKeyTracker;
+  private final BookPageCache bookPageCache;
+  private final BookRepository bookRepository;
+  private final BookMapper bookMapper;
+  private final BookService bookService;
+  private final BookCacheProperties.WarmUp settings;
+
+  private volatile Report lastReport;
+
+  public CacheWarmUpService(
+      HotKeyTracker hotKeyTracker,
+      BookPageCache bookPageCache,
+      BookRepository bookRepository,
+      BookMapper bookMapper,
+      BookService bookService,
+      BookCacheProperties.WarmUp settings) {
+    this.hotKeyTracker = hotKeyTracker;
+    this.bookPageCache = bookPageCache;
+    this.bookRepository = bookRepository;
+    this.bookMapper = bookMapper;
+    this.bookService = bookService;
+    this.settings = settings;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (settings.isEnabled()) {
+      warmUp();
+    }
+  }
+
+  /**
+   * Preload hot keys within the configured budgets Interview Point: listing pages take at most half
+   * the key budget, books the rest, so neither starves the other
+   */
+  public Report warmUp() {
+    Instant startedAt = Instant.now();
+    long deadline = System.nanoTime() + settings.getTimeout().toNanos();
+    int pageBudget = settings.getMaxKeys() / 2;
+    int pagesWarmed = 0;
+    int booksWarmed = 0;
+    boolean budgetExhausted = false;
+    String error = null;
+    try {
+      List<PageCacheKey> pages = hotPages(pageBudget);
+      for (PageCacheKey page : pages) {
+        if (System.nanoTime() > deadline) {
+          budgetExhausted = true;
+          break;
+        }
+        if (page.category() == null) {
+          bookService.getAllBooks(page.toPageable());
+        } else {
+          bookService.getBooksByCategory(page.category(), page.toPageable());
+        }
+        pagesWarmed++;
+      }
+
+      List<Long> ids = hotBookIds(settings.getMaxKeys() - pagesWarmed);
+      for (int from = 0; from < ids.size(); from += settings.getBatchSize()) {
+        if (System.nanoTime() > deadline) {
+          budgetExhausted = true;
+          break;
+        }
+        List<Long> batch = ids.subList(from, Math.min(from + settings.getBatchSize(), ids.size()));
+        List<BookResponse> books =
+            bookRepository.findAllById(batch).stream().map(bookMapper::toResponse).toList();
+        bookPageCache.putBooks(books);
+        booksWarmed += books.size();
+      }
+    } catch (RuntimeException ex) {
+      error = ex.getMessage();
+      logger.warn("Cache warm-up stopped early: {}", ex.getMessage());
+    }
+
+    Report report =
+        new Report(
+            startedAt,
+            Duration.between(startedAt, Instant.now()),
+            booksWarmed,
+            pagesWarmed,
+            budgetExhausted,
+            error);
+    lastReport = report;
+    logger.info(
+        "Cache warm-up finished in {}: {} books, {} pages{}",
+        report.elapsed(),
+        booksWarmed,
+        pagesWarmed,
+        budgetExhausted ? " (time budget exhausted)" : "");
+    return report;
+  }
+
+  /** Outcome of the most recent warm-up, or null if none has run. */
+  public Report getLastReport() {
+    return lastReport;
+  }
+
+  private List<PageCacheKey> hotPages(int limit) {
+    List<PageCacheKey> pages = new ArrayList<>();
+    for (String cacheName : List.of("books", "booksByCategory")) {
+      for (String key : hotKeyTracker.topKeys(cacheName, limit - pages.size())) {
+        try {
+          pages.add(PageCacheKey.parse(key));
+        } catch (IllegalArgumentException ex) {
+          logger.debug("Skipping unrecognized hot page key {}", key);
+        }
+      }
+    }
+    return pages;
+  }
+
+  private List<Long> hotBookIds(int limit) {
+    List<Long> ids = new ArrayList<>();
+    for (String key : hotKeyTracker.topKeys(BookPageCache.BOOK_CACHE, limit)) {
+      try {
+        ids.add(Long.valueOf(key));
+      } catch (NumberFormatException ex) {
+        logger.debug("Skipping unrecognized hot book key {}", key);
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * What the last warm-up loaded
+   *
+   * @param startedAt when warm-up began
+   * @param elapsed how long it took
+   * @param booksWarmed book entries preloaded
+   * @param pagesWarmed listing pages preloaded
+   * @param budgetExhausted whether the time budget cut warm-up short
+   * @param error why warm-up stopped early, or null
+   */
+  public record Report(
+      Instant startedAt,
+      Duration elapsed,
+      int booksWarmed,
+      int pagesWarmed,
+      boolean budgetExhausted,
+      String error) {}
+}
@@ -0,0 +1,166 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/** Unit Tests for TTLs adapted to observed update rates */
+@DisplayName("AdaptiveTtlPolicy Unit Tests")
+class AdaptiveTtlPolicyTest {
+
+  private static final Duration CONFIGURED = Duration.ofMinutes(60);
+
+  private BookCacheProperties.AdaptiveTtl settings;
+  private HashOperations<String, Object, Object> hashOperations;
+  private AdaptiveTtlPolicy policy;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    settings = new BookCacheProperties.AdaptiveTtl();
+    settings.setSmoothing(1.0); // each adjustment reflects only the last interval
+    settings.setMinOperations(10);
+    settings.setCaches(Set.of("book"));
+    StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    hashOperations = mock(HashOperations.class);
+    when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries(anyString())).thenReturn(Map.of());
+    policy =
+        new AdaptiveTtlPolicy(
+            redisTemplate,
+            settings,
+            cacheName -> CONFIGURED,
+            Map.of("book", (key, value) -> (String) value));
+  }
+
+  @Test
+  @DisplayName("Should stretch the TTL of a scope that is read but never updated")
+  void adjust_ReadOnlyTraffic_ShouldReachUpperBound() {
+    // Given
+    for (int i = 0; i < 50; i++) {
+      policy.recordRead("book", i, "Fiction");
+    }
+
+    // When
+    policy.adjust();
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(Duration.ofHours(4));
+  }
+
+  @Test
+  @DisplayName("Should shorten the TTL of a category whose updates reach the volatile share")
+  void adjust_VolatileCategory_ShouldReachLowerBoundForThatCategoryOnly() {
+    // Given
+    for (int i = 0; i < 40; i++) {
+      policy.recordRead("book", i, "Fiction");
+      policy.recordRead("book", i, "Science");
+    }
+    for (int i = 0; i < 10; i++) {
+      policy.recordUpdate("book", i, "Science");
+    }
+
+    // When
+    policy.adjust();
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Science")).isEqualTo(Duration.ofMinutes(15));
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(Duration.ofHours(4));
+  }
+
+  @Test
+  @DisplayName("Should keep the configured TTL while traffic is too low to judge")
+  void adjust_LowTraffic_ShouldKeepConfiguredTtl() {
+    // Given
+    policy.recordRead("book", 1, "Fiction");
+    policy.recordUpdate("book", 1, "Fiction");
+
+    // When
+    policy.adjust();
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(CONFIGURED);
+    assertThat(policy.ttl("books", "page=0", null)).isEqualTo(CONFIGURED);
+  }
+
+  @Test
+  @DisplayName("Should let an override win over the adapted TTL and store it for other nodes")
+  void override_ShouldWinOverAdaptedTtlUntilCleared() {
+    // Given
+    for (int i = 0; i < 50; i++) {
+      policy.recordRead("book", i, "Fiction");
+    }
+    policy.adjust();
+
+    // When
+    policy.override("book", "Fiction", Duration.ofMinutes(20));
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(Duration.ofMinutes(20));
+    assertThat(policy.report())
+        .anySatisfy(
+            report -> {
+              assertThat(report.category()).isEqualTo("Fiction");
+              assertThat(report.effective()).isEqualTo(Duration.ofMinutes(20));
+            });
+    verify(hashOperations).put("book-api:cache-ttl-overrides", "book/Fiction", "PT20M");
+
+    // When
+    policy.clearOverride("book", "Fiction");
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(Duration.ofHours(4));
+  }
+
+  @Test
+  @DisplayName("Should reject a TTL override that is not positive")
+  void override_NonPositiveTtl_ShouldThrow() {
+    assertThatThrownBy(() -> policy.override("book", null, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject a TTL override above the adaptive upper bound")
+  void override_AboveMaxTtl_ShouldThrow() {
+    // When & Then
+    assertThatThrownBy(() -> policy.override("book", null, Duration.ofHours(5)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("PT4H");
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(CONFIGURED);
+  }
+
+  @Test
+  @DisplayName("Should reject a TTL override below the adaptive lower bound")
+  void override_BelowMinTtl_ShouldThrow() {
+    // When & Then
+    assertThatThrownBy(() -> policy.override("book", "Fiction", Duration.ofMinutes(5)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("PT15M");
+  }
+
+  @Test
+  @DisplayName("Should clamp an out-of-bounds override stored by another node")
+  void adjust_StoredOverrideAboveMax_ShouldClamp() {
+    // Given
+    when(hashOperations.entries(anyString())).thenReturn(Map.of("book", "PT24H"));
+
+    // When
+    policy.adjust();
+
+    // Then
+    assertThat(policy.ttl("book", 1, "Fiction")).isEqualTo(Duration.ofHours(4));
+  }
+}
@@ -0,0 +1,140 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/** Unit Tests for the binary cache value codec */
+@DisplayName("BinaryCacheSerializer Unit Tests")
+class BinaryCacheSerializerTest {
+
+  private final BinaryCacheSerializer serializer = new BinaryCacheSerializer();
+
+  private final BookResponse book =
+      new BookResponse(
+          42L,
+          "Effective Java",
+          "Joshua Bloch",
+          "9780134685991",
+          new BigDecimal("54.99"),
+          "Technology",
+          "Best practices for the Java platform",
+          30,
+          3L,
+          LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000),
+          LocalDateTime.of(2024, 2, 1, 8, 0));
+
+  @Test
+  @DisplayName("Should round-trip a book response")
+  void serialize_BookResponse_ShouldRoundTrip() {
+    // When
+    Object result = serializer.deserialize(serializer.serialize(book));
+
+    // Then
+    assertThat(result).isEqualTo(book);
+  }
+
+  @Test
+  @DisplayName("Should round-trip a stock level in a few bytes")
+  void serialize_StockLevel_ShouldRoundTripCompactly() {
+    // Given
+    StockLevel stock = StockLevel.of(book);
+
+    // When
+    byte[] bytes = serializer.serialize(stock);
+
+    // Then
+    assertThat(serializer.deserialize(bytes)).isEqualTo(stock);
+    assertThat(bytes).hasSizeLessThan(16);
+  }
+
+  @Test
+  @DisplayName("Should round-trip null fields")
+  void serialize_BookWithNullFields_ShouldRoundTrip() {
+    // Given
+    BookResponse sparse =
+        new BookResponse(
+            7L, "Title", "Author", "123", new BigDecimal("1.00"), null, null, 0, null, null, null);
+
+    // When
+    Object result = serializer.deserialize(serializer.serialize(sparse));
+
+    // Then
+    assertThat(result).isEqualTo(sparse);
+  }
+
+  @Test
+  @DisplayName("Should round-trip a page including pageable and sort")
+  void serialize_Page_ShouldRoundTrip() {
+    // Given
+    Page<BookResponse> page =
+        new PageImpl<>(List.of(book), PageRequest.of(2, 10, Sort.by("title").descending()), 31);
+
+    // When
+    @SuppressWarnings("unchecked")
+    Page<BookResponse> result =
+        (Page<BookResponse>) serializer.deserialize(serializer.serialize(page));
+
+    // Then
+    assertThat(result.getContent()).containsExactly(book);
+    assertThat(result.getTotalElements()).isEqualTo(31);
+    assertThat(result.getPageable()).isEqualTo(page.getPageable());
+  }
+
+  @Test
+  @DisplayName("Should round-trip a normalized page")
+  void serialize_CachedPage_ShouldRoundTrip() {
+    // Given
+    CachedPage page = new CachedPage(List.of(42L, 7L, 1000L, 43L), 120);
+
+    // When
+    Object result = serializer.deserialize(serializer.serialize(page));
+
+    // Then
+    assertThat(result).isEqualTo(page);
+  }
+
+  @Test
+  @DisplayName("Should round-trip refresh metadata around the value")
+  void roundTrip_CacheEntry() {
+    // Given
+    CacheEntry entry = new CacheEntry(book, 1_700_000_000_000L, 12);
+
+    // When
+    Object result = serializer.deserialize(serializer.serialize(entry));
+
+    // Then
+    assertThat(result).isEqualTo(entry);
+  }
+
+  @Test
+  @DisplayName("Should be less than half the size of the JSON encoding")
+  void serialize_Book_ShouldBeSmallerThanJson() {
+    // When
+    int binarySize = serializer.serialize(book).length;
+    int jsonSize = new JsonCacheSerializer().serialize(book).length;
+
+    // Then
+    assertThat(binarySize * 2).isLessThan(jsonSize);
+  }
+
+  @Test
+  @DisplayName("Should treat values from another format version as a miss")
+  void deserialize_OtherFormatVersion_ShouldReturnNull() {
+    // Given
+    byte[] bytes = serializer.serialize(book);
+    bytes[0] = (byte) (BinaryCacheSerializer.FORMAT_VERSION + 1);
+
+    // When & Then
+    assertThat(serializer.deserialize(bytes)).isNull();
+  }
+}
@@ -0,0 +1,204 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit Tests for write-through cache maintenance */
+@DisplayName("BookCacheInvalidator Unit Tests")
+class BookCacheInvalidatorTest {
+
+  private ConcurrentMapCacheManager cacheManager;
+  private MissingBookCache missingBookCache;
+  private IsbnBloomFilter isbnBloomFilter;
+  private BookCacheInvalidator invalidator;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager =
+        new ConcurrentMapCacheManager(
+            "book",
+            "bookStock",
+            "books",
+            "booksByCategory",
+            "bookSearch",
+            MissingBookCache.CACHE_NAME);
+    missingBookCache = new MissingBookCache(cacheManager);
+    isbnBloomFilter = mock(IsbnBloomFilter.class);
+    invalidator =
+        new BookCacheInvalidator(
+            cacheManager,
+            missingBookCache,
+            new BookPageCache(cacheManager),
+            new HotBookReplica(new BookCacheProperties.HotKeys()),
+            isbnBloomFilter,
+            true);
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  @Test
+  @DisplayName("Should overwrite the cached book only once the transaction commits")
+  void bookUpdated_WithWriteThrough_ShouldPutAfterCommit() {
+    // Given
+    Cache books = cacheManager.getCache("book");
+    books.put(1L, book(1L, "Old title"));
+
+    // When
+    invalidator.bookUpdated(book(1L, "Old title"), book(1L, "New title"));
+
+    // Then - readers keep the committed body until the commit
+    assertThat(books.get(1L, BookResponse.class).title()).isEqualTo("Old title");
+    commit();
+    assertThat(books.get(1L, BookResponse.class).title()).isEqualTo("New title");
+  }
+
+  @Test
+  @DisplayName("Should rewrite only the stock entry when only stock changed")
+  void bookUpdated_StockOnly_ShouldKeepCachedBody() {
+    // Given
+    BookResponse previous = book(1L, "Title");
+    cacheManager.getCache("book").put(1L, previous);
+    BookResponse restocked =
+        new BookResponse(
+            1L, "Title", "Author", "isbn-1", BigDecimal.TEN, "Fiction", null, 50, 1L, null, null);
+
+    // When
+    invalidator.bookUpdated(previous, restocked);
+    commit();
+
+    // Then
+    assertThat(cacheManager.getCache("book").get(1L, BookResponse.class)).isSameAs(previous);
+    assertThat(cacheManager.getCache("bookStock").get(1L, StockLevel.class))
+        .isEqualTo(new StockLevel(50, 1L, null));
+  }
+
+  @Test
+  @DisplayName("Should leave a tombstone for a deleted book once the transaction commits")
+  void bookDeleted_WithWriteThrough_ShouldMarkMissingAfterCommit() {
+    // Given
+    cacheManager.getCache("book").put(1L, book(1L, "Title"));
+
+    // When
+    invalidator.bookDeleted(1L, "Fiction");
+    cacheManager.getCache("book").put(1L, book(1L, "Title")); // a reader racing the commit
+    commit();
+
+    // Then
+    assertThat(cacheManager.getCache("book").get(1L)).isNull();
+    assertThat(missingBookCache.isMissingId(1L)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should evict listing pages and negative entries only once the transaction commits")
+  void bookCreated_ShouldEvictListingsAfterCommit() {
+    // Given
+    Cache pages = cacheManager.getCache("books");
+    pages.put("all", List.of(2L, 3L));
+    missingBookCache.markMissingIsbn("isbn-1");
+
+    // When
+    invalidator.bookCreated(book(1L, "Title"));
+
+    // Then - a reader before the commit still sees the committed listing
+    assertThat(pages.get("all")).isNotNull();
+    assertThat(missingBookCache.isMissingIsbn("isbn-1")).isTrue();
+    commit();
+    assertThat(pages.get("all")).isNull();
+    assertThat(missingBookCache.isMissingIsbn("isbn-1")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should evict only the books changed outside the API, and record new ISBNs")
+  void rowsChanged_ShouldEvictChangedBooksAndClearNegativeEntries() {
+    // Given
+    Cache books = cacheManager.getCache("book");
+    books.put(1L, book(1L, "Repriced"));
+    books.put(2L, book(2L, "Deleted"));
+    books.put(3L, book(3L, "Untouched"));
+    missingBookCache.markMissingId(4L);
+
+    // When
+    invalidator.rowsChanged(
+        List.of(
+            new BookRowChange("UPDATE", 1L, 2L, "Fiction", "Fiction", "isbn-1", Set.of("price")),
+            new BookRowChange("DELETE", 2L, null, null, "Fiction", null, null),
+            new BookRowChange("INSERT", 4L, 0L, "Fiction", null, "isbn-4", null)));
+
+    // Then
+    assertThat(books.get(1L)).isNull();
+    assertThat(books.get(2L)).isNull();
+    assertThat(books.get(3L, BookResponse.class).title()).isEqualTo("Untouched");
+    assertThat(missingBookCache.isMissingId(4L)).isFalse();
+    verify(isbnBloomFilter).add("isbn-4");
+  }
+
+  @Test
+  @DisplayName("Should evict every page of the book's listings sorted by a property that changed")
+  @SuppressWarnings("unchecked")
+  void bookUpdated_SortPropertyChanged_ShouldEvictSortedListings() {
+    // Given - page 3 of Fiction by price does not list the book yet, but will after the edit
+    TaggedCacheManager taggedCacheManager = mock(TaggedCacheManager.class);
+    BookCacheInvalidator tagged =
+        new BookCacheInvalidator(
+            taggedCacheManager,
+            missingBookCache,
+            new BookPageCache(cacheManager),
+            new HotBookReplica(new BookCacheProperties.HotKeys()),
+            isbnBloomFilter,
+            false);
+    PageCacheKey page = PageCacheKey.of("Fiction", PageRequest.of(3, 20, Sort.by("price")));
+    Collection<String> pageTags =
+        BookCacheTags.listingPage().tagsFor(page, new CachedPage(List.of(7L), 100));
+    BookResponse previous = book(1L, "Title");
+    BookResponse repriced =
+        new BookResponse(
+            1L, "Title", "Author", "isbn-1", BigDecimal.ONE, "Fiction", null, 1, 0L, null, null);
+
+    // When
+    tagged.bookUpdated(previous, repriced);
+    commit();
+
+    // Then
+    ArgumentCaptor<Collection<String>> evicted = ArgumentCaptor.forClass(Collection.class);
+    verify(taggedCacheManager).evictTagged(evicted.capture());
+    assertThat(evicted.getValue())
+        .contains(BookCacheTags.sortedBy(BookCacheTags.category("Fiction"), "price"))
+        .containsAnyElementsOf(pageTags);
+    assertThat(evicted.getValue())
+        .contains(BookCacheTags.sortedBy(BookCacheTags.ALL_BOOKS, "price"))
+        .doesNotContain(BookCacheTags.sortedBy(BookCacheTags.category("Fiction"), "title"));
+  }
+
+  private static void commit() {
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+  }
+
+  private static BookResponse book(Long id, String title) {
+    return new BookResponse(
+        id, title, "Author", "isbn-" + id, BigDecimal.TEN, "Fiction", null, 1, 0L, null, null);
+  }
+}
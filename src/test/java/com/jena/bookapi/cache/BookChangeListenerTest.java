@@ -0,0 +1,98 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/** Unit Tests for coalescing database change notifications into evictions */
+@DisplayName("BookChangeListener Unit Tests")
+class BookChangeListenerTest {
+
+  private BookCacheProperties.DbInvalidation settings;
+  private BookCacheInvalidator invalidator;
+  private ConcurrentMapCacheManager cacheManager;
+  private BookChangeListener listener;
+
+  @BeforeEach
+  void setUp() {
+    settings = new BookCacheProperties.DbInvalidation();
+    settings.setMaxBatchSize(3);
+    invalidator = mock(BookCacheInvalidator.class);
+    cacheManager = new ConcurrentMapCacheManager("book", "books");
+    listener = new BookChangeListener(null, invalidator, cacheManager, settings);
+  }
+
+  @Test
+  @DisplayName("Should apply a burst of notifications as one batch")
+  @SuppressWarnings("unchecked")
+  void flush_AfterBurst_ShouldEvictOnce() {
+    // Given
+    listener.onNotification("{\"op\":\"UPDATE\",\"id\":1,\"version\":2,\"changed\":[\"price\"]}");
+    listener.onNotification("{\"op\":\"DELETE\",\"id\":2,\"oldCategory\":\"Fiction\"}");
+
+    // When
+    listener.flush();
+    listener.flush();
+
+    // Then
+    ArgumentCaptor<Collection<BookRowChange>> batch = ArgumentCaptor.forClass(Collection.class);
+    verify(invalidator, times(1)).rowsChanged(batch.capture());
+    assertThat(batch.getValue()).extracting(BookRowChange::id).containsExactly(1L, 2L);
+    assertThat(batch.getValue()).extracting(BookRowChange::op).containsExactly("UPDATE", "DELETE");
+  }
+
+  @Test
+  @DisplayName("Should flush as soon as a batch is full, without waiting for the window")
+  void onNotification_FullBatch_ShouldFlushImmediately() {
+    // When
+    for (long id = 1; id <= 3; id++) {
+      listener.onNotification("{\"op\":\"INSERT\",\"id\":" + id + ",\"category\":\"Fiction\"}");
+    }
+
+    // Then
+    verify(invalidator).rowsChanged(any());
+  }
+
+  @Test
+  @DisplayName("Should ignore malformed notifications")
+  void onNotification_Malformed_ShouldBeIgnored() {
+    // When
+    listener.onNotification("not json");
+    listener.onNotification("{\"op\":\"UPDATE\"}");
+    listener.flush();
+
+    // Then
+    verify(invalidator, never()).rowsChanged(any());
+  }
+
+  @Test
+  @DisplayName("Should clear the resync caches on a TRUNCATE, and report the missed changes")
+  void flush_AfterTruncate_ShouldClearResyncCaches() {
+    // Given
+    cacheManager.getCache("book").put(1L, "body");
+    cacheManager.getCache("books").put("page", List.of(1L));
+    listener.onNotification("{\"op\":\"UPDATE\",\"id\":1,\"version\":2,\"changed\":[\"price\"]}");
+    listener.onNotification("{\"op\":\"TRUNCATE\"}");
+
+    // When
+    listener.flush();
+
+    // Then
+    assertThat(cacheManager.getCache("book").get(1L)).isNull();
+    assertThat(cacheManager.getCache("books").get("page")).isNull();
+    verify(invalidator, never()).rowsChanged(any());
+    verify(invalidator).changesMissed();
+  }
+}
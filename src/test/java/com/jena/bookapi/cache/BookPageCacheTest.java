@@ -0,0 +1,274 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.jena.bookapi.dto.BookResponse;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/** Unit Tests for normalized page caching */
+@DisplayName("BookPageCache Unit Tests")
+class BookPageCacheTest {
+
+  private ConcurrentMapCacheManager cacheManager;
+  private BookPageCache bookPageCache;
+  private final AtomicInteger pageQueries = new AtomicInteger();
+  private final List<Collection<Long>> batchLoads = new ArrayList<>();
+
+  private final Pageable pageable = PageRequest.of(0, 2, Sort.by("title"));
+  private final PageCacheKey key = PageCacheKey.of(null, pageable);
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = new ConcurrentMapCacheManager("book", "bookStock", "books");
+    bookPageCache = new BookPageCache(cacheManager);
+  }
+
+  @Test
+  @DisplayName("Should cache the page as an id list and the bodies per book")
+  void getPage_OnMiss_ShouldStoreIdsAndBodies() {
+    // When
+    Page<BookResponse> page = load(book(1L, "A"), book(2L, "B"));
+
+    // Then
+    assertThat(page.getContent()).extracting(BookResponse::id).containsExactly(1L, 2L);
+    assertThat(cacheManager.getCache("books").get(key, CachedPage.class))
+        .isEqualTo(new CachedPage(List.of(1L, 2L), 5));
+    assertThat(cacheManager.getCache("book").get(2L, BookResponse.class).title()).isEqualTo("B");
+  }
+
+  @Test
+  @DisplayName("Should serve the latest body of an edited book without re-running the query")
+  void getPage_AfterBookEdit_ShouldReflectNewBody() {
+    // Given
+    load(book(1L, "A"), book(2L, "B"));
+    cacheManager.getCache("book").put(2L, book(2L, "B (2nd edition)"));
+
+    // When
+    Page<BookResponse> page = load();
+
+    // Then
+    assertThat(pageQueries).hasValue(1);
+    assertThat(page.getContent())
+        .extracting(BookResponse::title)
+        .containsExactly("A", "B (2nd edition)");
+    assertThat(page.getTotalElements()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should batch-load bodies evicted from the book cache")
+  void getPage_WithEvictedBodies_ShouldBatchLoadMissing() {
+    // Given
+    load(book(1L, "A"), book(2L, "B"));
+    cacheManager.getCache("book").evict(1L);
+
+    // When
+    Page<BookResponse> page = load();
+
+    // Then
+    assertThat(pageQueries).hasValue(1);
+    assertThat(batchLoads).containsExactly(List.of(1L));
+    assertThat(page.getContent()).extracting(BookResponse::id).containsExactly(1L, 2L);
+  }
+
+  @Test
+  @DisplayName("Should assemble cached bodies with a newer stock level")
+  void getPage_AfterStockChange_ShouldOverlayStockOnCachedBody() {
+    // Given
+    load(book(1L, "A"), book(2L, "B"));
+    bookPageCache.putStock(
+        new BookResponse(
+            2L, "B", "Author", "isbn-2", BigDecimal.TEN, "Fiction", null, 0, 1L, null, null));
+
+    // When
+    Page<BookResponse> page = load();
+
+    // Then - the body was never rewritten or reloaded
+    assertThat(pageQueries).hasValue(1);
+    assertThat(batchLoads).isEmpty();
+    assertThat(cacheManager.getCache("book").get(2L, BookResponse.class).stockQuantity())
+        .isEqualTo(1);
+    assertThat(page.getContent())
+        .extracting(BookResponse::stockQuantity, BookResponse::version)
+        .containsExactly(tuple(1, 0L), tuple(0, 1L));
+  }
+
+  @Test
+  @DisplayName("Should reload a cached body whose stock level is missing")
+  void getBook_WithoutStockEntry_ShouldReload() {
+    // Given
+    cacheManager.getCache("book").put(1L, book(1L, "stale"));
+
+    // When
+    BookResponse result = bookPageCache.getBook(1L, () -> book(1L, "A"));
+
+    // Then
+    assertThat(result.title()).isEqualTo("A");
+    assertThat(cacheManager.getCache("bookStock").get(1L, StockLevel.class))
+        .isEqualTo(StockLevel.of(result));
+  }
+
+  @Test
+  @DisplayName("Should serve an expired book, marked stale, when the database times out")
+  void getBook_WhenDatabaseUnavailable_ShouldServeStaleEntry() {
+    // Given - only expired copies are left
+    StaleMapCache books = new StaleMapCache("book");
+    StaleMapCache stocks = new StaleMapCache("bookStock");
+    books.expired.put(1L, book(1L, "A"));
+    stocks.expired.put(1L, new StockLevel(7, 3L, null));
+    BookPageCache staleCache = new BookPageCache(cacheManager(books, stocks));
+
+    // When
+    StaleReads.Tracked<BookResponse> result =
+        StaleReads.track(
+            () ->
+                staleCache.getBook(
+                    1L,
+                    () -> {
+                      throw new QueryTimeoutException("statement timeout");
+                    }));
+
+    // Then
+    assertThat(result.stale()).isTrue();
+    assertThat(result.value().title()).isEqualTo("A");
+    assertThat(result.value().stockQuantity()).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should not mask failures other than an unavailable database")
+  void getBook_WhenLoaderFailsOtherwise_ShouldRethrow() {
+    // Given
+    StaleMapCache books = new StaleMapCache("book");
+    books.expired.put(1L, book(1L, "A"));
+    BookPageCache staleCache =
+        new BookPageCache(cacheManager(books, new StaleMapCache("bookStock")));
+
+    // When / Then
+    assertThatThrownBy(
+            () ->
+                staleCache.getBook(
+                    1L,
+                    () -> {
+                      throw new IllegalStateException("bug");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("Should resolve a cached page from expired bodies when the batch load times out")
+  void getPage_WhenBatchLoadTimesOut_ShouldServeStaleBodies() {
+    // Given
+    StaleMapCache books = new StaleMapCache("book");
+    StaleMapCache stocks = new StaleMapCache("bookStock");
+    ConcurrentMapCache pages = new ConcurrentMapCache("books");
+    pages.put(key, new CachedPage(List.of(1L, 2L), 5));
+    books.put(1L, book(1L, "A"));
+    stocks.put(1L, StockLevel.of(book(1L, "A")));
+    books.expired.put(2L, book(2L, "B"));
+    SimpleCacheManager manager = new SimpleCacheManager();
+    manager.setCaches(List.of(books, stocks, pages));
+    manager.initializeCaches();
+    BookPageCache staleCache = new BookPageCache(manager);
+
+    // When
+    StaleReads.Tracked<Page<BookResponse>> result =
+        StaleReads.track(
+            () ->
+                staleCache.getPage(
+                    "books",
+                    key,
+                    pageable,
+                    () -> {
+                      throw new QueryTimeoutException("statement timeout");
+                    },
+                    ids -> {
+                      throw new QueryTimeoutException("statement timeout");
+                    }));
+
+    // Then - the expired body is served but not written back
+    assertThat(result.stale()).isTrue();
+    assertThat(result.value().getContent())
+        .extracting(BookResponse::title)
+        .containsExactly("A", "B");
+    assertThat(books.get(2L)).isNull();
+  }
+
+  private static SimpleCacheManager cacheManager(StaleMapCache books, StaleMapCache stocks) {
+    SimpleCacheManager manager = new SimpleCacheManager();
+    manager.setCaches(List.of(books, stocks));
+    manager.initializeCaches();
+    return manager;
+  }
+
+  /** Map cache whose expired entries are held apart and only returned by the stale reads. */
+  private static class StaleMapCache extends ConcurrentMapCache implements StaleIfErrorCache {
+
+    final Map<Object, Object> expired = new ConcurrentHashMap<>();
+
+    StaleMapCache(String name) {
+      super(name);
+    }
+
+    @Override
+    public ValueWrapper getStale(Object key) {
+      ValueWrapper current = get(key);
+      return current != null
+          ? current
+          : expired.containsKey(key) ? new SimpleValueWrapper(expired.get(key)) : null;
+    }
+
+    @Override
+    public Map<Object, Object> getAllStale(Collection<?> keys) {
+      Map<Object, Object> found = new HashMap<>();
+      keys.forEach(
+          key -> {
+            ValueWrapper stale = getStale(key);
+            if (stale != null) {
+              found.put(key, stale.get());
+            }
+          });
+      return found;
+    }
+  }
+
+  private Page<BookResponse> load(BookResponse... content) {
+    return bookPageCache.getPage(
+        "books",
+        key,
+        pageable,
+        () -> {
+          pageQueries.incrementAndGet();
+          return new PageImpl<>(List.of(content), pageable, 5);
+        },
+        ids -> {
+          batchLoads.add(List.copyOf(ids));
+          return ids.stream().map(id -> book(id, "reloaded")).toList();
+        });
+  }
+
+  private static BookResponse book(Long id, String title) {
+    return new BookResponse(
+        id, title, "Author", "isbn-" + id, BigDecimal.TEN, "Fiction", null, 1, 0L, null, null);
+  }
+}
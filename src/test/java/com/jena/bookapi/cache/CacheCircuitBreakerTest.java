@@ -0,0 +1,138 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+/** Unit Tests for the Redis circuit breaker */
+@DisplayName("CacheCircuitBreaker Unit Tests")
+class CacheCircuitBreakerTest {
+
+  private BookCacheProperties.CircuitBreaker settings;
+
+  @BeforeEach
+  void setUp() {
+    settings = new BookCacheProperties.CircuitBreaker();
+    settings.setWindowSize(4);
+    settings.setMinimumCalls(4);
+    settings.setFailureRateThreshold(0.5);
+  }
+
+  @Test
+  @DisplayName("Should open after enough failures and answer from the fallback without calling")
+  void call_AfterFailures_ShouldOpenAndRejectImmediately() {
+    // Given
+    settings.setOpenDuration(Duration.ofMinutes(1));
+    CacheCircuitBreaker breaker = new CacheCircuitBreaker(settings);
+    breaker.call(() -> "hit", () -> "fallback");
+    breaker.call(() -> "hit", () -> "fallback");
+    for (int i = 0; i < 2; i++) {
+      breaker.call(
+          () -> {
+            throw new RedisConnectionFailureException("Connection refused");
+          },
+          () -> "fallback");
+    }
+    AtomicInteger attempts = new AtomicInteger();
+
+    // When
+    String result =
+        breaker.call(
+            () -> {
+              attempts.incrementAndGet();
+              return "hit";
+            },
+            () -> "fallback");
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+    assertThat(result).isEqualTo("fallback");
+    assertThat(attempts).hasValue(0);
+    assertThat(breaker.getFailureCount()).isEqualTo(2);
+    assertThat(breaker.getRejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should close after a successful probe and run recovery actions")
+  void call_ProbeSucceeds_ShouldCloseAndRunRecovery() {
+    // Given
+    settings.setOpenDuration(Duration.ZERO);
+    CacheCircuitBreaker breaker = new CacheCircuitBreaker(settings);
+    AtomicInteger recoveries = new AtomicInteger();
+    breaker.onRecovery(recoveries::incrementAndGet);
+    for (int i = 0; i < 4; i++) {
+      breaker.run(
+          () -> {
+            throw new RedisConnectionFailureException("Connection refused");
+          });
+    }
+    assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+
+    // When
+    boolean probed = breaker.run(() -> {});
+
+    // Then
+    assertThat(probed).isTrue();
+    assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.CLOSED);
+    assertThat(recoveries).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should re-open when the probe fails with an error other than a Redis failure")
+  void call_ProbeThrowsUnexpected_ShouldReopen() {
+    // Given
+    settings.setOpenDuration(Duration.ZERO);
+    CacheCircuitBreaker breaker = new CacheCircuitBreaker(settings);
+    AtomicInteger recoveries = new AtomicInteger();
+    breaker.onRecovery(recoveries::incrementAndGet);
+    for (int i = 0; i < 4; i++) {
+      breaker.run(
+          () -> {
+            throw new RedisConnectionFailureException("Connection refused");
+          });
+    }
+
+    // When & Then - the exception still reaches the caller
+    assertThatThrownBy(
+            () ->
+                breaker.run(
+                    () -> {
+                      throw new IllegalStateException("unexpected reply");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+    assertThat(breaker.getFailureCount()).isEqualTo(5);
+    assertThat(recoveries).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Should still answer failed calls from the fallback while disabled")
+  void call_Disabled_ShouldFallBackWithoutOpening() {
+    // Given
+    settings.setEnabled(false);
+    CacheCircuitBreaker breaker = new CacheCircuitBreaker(settings);
+
+    // When
+    String result = null;
+    for (int i = 0; i < 5; i++) {
+      result =
+          breaker.call(
+              () -> {
+                throw new RedisConnectionFailureException("Connection refused");
+              },
+              () -> "fallback");
+    }
+
+    // Then
+    assertThat(result).isEqualTo("fallback");
+    assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.CLOSED);
+    assertThat(breaker.call(() -> "hit", () -> "fallback")).isEqualTo("hit");
+  }
+}
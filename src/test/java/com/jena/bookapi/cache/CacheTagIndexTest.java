@@ -0,0 +1,52 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/** Unit Tests for the Redis tag index */
+@DisplayName("CacheTagIndex Unit Tests")
+class CacheTagIndexTest {
+
+  private StringRedisTemplate redisTemplate;
+  private CacheTagIndex index;
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    index = new CacheTagIndex(redisTemplate, Duration.ofHours(1));
+  }
+
+  @Test
+  @DisplayName("Should read and unlink each tag set in one script, evicting shared entries once")
+  @SuppressWarnings("unchecked")
+  void invalidate_SharedMember_ShouldTakeEachTagAtomically() {
+    // Given
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of("book-api:cache-tags:a"))))
+        .thenReturn(List.of("books\n1", "books\n2"));
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of("book-api:cache-tags:b"))))
+        .thenReturn(List.of("books\n2"));
+    List<String> evicted = new ArrayList<>();
+
+    // When
+    index.invalidate(List.of("a", "b"), (cacheName, key) -> evicted.add(cacheName + "/" + key));
+
+    // Then - no separate UNLINK that could drop a member added after the read
+    assertThat(evicted).containsExactlyInAnyOrder("books/1", "books/2");
+    verify(redisTemplate, never()).unlink(any(Collection.class));
+  }
+}
@@ -0,0 +1,102 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+/** Unit Tests for recording anonymized cache traces */
+@DisplayName("CacheTraceRecorder Unit Tests")
+class CacheTraceRecorderTest {
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("Should write one anonymized line per read and write")
+  void record_ReadsAndWrites_ShouldWriteAnonymizedLines() throws IOException {
+    // Given
+    CacheTraceRecorder recorder = new CacheTraceRecorder(settings(true));
+    BookResponse book = book(1L, "Fiction");
+    recorder.start();
+
+    // When
+    recorder.bookRead(book);
+    recorder.pageRead(
+        PageCacheKey.of("Fiction", PageRequest.of(0, 20)),
+        new PageImpl<>(List.of(book, book(2L, "Fiction"))));
+    recorder.bookWritten('U', 1L, "Fiction", "Poetry");
+    recorder.stop();
+
+    // Then
+    List<String> lines = Files.readAllLines(traceFile());
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(0)).matches("B,\\d+,[0-9a-f]{16},\\d+");
+    assertThat(lines.get(1))
+        .matches("P,\\d+,[0-9a-f]{16},c[0-9a-f]{16},([0-9a-f]{16}:\\d+\\|?){2}");
+    assertThat(lines.get(2)).matches("W,\\d+,U,[0-9a-f]{16},c[0-9a-f]{16},c[0-9a-f]{16}");
+    String bookHash = lines.get(0).split(",")[2];
+    assertThat(lines.get(1)).contains(bookHash + ":");
+    assertThat(lines.get(2).split(",")[3]).isEqualTo(bookHash);
+    assertThat(String.join("\n", lines)).doesNotContain("Fiction", "Poetry", "Title");
+    assertThat(recorder.droppedEvents()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should record nothing and create no file when disabled")
+  void record_WhenDisabled_ShouldWriteNothing() throws IOException {
+    // Given
+    CacheTraceRecorder recorder = new CacheTraceRecorder(settings(false));
+
+    // When
+    recorder.start();
+    recorder.bookRead(book(1L, "Fiction"));
+    recorder.stop();
+
+    // Then
+    assertThat(recorder.isRunning()).isFalse();
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  private BookCacheProperties.Trace settings(boolean enabled) {
+    BookCacheProperties.Trace settings = new BookCacheProperties.Trace();
+    settings.setEnabled(enabled);
+    settings.setSampleRate(1.0);
+    settings.setDirectory(directory.toString());
+    settings.setSalt("test-salt");
+    return settings;
+  }
+
+  private Path traceFile() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.findFirst().orElseThrow();
+    }
+  }
+
+  private static BookResponse book(Long id, String category) {
+    return new BookResponse(
+        id,
+        "Title " + id,
+        "Author",
+        "978-0-00-000000-" + id,
+        new BigDecimal("9.99"),
+        category,
+        "Description",
+        5,
+        1L,
+        null,
+        null);
+  }
+}
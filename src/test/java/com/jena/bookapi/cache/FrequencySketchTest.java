@@ -0,0 +1,54 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit Tests for the count-min frequency sketch */
+@DisplayName("FrequencySketch Unit Tests")
+class FrequencySketchTest {
+
+  @Test
+  @DisplayName("Should never undercount, and single out the hot id among many cold ones")
+  void increment_ManyIds_ShouldNeverUndercount() {
+    // Given
+    FrequencySketch sketch = new FrequencySketch(1024);
+
+    // When
+    for (long id = 1; id <= 5_000; id++) {
+      sketch.increment(id);
+    }
+    for (int i = 0; i < 500; i++) {
+      sketch.increment(42L);
+    }
+
+    // Then
+    assertThat(sketch.estimate(42L)).isGreaterThanOrEqualTo(501);
+    long undercounted = 0;
+    long hotLooking = 0;
+    for (long id = 1; id <= 5_000; id++) {
+      int estimate = sketch.estimate(id);
+      undercounted += estimate < 1 ? 1 : 0;
+      hotLooking += id != 42L && estimate >= 100 ? 1 : 0;
+    }
+    assertThat(undercounted).isZero();
+    assertThat(hotLooking).isZero();
+  }
+
+  @Test
+  @DisplayName("Should halve every count on decay")
+  void decay_ShouldHalveCounts() {
+    // Given
+    FrequencySketch sketch = new FrequencySketch(64);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment(7L);
+    }
+
+    // When
+    sketch.decay();
+
+    // Then
+    assertThat(sketch.estimate(7L)).isEqualTo(5);
+  }
+}
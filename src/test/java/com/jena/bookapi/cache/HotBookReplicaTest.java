@@ -0,0 +1,151 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit Tests for hot-book detection and the per-node replica */
+@DisplayName("HotBookReplica Unit Tests")
+class HotBookReplicaTest {
+
+  private HotBookReplica replica;
+  private AtomicInteger reads;
+
+  @BeforeEach
+  void setUp() {
+    BookCacheProperties.HotKeys settings = new BookCacheProperties.HotKeys();
+    settings.setThreshold(3);
+    settings.setMaxHotKeys(1);
+    settings.setReplicaTtl(Duration.ofHours(1));
+    settings.setDecayInterval(Duration.ofSeconds(1));
+    replica = new HotBookReplica(settings);
+    reads = new AtomicInteger();
+  }
+
+  @Test
+  @DisplayName("Should serve a book from the replica once it is hot")
+  void get_HotBook_ShouldServeFromReplica() {
+    // Given - three reads make it hot, the fourth fills the replica
+    for (int i = 0; i < 4; i++) {
+      replica.get(1L, reader(1L));
+    }
+
+    // When
+    BookResponse book = replica.get(1L, reader(1L));
+
+    // Then
+    assertThat(book.id()).isEqualTo(1L);
+    assertThat(reads).hasValue(4);
+    assertThat(replica.hotKeys()).containsExactly(1L);
+  }
+
+  @Test
+  @DisplayName("Should not replicate more books than the hot set holds")
+  void get_HotSetFull_ShouldReadThrough() {
+    // Given
+    makeHot(1L);
+
+    // When
+    for (int i = 0; i < 6; i++) {
+      replica.get(2L, reader(2L));
+    }
+
+    // Then
+    assertThat(reads).hasValue(10);
+    assertThat(replica.hotKeys()).containsExactly(1L);
+  }
+
+  @Test
+  @DisplayName("Should re-read a replicated book after a local write evicts it")
+  void evict_ReplicatedBook_ShouldReadAgain() {
+    // Given
+    makeHot(1L);
+
+    // When
+    replica.evict(1L);
+    replica.get(1L, reader(1L));
+    replica.get(1L, reader(1L));
+
+    // Then - one read refills the replica, the next is served from it
+    assertThat(reads).hasValue(5);
+  }
+
+  @Test
+  @DisplayName("Should never replicate a book served stale, and keep the stale marker")
+  void get_StaleRead_ShouldNotReplicate() {
+    // Given
+    for (int i = 0; i < 3; i++) {
+      replica.get(1L, reader(1L));
+    }
+    Supplier<BookResponse> staleReader =
+        () -> {
+          StaleReads.markStale();
+          return reader(1L).get();
+        };
+
+    // When
+    StaleReads.Tracked<BookResponse> first = StaleReads.track(() -> replica.get(1L, staleReader));
+    replica.get(1L, reader(1L));
+
+    // Then
+    assertThat(first.stale()).isTrue();
+    assertThat(reads).hasValue(5);
+  }
+
+  @Test
+  @DisplayName("Should demote a hot book whose reads fell off, and export the hot set")
+  void decay_ColdBook_ShouldDemote() {
+    // Given
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    replica.bindTo(registry);
+    makeHot(1L);
+
+    // When - the first interval is partial, so it never demotes
+    replica.decay();
+    double hotDuringInterval = registry.get("cache.hot.keys").gauge().value();
+    double rate = registry.get("cache.hot.key.reads").tag("book", "1").gauge().value();
+    replica.decay();
+
+    // Then
+    assertThat(hotDuringInterval).isEqualTo(1.0);
+    assertThat(rate).isEqualTo(2.0);
+    assertThat(replica.hotKeys()).isEmpty();
+    assertThat(registry.get("cache.hot.keys").gauge().value()).isZero();
+    assertThat(registry.find("cache.hot.key.reads").gauges()).isEmpty();
+  }
+
+  /** Five reads: three to become hot, one to fill the replica, one served from it. */
+  private void makeHot(Long id) {
+    for (int i = 0; i < 5; i++) {
+      replica.get(id, reader(id));
+    }
+    assertThat(replica.hotKeys()).contains(id);
+  }
+
+  private Supplier<BookResponse> reader(Long id) {
+    return () -> {
+      reads.incrementAndGet();
+      return new BookResponse(
+          id,
+          "Title",
+          "Author",
+          "978-0-00-000000-0",
+          new BigDecimal("9.99"),
+          "Fiction",
+          "Description",
+          5,
+          1L,
+          null,
+          null);
+    };
+  }
+}
@@ -0,0 +1,206 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.repository.BookRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldSet;
+import org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldSubCommand;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+/** Unit Tests for the ISBN Bloom filter, against an in-memory bitmap */
+@DisplayName("IsbnBloomFilter Unit Tests")
+class IsbnBloomFilterTest {
+
+  private final BitSet bitmap = new BitSet();
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+  private BookRepository bookRepository;
+  private IsbnBloomFilter filter;
+  private boolean writesFail;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.bitField(anyString(), any()))
+        .thenAnswer(invocation -> apply(invocation.getArgument(1)));
+
+    BookCacheProperties.IsbnFilter settings = new BookCacheProperties.IsbnFilter();
+    settings.setExpectedIsbns(1_000);
+    settings.setFalsePositiveRate(0.01);
+    bookRepository = mock(BookRepository.class);
+    filter = new IsbnBloomFilter(redisTemplate, bookRepository, settings);
+  }
+
+  @Test
+  @DisplayName("Should report every added ISBN and rule out nearly all others once built")
+  void mightContainAll_WhenBuilt_ShouldRuleOutUnknownIsbns() {
+    // Given
+    bitmap.set(0); // built
+    List<String> known = isbns(0, 1_000);
+    known.forEach(filter::add);
+    List<String> unknown = isbns(1_000, 11_000);
+
+    // When
+    int falsePositives = filter.mightContainAll(unknown).size();
+
+    // Then
+    assertThat(filter.mightContainAll(known)).hasSize(known.size());
+    assertThat(falsePositives).isLessThan(unknown.size() * 3 / 100);
+  }
+
+  @Test
+  @DisplayName("Should treat every ISBN as possibly present until the filter is built")
+  void mightContain_WhenNotBuilt_ShouldFallBackToDatabase() {
+    // When & Then
+    assertThat(filter.mightContain("9780000000001")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should treat every ISBN as possibly present when Redis fails")
+  void mightContain_WhenRedisFails_ShouldFallBackToDatabase() {
+    // Given
+    doThrow(new RedisConnectionFailureException("down"))
+        .when(valueOperations)
+        .bitField(anyString(), any());
+
+    // When & Then
+    assertThat(filter.mightContain("9780000000001")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should rebuild a generation from the database, then trust it until it expires")
+  void ensureBuilt_NotBuilt_ShouldRebuildFromDatabase() {
+    // Given
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    when(valueOperations.setBit(anyString(), eq(0L), eq(true)))
+        .thenAnswer(
+            invocation -> {
+              bitmap.set(0);
+              return false;
+            });
+    List<String> known = isbns(0, 100);
+    when(bookRepository.findIsbnsAfter(anyLong(), any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Long>getArgument(0) == 0L
+                    ? IntStream.range(0, known.size())
+                        .mapToObj(i -> (BookRepository.IsbnEntry) new Entry(i + 1L, known.get(i)))
+                        .toList()
+                    : List.of());
+    assertThat(filter.mightContainAll(isbns(100, 1_100))).hasSize(1_000); // not built
+
+    // When
+    filter.ensureBuilt();
+
+    // Then
+    assertThat(filter.mightContainAll(known)).hasSize(known.size());
+    assertThat(filter.mightContainAll(isbns(100, 1_100)).size()).isLessThan(30);
+    verify(redisTemplate, atLeastOnce()).expireAt(anyString(), any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should keep checking the database for an ISBN whose bits could not be written")
+  void add_WhenWritesFail_ShouldNotTrustFilterForThatIsbn() {
+    // Given
+    bitmap.set(0); // built
+    writesFail = true;
+    doThrow(new RedisConnectionFailureException("down"))
+        .when(valueOperations)
+        .setBit(anyString(), anyLong(), eq(false));
+
+    // When
+    filter.add("9780000000001");
+    writesFail = false;
+
+    // Then - still built, yet the unwritten ISBN is possibly present; the next check records it
+    assertThat(filter.mightContain("9780000000001")).isTrue();
+    filter.ensureBuilt();
+    assertThat(filter.mightContain("9780000000001")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should expire the generation keys an added ISBN creates, built or not")
+  void add_ShouldExpireBothGenerationKeys() {
+    // When
+    filter.add("9780000000001");
+
+    // Then - the next generation's key may never be built, so the write must bound its life
+    ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Instant> expiries = ArgumentCaptor.forClass(Instant.class);
+    verify(redisTemplate, times(2)).expireAt(keys.capture(), expiries.capture());
+    assertThat(keys.getAllValues()).doesNotHaveDuplicates();
+    assertThat(expiries.getAllValues()).allMatch(expiry -> expiry.isAfter(Instant.now()));
+  }
+
+  @Test
+  @DisplayName("Should size the filter for the expected ISBNs and false-positive rate")
+  void optimalSizing_ShouldMatchBloomFormulas() {
+    // When & Then - about 9.6 bits and 7 hashes per element for 1%
+    assertThat(IsbnBloomFilter.optimalBitCount(10_000_000, 0.01))
+        .isBetween(95_000_000L, 96_000_000L);
+    assertThat(filter.hashCount()).isEqualTo(7);
+    assertThat(Arrays.stream(filter.positions("9780000000001")))
+        .hasSize(7)
+        .allMatch(position -> position >= 1 && position <= filter.bitCount());
+  }
+
+  private List<Long> apply(BitFieldSubCommands commands) {
+    List<Long> results = new ArrayList<>();
+    for (BitFieldSubCommand command : commands) {
+      int offset = (int) command.getOffset().getValue();
+      if (writesFail && command instanceof BitFieldSet) {
+        throw new RedisConnectionFailureException("down");
+      }
+      results.add(bitmap.get(offset) ? 1L : 0L);
+      if (command instanceof BitFieldSet set) {
+        bitmap.set(offset, set.getValue() == 1);
+      }
+    }
+    return results;
+  }
+
+  private static List<String> isbns(int from, int to) {
+    return IntStream.range(from, to).mapToObj(i -> String.format("978%010d", i)).toList();
+  }
+
+  private record Entry(Long id, String isbn) implements BookRepository.IsbnEntry {
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getIsbn() {
+      return isbn;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/** Unit Tests for background next-page prefetch */
+@DisplayName("PagePrefetcher Unit Tests")
+class PagePrefetcherTest {
+
+  private BookCacheProperties.Prefetch settings;
+  private List<Pageable> loaded;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    settings = new BookCacheProperties.Prefetch();
+    settings.setEnabled(true);
+    loaded = new ArrayList<>();
+    registry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  @DisplayName("Should load the page after the one served")
+  void pageServed_MorePages_ShouldLoadNextPage() {
+    // Given
+    PagePrefetcher prefetcher = prefetcher(Runnable::run);
+
+    // When
+    serve(prefetcher, 0);
+
+    // Then
+    assertThat(loaded).containsExactly(PageRequest.of(1, 10));
+    assertThat(count("loaded")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should not prefetch past the last page")
+  void pageServed_LastPage_ShouldNotLoad() {
+    // Given
+    PagePrefetcher prefetcher = prefetcher(Runnable::run);
+
+    // When
+    serve(prefetcher, 2);
+
+    // Then
+    assertThat(loaded).isEmpty();
+    assertThat(count("skipped")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should do nothing while disabled")
+  void pageServed_Disabled_ShouldNotLoad() {
+    // Given
+    settings.setEnabled(false);
+    PagePrefetcher prefetcher = prefetcher(Runnable::run);
+
+    // When
+    serve(prefetcher, 0);
+
+    // Then
+    assertThat(loaded).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should skip prefetches beyond the rate limit")
+  void pageServed_RateLimited_ShouldSkip() {
+    // Given
+    settings.setMaxPerSecond(1);
+    PagePrefetcher prefetcher = prefetcher(Runnable::run);
+
+    // When
+    serve(prefetcher, 0);
+    serve(prefetcher, 1);
+
+    // Then
+    assertThat(loaded).containsExactly(PageRequest.of(1, 10));
+    assertThat(count("skipped")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should skip prefetches beyond the concurrency limit, and dedupe running ones")
+  void pageServed_AlreadyRunning_ShouldSkip() {
+    // Given - tasks are held, so the first prefetch is still running
+    settings.setMaxConcurrent(1);
+    List<Runnable> held = new ArrayList<>();
+    PagePrefetcher prefetcher = prefetcher(held::add);
+
+    // When
+    serve(prefetcher, 0);
+    serve(prefetcher, 0);
+    serve(prefetcher, 1);
+    held.forEach(Runnable::run);
+
+    // Then
+    assertThat(held).hasSize(1);
+    assertThat(loaded).containsExactly(PageRequest.of(1, 10));
+    assertThat(count("skipped")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should count a prefetch the executor rejects as skipped, and free its slot")
+  void pageServed_ExecutorRejects_ShouldSkip() {
+    // Given
+    settings.setMaxConcurrent(1);
+    boolean[] reject = {true};
+    PagePrefetcher prefetcher =
+        prefetcher(
+            task -> {
+              if (reject[0]) {
+                throw new RejectedExecutionException("queue full");
+              }
+              task.run();
+            });
+
+    // When
+    serve(prefetcher, 0);
+    reject[0] = false;
+    serve(prefetcher, 0);
+
+    // Then
+    assertThat(count("skipped")).isEqualTo(1.0);
+    assertThat(loaded).containsExactly(PageRequest.of(1, 10));
+  }
+
+  private PagePrefetcher prefetcher(Executor executor) {
+    PagePrefetcher prefetcher =
+        new PagePrefetcher(new ConcurrentMapCacheManager(), executor, null, settings);
+    prefetcher.bindTo(registry);
+    return prefetcher;
+  }
+
+  /** Serve page {@code number} of a 25-book listing, ten books per page. */
+  private void serve(PagePrefetcher prefetcher, int number) {
+    Pageable pageable = PageRequest.of(number, 10);
+    Page<String> page = new PageImpl<>(List.of("book"), pageable, 25);
+    prefetcher.pageServed("books", PageCacheKey.of(null, pageable), page, loaded::add);
+  }
+
+  private double count(String result) {
+    return registry.get("cache.prefetch.pages").tag("result", result).functionCounter().count();
+  }
+}
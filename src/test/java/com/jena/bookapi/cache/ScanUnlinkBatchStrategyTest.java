@@ -0,0 +1,103 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+/** Unit Tests for non-blocking cache clearing */
+@DisplayName("ScanUnlinkBatchStrategy Unit Tests")
+class ScanUnlinkBatchStrategyTest {
+
+  @Test
+  @DisplayName("Should unlink scanned keys in batches and never run KEYS")
+  @SuppressWarnings("unchecked")
+  void cleanCache_ShouldUnlinkInBatches() {
+    // Given
+    RedisConnection connection = mock(RedisConnection.class);
+    RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+    Cursor<byte[]> cursor = mock(Cursor.class);
+    when(connection.keyCommands()).thenReturn(keyCommands);
+    when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+    when(cursor.hasNext()).thenReturn(true, true, true, true, true, false);
+    when(cursor.next()).thenReturn(key("a"), key("b"), key("c"), key("d"), key("e"));
+    List<Integer> batchSizes = new ArrayList<>();
+    when(keyCommands.unlink(any(byte[][].class)))
+        .thenAnswer(
+            invocation -> {
+              batchSizes.add(invocation.getArguments().length);
+              return (long) invocation.getArguments().length;
+            });
+
+    // When
+    long removed =
+        new ScanUnlinkBatchStrategy(2).cleanCache(connection, "books", key("book-api:books:*"));
+
+    // Then
+    assertThat(removed).isEqualTo(5);
+    assertThat(batchSizes).containsExactly(2, 2, 1);
+    verify(keyCommands, never()).keys(any());
+    verify(cursor).close();
+  }
+
+  @Test
+  @DisplayName("Should scan every master of a Redis Cluster and skip replicas")
+  @SuppressWarnings("unchecked")
+  void cleanCache_OnCluster_ShouldScanEachMaster() {
+    // Given
+    RedisClusterConnection connection = mock(RedisClusterConnection.class);
+    RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+    when(connection.keyCommands()).thenReturn(keyCommands);
+    RedisClusterNode first = node("7000", RedisClusterNode.NodeType.MASTER);
+    RedisClusterNode second = node("7001", RedisClusterNode.NodeType.MASTER);
+    RedisClusterNode replica = node("7003", RedisClusterNode.NodeType.REPLICA);
+    when(connection.clusterGetNodes()).thenReturn(List.of(first, second, replica));
+    Cursor<byte[]> firstCursor = mock(Cursor.class);
+    when(firstCursor.hasNext()).thenReturn(true, false);
+    when(firstCursor.next()).thenReturn(key("a"));
+    Cursor<byte[]> secondCursor = mock(Cursor.class);
+    when(secondCursor.hasNext()).thenReturn(true, false);
+    when(secondCursor.next()).thenReturn(key("b"));
+    when(connection.scan(eq(first), any(ScanOptions.class))).thenReturn(firstCursor);
+    when(connection.scan(eq(second), any(ScanOptions.class))).thenReturn(secondCursor);
+    when(keyCommands.unlink(any(byte[][].class)))
+        .thenAnswer(invocation -> (long) invocation.getArguments().length);
+
+    // When
+    long removed =
+        new ScanUnlinkBatchStrategy(10).cleanCache(connection, "books", key("book-api:books:*"));
+
+    // Then
+    assertThat(removed).isEqualTo(2);
+    verify(connection, never()).scan(eq(replica), any(ScanOptions.class));
+    verify(keyCommands, never()).scan(any(ScanOptions.class));
+  }
+
+  private static RedisClusterNode node(String port, RedisClusterNode.NodeType type) {
+    return RedisClusterNode.newRedisClusterNode()
+        .listeningAt("127.0.0.1", Integer.parseInt(port))
+        .withId("node-" + port)
+        .promotedAs(type)
+        .linkState(RedisClusterNode.LinkState.CONNECTED)
+        .build();
+  }
+
+  private static byte[] key(String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,472 @@
+package com.jena.bookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.jena.bookapi.config.BookCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+/** Unit Tests for the two-level (Caffeine + remote) cache manager */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCacheManager Unit Tests")
+class TwoLevelCacheManagerTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private CacheTagIndex tagIndex;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private ConcurrentMapCacheManager remoteCacheManager;
+  private BookCacheProperties properties;
+  private TwoLevelCacheManager cacheManager;
+
+  @BeforeEach
+  void setUp() {
+    remoteCacheManager = new ConcurrentMapCacheManager("book");
+    properties = new BookCacheProperties();
+    cacheManager =
+        new TwoLevelCacheManager(
+            remoteCacheManager,
+            redisTemplate,
+            properties,
+            tagIndex,
+            Map.of(),
+            Map.of(),
+            new HotKeyTracker(redisTemplate, properties.getWarmUp()),
+            new RefreshAheadPolicy(
+                Map.of(),
+                Duration.ofMinutes(30),
+                properties.getRefreshAhead(),
+                properties.getStaleIfError(),
+                Runnable::run));
+  }
+
+  @Test
+  @DisplayName("Should serve repeated reads from the near-cache")
+  void get_AfterRemoteHit_ShouldServeFromLocal() {
+    // Given
+    Cache cache = cacheManager.getCache("book");
+    remoteCacheManager.getCache("book").put(1L, "Effective Java");
+    assertThat(cache.get(1L).get()).isEqualTo("Effective Java");
+
+    // When
+    remoteCacheManager.getCache("book").evict(1L);
+
+    // Then
+    assertThat(cache.get(1L)).isNotNull();
+    assertThat(cache.get(1L).get()).isEqualTo("Effective Java");
+  }
+
+  @Test
+  @DisplayName("Should evict both levels and broadcast the eviction")
+  void evict_ShouldClearBothLevelsAndPublish() {
+    // Given
+    Cache cache = cacheManager.getCache("book");
+    cache.put(1L, "Effective Java");
+    clearInvocations(redisTemplate); // puts broadcast too
+
+    // When
+    cache.evict(1L);
+
+    // Then
+    assertThat(cache.get(1L)).isNull();
+    ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+    verify(redisTemplate)
+        .convertAndSend(eq(properties.getInvalidationChannel()), payload.capture());
+    CacheInvalidationMessage message = CacheInvalidationMessage.decode(payload.getValue());
+    assertThat(message.cacheName()).isEqualTo("book");
+    assertThat(message.key()).isEqualTo("1");
+  }
+
+  @Test
+  @DisplayName("Should drop local entry when another node broadcasts an eviction")
+  void onMessage_FromOtherNode_ShouldEvictLocalEntry() {
+    // Given
+    Cache cache = cacheManager.getCache("book");
+    cache.put(1L, "Effective Java");
+    remoteCacheManager.getCache("book").evict(1L); // another node already evicted Redis
+    String payload = new CacheInvalidationMessage("other-node", "book", "1").encode();
+
+    // When
+    cacheManager.onMessage(
+        new DefaultMessage(
+            properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8),
+            payload.getBytes(StandardCharsets.UTF_8)),
+        null);
+
+    // Then
+    assertThat(cache.get(1L)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should run one load for concurrent misses on the same key")
+  void getWithLoader_ConcurrentMisses_ShouldLoadOnce() throws Exception {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    Cache cache = cacheManager.getCache("book");
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // When
+    CompletableFuture<String> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    1L,
+                    () -> {
+                      loads.incrementAndGet();
+                      loading.countDown();
+                      release.await();
+                      return "Effective Java";
+                    }));
+    loading.await(5, TimeUnit.SECONDS);
+    CompletableFuture<String> second =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    1L,
+                    () -> {
+                      loads.incrementAndGet();
+                      return "loaded twice";
+                    }));
+    Thread.sleep(50);
+    release.countDown();
+
+    // Then
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Effective Java");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Effective Java");
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should fail concurrent misses promptly when the shared load throws an Error")
+  void getWithLoader_LoaderThrowsError_ShouldReleaseWaiters() throws Exception {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    Cache cache = cacheManager.getCache("book");
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // When
+    CompletableFuture<String> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    1L,
+                    () -> {
+                      loading.countDown();
+                      release.await();
+                      throw new LinkageError("class failed to load");
+                    }));
+    loading.await(5, TimeUnit.SECONDS);
+    CompletableFuture<String> second =
+        CompletableFuture.supplyAsync(() -> cache.get(1L, () -> "loaded twice"));
+    Thread.sleep(50);
+    release.countDown();
+
+    // Then - well before the waiter's own timeout would have run out
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+        .hasRootCauseInstanceOf(LinkageError.class);
+    assertThatThrownBy(() -> second.get(2, TimeUnit.SECONDS))
+        .hasRootCauseInstanceOf(LinkageError.class);
+  }
+
+  @Test
+  @DisplayName("Should wait for the node holding the lease instead of loading")
+  void getWithLoader_LeaseHeldElsewhere_ShouldUseRemoteValue() {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(redisTemplate.hasKey(anyString())).thenReturn(true);
+    Cache cache = cacheManager.getCache("book");
+    CompletableFuture.runAsync(
+        () -> remoteCacheManager.getCache("book").put(1L, "Effective Java"),
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+    // When
+    String value = cache.get(1L, () -> "loaded locally");
+
+    // Then
+    assertThat(value).isEqualTo("Effective Java");
+  }
+
+  @Test
+  @DisplayName("Should load at once when the lease holder releases it without storing a value")
+  void getWithLoader_LeaseReleasedWithoutValue_ShouldLoadLocally() {
+    // Given - the holder's load failed, so its lease is gone and nothing was stored
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(redisTemplate.hasKey(anyString())).thenReturn(false);
+    Cache cache = cacheManager.getCache("book");
+    long started = System.nanoTime();
+
+    // When
+    String value = cache.get(1L, () -> "loaded locally");
+
+    // Then - well before the lease TTL would have run out
+    assertThat(value).isEqualTo("loaded locally");
+    assertThat(Duration.ofNanos(System.nanoTime() - started))
+        .isLessThan(properties.getSingleFlight().getLeaseTtl().dividedBy(2));
+  }
+
+  @Test
+  @DisplayName("Should serve an expired entry and refresh it in the background")
+  void getWithLoader_PastLogicalExpiry_ShouldServeCurrentValueAndRefresh() {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    Cache cache = cacheManager.getCache("book");
+    long expired = System.currentTimeMillis() - 1_000;
+    remoteCacheManager.getCache("book").put(1L, new CacheEntry("1st edition", expired, 5));
+
+    // When
+    String served = cache.get(1L, () -> "2nd edition");
+
+    // Then
+    assertThat(served).isEqualTo("1st edition");
+    CacheEntry refreshed = (CacheEntry) remoteCacheManager.getCache("book").get(1L).get();
+    assertThat(refreshed.value()).isEqualTo("2nd edition");
+    assertThat(refreshed.expiresAt()).isGreaterThan(System.currentTimeMillis());
+    assertThat(cache.get(1L).get()).isEqualTo("2nd edition");
+  }
+
+  @Test
+  @DisplayName("Should treat an entry past its stale window as a miss but keep it as a fallback")
+  void get_PastStaleWindow_ShouldMissButRemainReadableAsStale() {
+    // Given - 30m TTL, so the stale window ends 3m after the logical expiry
+    TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("book");
+    long expired = System.currentTimeMillis() - Duration.ofMinutes(10).toMillis();
+    remoteCacheManager.getCache("book").put(1L, new CacheEntry("1st edition", expired, 5));
+
+    // When / Then
+    assertThat(cache.get(1L)).isNull();
+    assertThat(cache.peekLocal(1L)).isNull();
+    assertThat(cache.getStale(1L).get()).isEqualTo("1st edition");
+  }
+
+  @Test
+  @DisplayName("Should export per-cache hit, miss and load metrics")
+  void bindTo_ShouldExportCacheMetrics() {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cacheManager.bindTo(registry);
+    Cache cache = cacheManager.getCache("book");
+
+    // When
+    cache.get(1L, () -> "Effective Java"); // miss + load
+    cache.get(1L); // near-cache hit
+
+    // Then
+    assertThat(
+            registry
+                .get("cache.gets")
+                .tag("cache", "book")
+                .tag("result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            registry
+                .get("cache.gets")
+                .tag("cache", "book")
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(registry.get("cache.near.hits").tag("cache", "book").functionCounter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("cache.load").tag("cache", "book").timer().count()).isEqualTo(1);
+    assertThat(registry.get("cache.near.size").tag("cache", "book").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should refuse to cache a version older than the last one written or evicted")
+  void get_WithStaleVersion_ShouldNotPopulateEitherLevel() {
+    // Given - Redis already holds a newer version floor, so the conditional write is refused
+    RedisCacheWriter cacheWriter = mock(RedisCacheWriter.class);
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(cacheWriter)
+            .cacheDefaults(
+                RedisCacheConfiguration.defaultCacheConfig()
+                    .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                            new BinaryCacheSerializer())))
+            .initialCacheNames(Set.of("book"))
+            .build();
+    redisCacheManager.initializeCaches();
+    TwoLevelCacheManager versionedManager =
+        new TwoLevelCacheManager(
+            redisCacheManager,
+            redisTemplate,
+            properties,
+            tagIndex,
+            Map.of(),
+            Map.of("book", value -> 3L),
+            new HotKeyTracker(redisTemplate, properties.getWarmUp()),
+            new RefreshAheadPolicy(
+                Map.of(),
+                Duration.ofMinutes(30),
+                properties.getRefreshAhead(),
+                properties.getStaleIfError(),
+                Runnable::run));
+    when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(0L);
+    TwoLevelCache cache = (TwoLevelCache) versionedManager.getCache("book");
+
+    // When
+    Object value = cache.get(1L, () -> "Effective Java, 2nd edition");
+
+    // Then - the caller still gets its value, but neither level caches it
+    assertThat(value).isEqualTo("Effective Java, 2nd edition");
+    assertThat(cache.peekLocal(1L)).isNull();
+    verify(cacheWriter, never()).put(anyString(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should fetch every near-cache miss of a multi-key read with one MGET")
+  void getAll_WithLocalMisses_ShouldIssueSingleMget() {
+    // Given
+    BinaryCacheSerializer serializer = new BinaryCacheSerializer();
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(mock(RedisCacheWriter.class))
+            .cacheDefaults(
+                RedisCacheConfiguration.defaultCacheConfig()
+                    .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)))
+            .initialCacheNames(Set.of("book"))
+            .build();
+    redisCacheManager.initializeCaches();
+    TwoLevelCacheManager bulkManager =
+        new TwoLevelCacheManager(
+            redisCacheManager,
+            redisTemplate,
+            properties,
+            tagIndex,
+            Map.of(),
+            Map.of(),
+            new HotKeyTracker(redisTemplate, properties.getWarmUp()),
+            new RefreshAheadPolicy(
+                Map.of(),
+                Duration.ofMinutes(30),
+                properties.getRefreshAhead(),
+                properties.getStaleIfError(),
+                Runnable::run));
+    RedisConnection connection = mock(RedisConnection.class);
+    RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+    when(connection.stringCommands()).thenReturn(stringCommands);
+    when(stringCommands.mGet(any(byte[][].class)))
+        .thenReturn(
+            Arrays.asList(
+                serializer.serialize(new CacheEntry("Refactoring", Long.MAX_VALUE, 0)), null));
+    when(redisTemplate.execute(any(RedisCallback.class)))
+        .thenAnswer(
+            invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+    TwoLevelCache cache = (TwoLevelCache) bulkManager.getCache("book");
+    cache.putIfAbsent(1L, "Effective Java"); // near-cache copy of 1
+
+    // When
+    Map<Object, Object> values = cache.getAll(List.of(1L, 2L, 3L));
+
+    // Then - 1 from the near-cache, 2 and 3 in one round trip, 3 missing
+    assertThat(values).containsExactly(entry(1L, "Effective Java"), entry(2L, "Refactoring"));
+    verify(stringCommands, times(1)).mGet(any(byte[][].class));
+    assertThat(cache.peekLocal(2L)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should fall back to the near-cache while Redis is down and replay evictions after")
+  void redisOutage_ShouldDegradeToLocalAndReplayEvictionsOnRecovery() {
+    // Given
+    properties.getCircuitBreaker().setWindowSize(2);
+    properties.getCircuitBreaker().setMinimumCalls(2);
+    properties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+    Cache remote = mock(Cache.class);
+    CacheManager failingRemote = mock(CacheManager.class);
+    when(failingRemote.getCache("book")).thenReturn(remote);
+    RedisConnectionFailureException down =
+        new RedisConnectionFailureException("Connection refused");
+    when(remote.get(any())).thenThrow(down);
+    doThrow(down).when(remote).put(any(), any());
+    doThrow(down).when(remote).evict(any());
+    TwoLevelCacheManager manager =
+        new TwoLevelCacheManager(
+            failingRemote,
+            redisTemplate,
+            properties,
+            tagIndex,
+            Map.of(),
+            Map.of(),
+            new HotKeyTracker(redisTemplate, properties.getWarmUp()),
+            new RefreshAheadPolicy(
+                Map.of(),
+                Duration.ofMinutes(30),
+                properties.getRefreshAhead(),
+                properties.getStaleIfError(),
+                Runnable::run));
+    Cache cache = manager.getCache("book");
+
+    // When
+    String loaded = cache.get(1L, () -> "Effective Java");
+    String cached = cache.get(1L, () -> "reloaded");
+    cache.evict(1L);
+    int pendingDuringOutage = manager.pendingEvictionCount();
+    doReturn(null).when(remote).get(any());
+    doNothing().when(remote).evict(any());
+    cache.get(2L); // the probe that finds Redis back
+
+    // Then
+    assertThat(loaded).isEqualTo("Effective Java");
+    assertThat(cached).isEqualTo("Effective Java");
+    assertThat(pendingDuringOutage).isEqualTo(1);
+    assertThat(manager.getCircuitBreaker().getState()).isEqualTo(CacheCircuitBreaker.State.CLOSED);
+    assertThat(manager.pendingEvictionCount()).isZero();
+    verify(remote, times(2)).evict(1L);
+  }
+}
@@ -1,5 +1,9 @@
 package com.jena.bookapi.config;
 
+import com.jena.bookapi.cache.CacheTraceRecorder;
+import com.jena.bookapi.cache.HotBookReplica;
+import com.jena.bookapi.cache.IsbnBloomFilter;
+import com.jena.bookapi.cache.PagePrefetcher;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.support.NoOpCacheManager;
@@ -16,4 +20,33 @@ public class TestCacheConfig {
   public CacheManager testCacheManager() {
     return new NoOpCacheManager();
   }
+
+  /** Disabled, so every ISBN check goes to the test database. */
+  @Bean
+  public IsbnBloomFilter isbnBloomFilter() {
+    BookCacheProperties.IsbnFilter settings = new BookCacheProperties.IsbnFilter();
+    settings.setEnabled(false);
+    return new IsbnBloomFilter(null, null, settings);
+  }
+
+  /** Disabled by default, so nothing is recorded. */
+  @Bean
+  public CacheTraceRecorder cacheTraceRecorder() {
+    return new CacheTraceRecorder(new BookCacheProperties.Trace());
+  }
+
+  /** Disabled, so every read goes through the cache manager. */
+  @Bean
+  public HotBookReplica hotBookReplica() {
+    BookCacheProperties.HotKeys settings = new BookCacheProperties.HotKeys();
+    settings.setEnabled(false);
+    return new HotBookReplica(settings);
+  }
+
+  /** Disabled by default, so nothing is prefetched. */
+  @Bean
+  public PagePrefetcher pagePrefetcher() {
+    return new PagePrefetcher(
+        new NoOpCacheManager(), Runnable::run, null, new BookCacheProperties.Prefetch());
+  }
 }
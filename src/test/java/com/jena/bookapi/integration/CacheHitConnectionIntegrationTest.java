@@ -0,0 +1,247 @@
+package com.jena.bookapi.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jena.bookapi.cache.CacheTraceRecorder;
+import com.jena.bookapi.cache.HotBookReplica;
+import com.jena.bookapi.cache.IsbnBloomFilter;
+import com.jena.bookapi.cache.PagePrefetcher;
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.config.TestSecurityConfig;
+import com.jena.bookapi.dto.BookResponse;
+import com.jena.bookapi.entity.Book;
+import com.jena.bookapi.repository.BookRepository;
+import com.jena.bookapi.service.BookService;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+
+/**
+ * Harness asserting that cache hits never borrow a database connection
+ *
+ * <p>Interview Points: 1. The DataSource is wrapped so every getConnection() on the test thread is
+ * counted, whether it comes from a transaction, a repository or Hibernate 2. Each read runs once to
+ * fill the cache, then again with the counter reset: the hit must not check out a connection 3.
+ * The test class is deliberately not @Transactional, since a test-managed transaction would hold a
+ * connection and hide any checkout 4. A real in-memory cache replaces the no-op one of the other
+ * integration tests, so hits actually happen
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@DisplayName("Cache Hit Connection Integration Tests")
+class CacheHitConnectionIntegrationTest {
+
+  @Autowired private BookService bookService;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private CacheManager cacheManager;
+
+  @Autowired private ConnectionCounter connectionCounter;
+
+  @Autowired private BeanFactoryCacheOperationSourceAdvisor cacheAdvisor;
+
+  @Autowired private BeanFactoryTransactionAttributeSourceAdvisor transactionAdvisor;
+
+  private Book savedBook;
+
+  @BeforeEach
+  void setUp() {
+    bookRepository.deleteAll();
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    savedBook =
+        bookRepository.save(
+            new Book(
+                "Cache Hit Book",
+                "Test Author",
+                "9781234567897",
+                new BigDecimal("19.99"),
+                "Technology",
+                "Served from cache without the pool",
+                12));
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionCounter.stop();
+  }
+
+  @Test
+  @DisplayName("Should borrow no connection when getBookById is a cache hit")
+  void getBookById_CacheHit_ShouldNotCheckOutConnection() {
+    // Given
+    int missCheckouts = connectionCounter.count(() -> bookService.getBookById(savedBook.getId()));
+
+    // When
+    AtomicReference<BookResponse> hit = new AtomicReference<>();
+    int hitCheckouts =
+        connectionCounter.count(() -> hit.set(bookService.getBookById(savedBook.getId())));
+
+    // Then
+    assertThat(missCheckouts).as("the miss proves the counter sees checkouts").isPositive();
+    assertThat(hitCheckouts).isZero();
+    assertThat(hit.get().title()).isEqualTo("Cache Hit Book");
+  }
+
+  @Test
+  @DisplayName("Should borrow no connection when getAllBooks is a cache hit")
+  void getAllBooks_CacheHit_ShouldNotCheckOutConnection() {
+    // Given
+    PageRequest pageable = PageRequest.of(0, 10, Sort.by("title"));
+    connectionCounter.count(() -> bookService.getAllBooks(pageable));
+
+    // When
+    AtomicReference<Page<BookResponse>> hit = new AtomicReference<>();
+    int hitCheckouts = connectionCounter.count(() -> hit.set(bookService.getAllBooks(pageable)));
+
+    // Then
+    assertThat(hitCheckouts).isZero();
+    assertThat(hit.get().getContent())
+        .extracting(BookResponse::id)
+        .containsExactly(savedBook.getId());
+  }
+
+  @Test
+  @DisplayName("Should borrow no connection when getBooksByCategory is a cache hit")
+  void getBooksByCategory_CacheHit_ShouldNotCheckOutConnection() {
+    // Given
+    PageRequest pageable = PageRequest.of(0, 10);
+    connectionCounter.count(() -> bookService.getBooksByCategory("Technology", pageable));
+
+    // When
+    AtomicReference<Page<BookResponse>> hit = new AtomicReference<>();
+    int hitCheckouts =
+        connectionCounter.count(
+            () -> hit.set(bookService.getBooksByCategory("Technology", pageable)));
+
+    // Then
+    assertThat(hitCheckouts).isZero();
+    assertThat(hit.get().getTotalElements()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should order the cache interceptor outside the transaction interceptor")
+  void interceptorOrder_ShouldPlaceCacheAdvisorOutsideTransactionAdvisor() {
+    // Then
+    assertThat(cacheAdvisor.getOrder()).isLessThan(transactionAdvisor.getOrder());
+  }
+
+  /** Counts connections checked out by one thread while a block runs. */
+  static class ConnectionCounter implements BeanPostProcessor {
+
+    private final AtomicInteger checkouts = new AtomicInteger();
+    private volatile Thread watched;
+
+    int count(Runnable block) {
+      checkouts.set(0);
+      watched = Thread.currentThread();
+      try {
+        block.run();
+      } finally {
+        stop();
+      }
+      return checkouts.get();
+    }
+
+    void stop() {
+      watched = null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+          @Override
+          public Connection getConnection() throws SQLException {
+            record();
+            return super.getConnection();
+          }
+
+          @Override
+          public Connection getConnection(String username, String password)
+              throws SQLException {
+            record();
+            return super.getConnection(username, password);
+          }
+        };
+      }
+      return bean;
+    }
+
+    private void record() {
+      if (Thread.currentThread() == watched) {
+        checkouts.incrementAndGet();
+      }
+    }
+  }
+
+  @TestConfiguration
+  static class CountingConfig {
+
+    @Bean
+    static ConnectionCounter connectionCounter() {
+      return new ConnectionCounter();
+    }
+
+    /** A real cache, so the second read is a hit. */
+    @Bean
+    @Primary
+    CacheManager testCacheManager() {
+      return new ConcurrentMapCacheManager();
+    }
+
+    /** Disabled, so no Redis is needed. */
+    @Bean
+    IsbnBloomFilter isbnBloomFilter() {
+      BookCacheProperties.IsbnFilter settings = new BookCacheProperties.IsbnFilter();
+      settings.setEnabled(false);
+      return new IsbnBloomFilter(null, null, settings);
+    }
+
+    @Bean
+    CacheTraceRecorder cacheTraceRecorder() {
+      return new CacheTraceRecorder(new BookCacheProperties.Trace());
+    }
+
+    /** Disabled, so the second read is a cache hit rather than a replica hit. */
+    @Bean
+    HotBookReplica hotBookReplica() {
+      BookCacheProperties.HotKeys settings = new BookCacheProperties.HotKeys();
+      settings.setEnabled(false);
+      return new HotBookReplica(settings);
+    }
+
+    /** Disabled, so no page is loaded outside the watched request thread. */
+    @Bean
+    PagePrefetcher pagePrefetcher() {
+      return new PagePrefetcher(
+          new ConcurrentMapCacheManager(), Runnable::run, null, new BookCacheProperties.Prefetch());
+    }
+  }
+}
@@ -5,6 +5,14 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.jena.bookapi.cache.BookCacheInvalidator;
+import com.jena.bookapi.cache.BookPageCache;
+import com.jena.bookapi.cache.CacheTraceRecorder;
+import com.jena.bookapi.cache.HotBookReplica;
+import com.jena.bookapi.cache.IsbnBloomFilter;
+import com.jena.bookapi.cache.MissingBookCache;
+import com.jena.bookapi.cache.PagePrefetcher;
+import com.jena.bookapi.config.BookCacheProperties;
 import com.jena.bookapi.dto.BookRequest;
 import com.jena.bookapi.dto.BookResponse;
 import com.jena.bookapi.entity.Book;
@@ -15,14 +23,18 @@ import com.jena.bookapi.repository.BookRepository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -44,6 +56,21 @@ class BookServiceTest {
 
   @Mock private BookMapper bookMapper;
 
+  @Mock private BookCacheInvalidator bookCacheInvalidator;
+
+  @Mock private MissingBookCache missingBookCache;
+
+  @Mock private IsbnBloomFilter isbnBloomFilter;
+
+  @Mock private CacheTraceRecorder cacheTraceRecorder;
+
+  @Mock private PagePrefetcher pagePrefetcher;
+
+  @Spy private BookPageCache bookPageCache = new BookPageCache(new NoOpCacheManager());
+
+  @Spy
+  private HotBookReplica hotBookReplica = new HotBookReplica(new BookCacheProperties.HotKeys());
+
   @InjectMocks private BookService bookService;
 
   private Book testBook;
@@ -144,13 +171,47 @@ class BookServiceTest {
         .hasMessage("Book not found with ID: " + bookId);
 
     verify(bookRepository).findById(bookId);
+    verify(missingBookCache).markMissingId(bookId);
     verifyNoInteractions(bookMapper);
   }
 
+  @Test
+  @DisplayName("Should find a book by a hyphenated ISBN, as it is stored normalized")
+  void getBookByIsbn_WithHyphens_ShouldLookUpNormalizedIsbn() {
+    // Given
+    when(isbnBloomFilter.mightContain("9781617292545")).thenReturn(true);
+    when(bookRepository.findByIsbn("9781617292545")).thenReturn(Optional.of(testBook));
+    when(bookMapper.toResponse(testBook)).thenReturn(testBookResponse);
+
+    // When
+    BookResponse result = bookService.getBookByIsbn("978-1-61729-254-5");
+
+    // Then
+    assertThat(result).isEqualTo(testBookResponse);
+    verify(missingBookCache).isMissingIsbn("9781617292545");
+    verify(missingBookCache, never()).markMissingIsbn(any());
+  }
+
+  @Test
+  @DisplayName("Should answer a known-missing ID without querying the database")
+  void getBookById_WhenKnownMissing_ShouldSkipRepository() {
+    // Given
+    Long bookId = 999L;
+    when(missingBookCache.isMissingId(bookId)).thenReturn(true);
+
+    // When & Then
+    assertThatThrownBy(() -> bookService.getBookById(bookId))
+        .isInstanceOf(BookNotFoundException.class)
+        .hasMessage("Book not found with ID: " + bookId);
+
+    verifyNoInteractions(bookRepository);
+  }
+
   @Test
   @DisplayName("Should create book when ISBN is unique")
   void createBook_WhenIsbnIsUnique_ShouldCreateBook() {
     // Given
+    when(isbnBloomFilter.mightContain(testBookRequest.isbn())).thenReturn(true);
     when(bookRepository.existsByIsbn(testBookRequest.isbn())).thenReturn(false);
     when(bookMapper.toEntity(testBookRequest)).thenReturn(testBook);
     when(bookRepository.save(testBook)).thenReturn(testBook);
@@ -167,12 +228,31 @@ class BookServiceTest {
     verify(bookMapper).toEntity(testBookRequest);
     verify(bookRepository).save(testBook);
     verify(bookMapper).toResponse(testBook);
+    verify(bookCacheInvalidator).bookCreated(testBookResponse);
+    verify(isbnBloomFilter).add(testBook.getIsbn());
+  }
+
+  @Test
+  @DisplayName("Should skip the duplicate check when the ISBN filter has never seen the ISBN")
+  void createBook_WhenIsbnUnknownToFilter_ShouldSkipExistsQuery() {
+    // Given
+    when(bookMapper.toEntity(testBookRequest)).thenReturn(testBook);
+    when(bookRepository.save(testBook)).thenReturn(testBook);
+    when(bookMapper.toResponse(testBook)).thenReturn(testBookResponse);
+
+    // When
+    bookService.createBook(testBookRequest);
+
+    // Then
+    verify(bookRepository, never()).existsByIsbn(any());
+    verify(isbnBloomFilter).add(testBook.getIsbn());
   }
 
   @Test
   @DisplayName("Should throw DuplicateIsbnException when ISBN already exists")
   void createBook_WhenIsbnExists_ShouldThrowException() {
     // Given
+    when(isbnBloomFilter.mightContain(testBookRequest.isbn())).thenReturn(true);
     when(bookRepository.existsByIsbn(testBookRequest.isbn())).thenReturn(true);
 
     // When & Then
@@ -189,23 +269,54 @@ class BookServiceTest {
   void updateBook_WhenValidRequest_ShouldUpdateBook() {
     // Given
     Long bookId = 1L;
+    BookRequest newIsbnRequest =
+        new BookRequest(
+            "Test Title",
+            "Test Author",
+            "0987654321",
+            new BigDecimal("29.99"),
+            "Fiction",
+            "Test Description",
+            10);
     when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-    when(bookRepository.findByIsbn(testBookRequest.isbn())).thenReturn(Optional.empty());
-    when(bookRepository.save(testBook)).thenReturn(testBook);
+    when(isbnBloomFilter.mightContain("0987654321")).thenReturn(true);
+    when(bookRepository.findByIsbn("0987654321")).thenReturn(Optional.empty());
+    when(bookRepository.saveAndFlush(testBook)).thenReturn(testBook);
     when(bookMapper.toResponse(testBook)).thenReturn(testBookResponse);
 
     // When
-    BookResponse result = bookService.updateBook(bookId, testBookRequest);
+    BookResponse result = bookService.updateBook(bookId, newIsbnRequest);
 
     // Then
     assertThat(result).isNotNull();
     assertThat(result).isEqualTo(testBookResponse);
 
     verify(bookRepository).findById(bookId);
-    verify(bookRepository).findByIsbn(testBookRequest.isbn());
-    verify(bookMapper).updateEntity(testBook, testBookRequest);
-    verify(bookRepository).save(testBook);
-    verify(bookMapper).toResponse(testBook);
+    verify(bookRepository).findByIsbn("0987654321");
+    verify(bookMapper).updateEntity(testBook, newIsbnRequest);
+    verify(bookRepository).saveAndFlush(testBook);
+    verify(bookMapper, times(2)).toResponse(testBook); // before and after the update
+    verify(bookCacheInvalidator).bookUpdated(testBookResponse, testBookResponse);
+  }
+
+  @Test
+  @DisplayName("Should answer a batch ISBN check with one query for possibly known ISBNs")
+  void checkIsbns_ShouldQueryOnlyFilterCandidates() {
+    // Given
+    List<String> isbns = List.of("1234567890", "0987654321", "1111111111");
+    when(isbnBloomFilter.mightContainAll(isbns)).thenReturn(Set.of("1234567890", "1111111111"));
+    when(bookRepository.findExistingIsbns(Set.of("1234567890", "1111111111")))
+        .thenReturn(List.of("1234567890"));
+
+    // When
+    Map<String, Boolean> result = bookService.checkIsbns(isbns);
+
+    // Then
+    assertThat(result)
+        .containsExactly(
+            Map.entry("1234567890", true),
+            Map.entry("0987654321", false),
+            Map.entry("1111111111", false));
   }
 
   @Test
@@ -213,14 +324,15 @@ class BookServiceTest {
   void deleteBook_WhenBookExists_ShouldDeleteBook() {
     // Given
     Long bookId = 1L;
-    when(bookRepository.existsById(bookId)).thenReturn(true);
+    when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
 
     // When
     bookService.deleteBook(bookId);
 
     // Then
-    verify(bookRepository).existsById(bookId);
-    verify(bookRepository).deleteById(bookId);
+    verify(bookRepository).findById(bookId);
+    verify(bookRepository).delete(testBook);
+    verify(bookCacheInvalidator).bookDeleted(bookId, "Fiction");
   }
 
   @Test
@@ -228,15 +340,16 @@ class BookServiceTest {
   void deleteBook_WhenBookNotExists_ShouldThrowException() {
     // Given
     Long bookId = 999L;
-    when(bookRepository.existsById(bookId)).thenReturn(false);
+    when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
 
     // When & Then
     assertThatThrownBy(() -> bookService.deleteBook(bookId))
         .isInstanceOf(BookNotFoundException.class)
         .hasMessage("Book not found with ID: " + bookId);
 
-    verify(bookRepository).existsById(bookId);
-    verify(bookRepository, never()).deleteById(any());
+    verify(bookRepository).findById(bookId);
+    verify(bookRepository, never()).delete(any());
+    verifyNoInteractions(bookCacheInvalidator);
   }
 
   @Test
@@ -261,4 +374,19 @@ class BookServiceTest {
     verify(bookRepository).searchByTitleOrAuthor(searchTerm, pageable);
     verify(bookMapper).toResponse(testBook);
   }
+
+  @Test
+  @DisplayName("Should search with the normalized term so equivalent queries share a cache entry")
+  void searchBooks_ShouldNormalizeSearchTerm() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookRepository.searchByTitleOrAuthor("the hobbit", pageable))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    // When
+    bookService.searchBooks("  The \t HOBBIT ", pageable);
+
+    // Then
+    verify(bookRepository).searchByTitleOrAuthor("the hobbit", pageable);
+  }
 }
@@ -0,0 +1,130 @@
+package com.jena.bookapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.jena.bookapi.cache.BookPageCache;
+import com.jena.bookapi.cache.HotKeyTracker;
+import com.jena.bookapi.cache.PageCacheKey;
+import com.jena.bookapi.config.BookCacheProperties;
+import com.jena.bookapi.dto.BookResponse;
+import com.jena.bookapi.entity.Book;
+import com.jena.bookapi.mapper.BookMapper;
+import com.jena.bookapi.repository.BookRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/** Unit Tests for startup cache warm-up */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheWarmUpService Unit Tests")
+class CacheWarmUpServiceTest {
+
+  @Mock private HotKeyTracker hotKeyTracker;
+
+  @Mock private BookRepository bookRepository;
+
+  @Mock private BookMapper bookMapper;
+
+  @Mock private BookService bookService;
+
+  private ConcurrentMapCacheManager cacheManager;
+  private BookCacheProperties.WarmUp settings;
+  private CacheWarmUpService warmUpService;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = new ConcurrentMapCacheManager("book");
+    settings = new BookCacheProperties.WarmUp();
+    settings.setBatchSize(2);
+    warmUpService =
+        new CacheWarmUpService(
+            hotKeyTracker,
+            new BookPageCache(cacheManager),
+            bookRepository,
+            bookMapper,
+            bookService,
+            settings);
+  }
+
+  @Test
+  @DisplayName("Should batch-load hot books and replay hot first pages")
+  void warmUp_ShouldPreloadHotBooksAndPages() {
+    // Given
+    PageCacheKey hotPage = PageCacheKey.of("Fiction", PageRequest.of(0, 20, Sort.by("title")));
+    when(hotKeyTracker.topKeys(eq("books"), anyInt())).thenReturn(List.of());
+    when(hotKeyTracker.topKeys(eq("booksByCategory"), anyInt()))
+        .thenReturn(List.of(hotPage.toString()));
+    when(hotKeyTracker.topKeys(eq("book"), anyInt())).thenReturn(List.of("1", "2", "3"));
+    when(bookRepository.findAllById(any()))
+        .thenAnswer(
+            invocation -> {
+              Iterable<Long> ids = invocation.getArgument(0);
+              List<Book> books = new ArrayList<>();
+              ids.forEach(id -> books.add(book(id)));
+              return books;
+            });
+    when(bookMapper.toResponse(any(Book.class)))
+        .thenAnswer(invocation -> response(((Book) invocation.getArgument(0)).getId()));
+
+    // When
+    CacheWarmUpService.Report report = warmUpService.warmUp();
+
+    // Then
+    verify(bookService).getBooksByCategory("Fiction", hotPage.toPageable());
+    verify(bookRepository, times(2)).findAllById(any());
+    assertThat(cacheManager.getCache("book").get(3L, BookResponse.class)).isNotNull();
+    assertThat(report.booksWarmed()).isEqualTo(3);
+    assertThat(report.pagesWarmed()).isEqualTo(1);
+    assertThat(warmUpService.getLastReport()).isSameAs(report);
+  }
+
+  @Test
+  @DisplayName("Should report the failure instead of failing startup when Redis is unavailable")
+  void warmUp_WhenRankingUnavailable_ShouldReportError() {
+    // Given
+    when(hotKeyTracker.topKeys(any(), anyInt()))
+        .thenThrow(new IllegalStateException("Redis unavailable"));
+
+    // When
+    CacheWarmUpService.Report report = warmUpService.warmUp();
+
+    // Then
+    assertThat(report.error()).isEqualTo("Redis unavailable");
+    assertThat(report.booksWarmed()).isZero();
+    verifyNoInteractions(bookRepository, bookService);
+  }
+
+  private static Book book(Long id) {
+    Book book = new Book("Title " + id, "Author", "isbn-" + id, BigDecimal.TEN, "Fiction", null, 1);
+    book.setId(id);
+    return book;
+  }
+
+  private static BookResponse response(Long id) {
+    return new BookResponse(
+        id,
+        "Title " + id,
+        "Author",
+        "isbn-" + id,
+        BigDecimal.TEN,
+        "Fiction",
+        null,
+        1,
+        0L,
+        null,
+        null);
+  }
+}